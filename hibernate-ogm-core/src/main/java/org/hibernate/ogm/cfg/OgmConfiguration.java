@@ -40,6 +40,17 @@ public class OgmConfiguration extends Configuration {
 
 	public static final String OGM_ON = "hibernate.ogm._activate";
 
+	/**
+	 * The maximum number of element entities read in one bulk call of the datastore when a collection is
+	 * initialized. A value of 1 reads them one by one.
+	 */
+	public static final String ELEMENT_BATCH_FETCH_SIZE = "hibernate.ogm.element_batch_fetch_size";
+
+	/**
+	 * The default value used for {@link #ELEMENT_BATCH_FETCH_SIZE}
+	 */
+	public static final int DEFAULT_ELEMENT_BATCH_FETCH_SIZE = 100;
+
 	public OgmConfiguration() {
 		super();
 		resetOgm();
@@ -0,0 +1,139 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.impl;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable and compact representation of an association row used by the
+ * Map based datastores.
+ *
+ * The row is made of an array of column names, which is shared by all the rows
+ * having the same layout, and of an array holding the values of the row.
+ * Rows are never modified: a change to a row produces a new instance (see {@link MapHelpers}).
+ */
+public final class AssociationRow extends AbstractMap<String, Object> implements Serializable {
+
+	private final String[] columns;
+	private final Object[] values;
+
+	/**
+	 * Create a row; the arrays are used as is and must not be modified afterwards.
+	 *
+	 * @param columns the column names, shared with the rows having the same layout
+	 * @param values the values of the row, in the order of {@code columns}
+	 */
+	public AssociationRow(String[] columns, Object[] values) {
+		this.columns = columns;
+		this.values = values;
+	}
+
+	/**
+	 * @return the column names of this row; must not be modified
+	 */
+	public String[] getColumns() {
+		return columns;
+	}
+
+	/**
+	 * @return the values of this row in the order of {@link #getColumns()}; must not be modified
+	 */
+	public Object[] getValues() {
+		return values;
+	}
+
+	@Override
+	public Object get(Object key) {
+		int index = indexOf( key );
+		return index == -1 ? null : values[index];
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf( key ) != -1;
+	}
+
+	@Override
+	public int size() {
+		return columns.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return columns.length == 0;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return new AbstractSet<Map.Entry<String, Object>>() {
+
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return columns.length;
+			}
+		};
+	}
+
+	private int indexOf(Object column) {
+		//rows have a handful of columns, a linear scan beats hashing
+		for ( int index = 0; index < columns.length; index++ ) {
+			if ( columns[index].equals( column ) ) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+		private int index = 0;
+
+		@Override
+		public boolean hasNext() {
+			return index < columns.length;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next() {
+			if ( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<String, Object> entry = new AbstractMap.SimpleImmutableEntry<String, Object>( columns[index], values[index] );
+			index++;
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException( "Association rows are immutable" );
+		}
+	}
+}
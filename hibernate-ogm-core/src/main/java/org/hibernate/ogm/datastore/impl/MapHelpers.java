@@ -20,9 +20,9 @@
  */
 package org.hibernate.ogm.datastore.impl;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.ogm.datastore.map.impl.MapAssociationSnapshot;
 import org.hibernate.ogm.datastore.spi.Association;
@@ -33,6 +33,8 @@
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.RowKey;
 
+import static org.hibernate.ogm.datastore.spi.TupleOperationType.REMOVE;
+
 /**
  * @author Sanne Grinovero <sanne@hibernate.org> (C) 2011 Red Hat Inc.
  */
@@ -56,34 +58,75 @@ public static void applyTupleOpsOnMap(Tuple tuple, Map<String, Object> map) {
 		}
 	}
 
-	public static Map<String, Object> tupleToMap(Tuple tuple) {
-		if (tuple == null) {
+	/**
+	 * Convert an association tuple into an immutable {@link AssociationRow}.
+	 * An unchanged row read from the datastore is returned as is, otherwise only the
+	 * modified row is copied.
+	 *
+	 * @param tuple the tuple to convert
+	 * @param sharedColumns column names of a previously converted row, reused when the layout is the same; can be null
+	 */
+	private static AssociationRow tupleToRow(Tuple tuple, String[] sharedColumns) {
+		if ( tuple == null ) {
 			return null;
 		}
-		Map<String, Object> snapshot;
 		TupleSnapshot snapshotInstance = tuple.getSnapshot();
+		Set<TupleOperation> operations = tuple.getOperations();
+		AssociationRow snapshotRow = null;
+		//loaded assoc tuples are made of MapTupleSnapshot, new assoc tuples are made of EmptyTupleSnapshot
+		if ( snapshotInstance instanceof MapTupleSnapshot
+				&& ( (MapTupleSnapshot) snapshotInstance ).getMap() instanceof AssociationRow ) {
+			snapshotRow = (AssociationRow) ( (MapTupleSnapshot) snapshotInstance ).getMap();
+			if ( operations.isEmpty() ) {
+				return snapshotRow;
+			}
+		}
+		String[] columns;
 		if ( snapshotInstance == EmptyTupleSnapshot.SINGLETON ) {
-			//new assoc tuples are made of EmptyTupleSnapshot
-			snapshot = Collections.EMPTY_MAP;
+			columns = new String[operations.size()];
+			int index = 0;
+			for ( TupleOperation operation : operations ) {
+				if ( operation.getType() != REMOVE ) {
+					columns[index++] = operation.getColumn();
+				}
+			}
+			if ( index < columns.length ) {
+				columns = Arrays.copyOf( columns, index );
+			}
 		}
 		else {
-			//loaded assoc tuples are made of MapTupleSnapshot
-			snapshot = ( (MapTupleSnapshot) snapshotInstance ).getMap();
+			Set<String> columnNames = tuple.getColumnNames();
+			columns = columnNames.toArray( new String[columnNames.size()] );
+		}
+		//a stable order lets rows with the same layout share the same column array
+		Arrays.sort( columns );
+		if ( snapshotRow != null && Arrays.equals( snapshotRow.getColumns(), columns ) ) {
+			columns = snapshotRow.getColumns();
+		}
+		else if ( sharedColumns != null && Arrays.equals( sharedColumns, columns ) ) {
+			columns = sharedColumns;
+		}
+		Object[] values = new Object[columns.length];
+		for ( int index = 0; index < columns.length; index++ ) {
+			values[index] = tuple.get( columns[index] );
 		}
-		Map<String, Object> map = new HashMap<String, Object>( snapshot );
-		MapHelpers.applyTupleOpsOnMap( tuple, map );
-		return map;
+		return new AssociationRow( columns, values );
 	}
 
 	public static void updateAssociation(Association association, AssociationKey key) {
 		Map<RowKey, Map<String, Object>> atomicMap = ( (MapAssociationSnapshot) association.getSnapshot() ).getUnderlyingMap();
+		String[] sharedColumns = null;
 		for( AssociationOperation action : association.getOperations() ) {
 			switch ( action.getType() ) {
 				case CLEAR:
 					atomicMap.clear();
 				case PUT_NULL:
 				case PUT:
-					atomicMap.put( action.getKey(), MapHelpers.tupleToMap( action.getValue() ) );
+					AssociationRow row = tupleToRow( action.getValue(), sharedColumns );
+					if ( row != null ) {
+						sharedColumns = row.getColumns();
+					}
+					atomicMap.put( action.getKey(), row );
 					break;
 				case REMOVE:
 					atomicMap.remove( action.getKey() );
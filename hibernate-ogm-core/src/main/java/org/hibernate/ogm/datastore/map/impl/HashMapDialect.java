@@ -20,7 +20,9 @@
  */
 package org.hibernate.ogm.datastore.map.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.hibernate.LockMode;
@@ -41,6 +43,8 @@
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.type.GridType;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.persister.entity.Lockable;
 import org.hibernate.type.Type;
 
@@ -49,6 +53,8 @@
  */
 public class HashMapDialect implements GridDialect {
 
+	private static final Log log = LoggerFactory.make();
+
 	private final MapDatastoreProvider provider;
 
 	public HashMapDialect(MapDatastoreProvider provider) {
@@ -83,15 +89,25 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
 			return null;
 		}
 		else {
-			return new Tuple( new MapTupleSnapshot( entityMap ) );
+			return new Tuple( new MapTupleSnapshot( entityMap ), tupleContext );
+		}
+	}
+
+	@Override
+	public List<Tuple> getTuples(List<EntityKey> keys, TupleContext tupleContext) {
+		//no round trip involved, simply look up each key
+		List<Tuple> tuples = new ArrayList<Tuple>( keys.size() );
+		for ( EntityKey key : keys ) {
+			tuples.add( getTuple( key, tupleContext ) );
 		}
+		return tuples;
 	}
 
 	@Override
-	public Tuple createTuple(EntityKey key) {
+	public Tuple createTuple(EntityKey key, TupleContext tupleContext) {
 		HashMap<String,Object> tuple = new HashMap<String,Object>();
 		provider.putEntity( key, tuple );
-		return new Tuple( new MapTupleSnapshot( tuple ) );
+		return new Tuple( new MapTupleSnapshot( tuple ), tupleContext );
 	}
 
 	@Override
@@ -100,6 +116,15 @@ public void updateTuple(Tuple tuple, EntityKey key) {
 		MapHelpers.applyTupleOpsOnMap( tuple, entityRecord );
 	}
 
+	@Override
+	public void insertTuple(Tuple tuple, EntityKey key) {
+		Map<String,Object> entityRecord = new HashMap<String,Object>();
+		MapHelpers.applyTupleOpsOnMap( tuple, entityRecord );
+		if ( provider.putEntityIfAbsent( key, entityRecord ) != null ) {
+			throw log.tupleAlreadyExists( key );
+		}
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		provider.removeEntityTuple( key );
@@ -111,6 +136,25 @@ public Association getAssociation(AssociationKey key, AssociationContext associa
 		return associationMap == null ? null : new Association( new MapAssociationSnapshot( associationMap ) );
 	}
 
+	@Override
+	public int getAssociationSize(AssociationKey key) {
+		Map<RowKey, Map<String, Object>> associationMap = provider.getAssociation( key );
+		return associationMap == null ? 0 : associationMap.size();
+	}
+
+	@Override
+	public boolean containsRow(AssociationKey key, RowKey rowKey) {
+		Map<RowKey, Map<String, Object>> associationMap = provider.getAssociation( key );
+		return associationMap != null && associationMap.containsKey( rowKey );
+	}
+
+	@Override
+	public Tuple getRow(AssociationKey key, RowKey rowKey) {
+		Map<RowKey, Map<String, Object>> associationMap = provider.getAssociation( key );
+		Map<String, Object> row = associationMap == null ? null : associationMap.get( rowKey );
+		return row == null ? null : new Tuple( new MapTupleSnapshot( row ) );
+	}
+
 	@Override
 	public Association createAssociation(AssociationKey key) {
 		Map<RowKey, Map<String, Object>> associationMap = new HashMap<RowKey, Map<String,Object>>();
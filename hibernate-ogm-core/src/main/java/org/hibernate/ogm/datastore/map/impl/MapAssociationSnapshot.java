@@ -20,11 +20,12 @@
  */
 package org.hibernate.ogm.datastore.map.impl;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.ogm.datastore.impl.MapTupleSnapshot;
-import org.hibernate.ogm.datastore.spi.AssociationSnapshot;
+import org.hibernate.ogm.datastore.spi.StreamableAssociationSnapshot;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.grid.RowKey;
 
@@ -32,7 +33,7 @@
  * @author Emmanuel Bernard <emmanuel@hibernate.org>
  * @author Sanne Grinovero <sanne@hibernate.org> (C) 2011 Red Hat Inc.
  */
-public final class MapAssociationSnapshot implements AssociationSnapshot {
+public final class MapAssociationSnapshot implements StreamableAssociationSnapshot {
 
 	private final Map<RowKey, Map<String, Object>> associationMap;
 
@@ -61,6 +62,27 @@ public Set<RowKey> getRowKeys() {
 		return associationMap.keySet();
 	}
 
+	@Override
+	public Iterator<Tuple> getRows() {
+		final Iterator<Map<String, Object>> rows = associationMap.values().iterator();
+		return new Iterator<Tuple>() {
+			@Override
+			public boolean hasNext() {
+				return rows.hasNext();
+			}
+
+			@Override
+			public Tuple next() {
+				return new Tuple( new MapTupleSnapshot( rows.next() ) );
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
 	public Map<RowKey, Map<String, Object>> getUnderlyingMap() {
 		return associationMap;
 	}
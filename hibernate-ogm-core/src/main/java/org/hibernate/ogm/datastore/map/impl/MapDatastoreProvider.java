@@ -14,7 +14,7 @@
 
 import javax.persistence.PessimisticLockException;
 
-import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.datastore.spi.CacheBackedDatastoreProvider;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
@@ -33,7 +33,7 @@
  *
  * @author Sanne Grinovero <sanne@hibernate.org> (C) 2011 Red Hat Inc.
  */
-public final class MapDatastoreProvider implements DatastoreProvider, Startable, Stoppable {
+public final class MapDatastoreProvider implements CacheBackedDatastoreProvider, Startable, Stoppable {
 
 	private static final Log log = LoggerFactory.make();
 
@@ -51,6 +51,11 @@ public final class MapDatastoreProvider implements DatastoreProvider, Startable,
 		}
 	};
 
+	@Override
+	public boolean isDataHeldLocally() {
+		return true;
+	}
+
 	@Override
 	public Class<? extends GridDialect> getDefaultDialect() {
 		return HashMapDialect.class;
@@ -120,6 +125,13 @@ public void putEntity(EntityKey key, Map<String, Object> tuple) {
 		entitiesKeyValueStorage.put( key, tuple );
 	}
 
+	/**
+	 * @return the tuple already stored for the given key, {@code null} if the given tuple has been stored
+	 */
+	public Map<String, Object> putEntityIfAbsent(EntityKey key, Map<String, Object> tuple) {
+		return entitiesKeyValueStorage.putIfAbsent( key, tuple );
+	}
+
 	public Map<String, Object> getEntityTuple(EntityKey key) {
 		return entitiesKeyValueStorage.get( key );
 	}
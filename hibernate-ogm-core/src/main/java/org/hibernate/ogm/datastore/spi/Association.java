@@ -23,6 +23,7 @@
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -145,6 +146,34 @@ public Set<RowKey> getKeys() {
 		return keys;
 	}
 
+	/**
+	 * Return the rows of the association.
+	 * When the association is unchanged and its snapshot is a {@link StreamableAssociationSnapshot}, the rows are
+	 * streamed from the snapshot without building their keys.
+	 */
+	public Iterator<Tuple> getRows() {
+		if ( !cleared && currentState.isEmpty() && snapshot instanceof StreamableAssociationSnapshot ) {
+			return ( (StreamableAssociationSnapshot) snapshot ).getRows();
+		}
+		final Iterator<RowKey> keys = getKeys().iterator();
+		return new Iterator<Tuple>() {
+			@Override
+			public boolean hasNext() {
+				return keys.hasNext();
+			}
+
+			@Override
+			public Tuple next() {
+				return get( keys.next() );
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
 	public void clear() {
 		cleared = true;
 		currentState.clear();
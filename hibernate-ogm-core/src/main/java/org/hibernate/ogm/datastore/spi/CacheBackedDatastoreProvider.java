@@ -0,0 +1,40 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.spi;
+
+/**
+ * A {@link DatastoreProvider} whose datastore is itself a cache living in the memory of the
+ * application nodes, like Infinispan or Ehcache.
+ *
+ * When every node holds all the data, Hibernate's second-level cache would only hold a second, disassembled
+ * copy of the tuples the datastore already keeps in memory. The OGM persisters then do not use it and read the
+ * tuples from the datastore, which is as cheap as a second-level cache hit and does not duplicate the memory
+ * footprint. When the data is spread across the nodes, the second-level cache is used as usual: a local hit
+ * avoids a remote get.
+ */
+public interface CacheBackedDatastoreProvider extends DatastoreProvider {
+
+	/**
+	 * @return {@code true} if the tuples are all held in the memory of the local node, as with a local or replicated
+	 * cache, {@code false} if reading some of them may involve a remote call
+	 */
+	boolean isDataHeldLocally();
+}
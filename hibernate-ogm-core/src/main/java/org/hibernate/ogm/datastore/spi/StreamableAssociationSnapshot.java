@@ -0,0 +1,40 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.spi;
+
+import java.util.Iterator;
+
+/**
+ * An {@link AssociationSnapshot} whose rows can be read one after the other.
+ * <p>
+ * Implemented by the dialects able to hand out the rows of an association without first building the
+ * {@link org.hibernate.ogm.grid.RowKey} of each of them, so that initializing a large collection does not
+ * hold all the rows and their keys in memory at once.
+ *
+ * @see Association#getRows()
+ */
+public interface StreamableAssociationSnapshot extends AssociationSnapshot {
+
+	/**
+	 * Returns the rows of the association; the tuples may be built while iterating.
+	 */
+	Iterator<Tuple> getRows();
+}
@@ -22,9 +22,12 @@
 
 import org.hibernate.ogm.datastore.impl.SetFromCollection;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,19 +43,55 @@
  * list of TupleOperation. It is intended that GridDialects retrieve to these actions and
  * reproduce them to the datastore. The list of changes is computed based off the snapshot.
  *
+ * The columns of the {@link TupleContext} of the tuple can be addressed by their slot:
+ * see {@link #get(int, String)} and {@link #put(int, String, Object)}.
+ *
  * @author Emmanuel Bernard <emmanuel@hibernate.org>
  * @author Sanne Grinovero  <sanne@hibernate.org>
  */
 public class Tuple {
 
 	private final TupleSnapshot snapshot;
+	private final TupleContext tupleContext;
+	//changes applied to the columns known by the TupleContext, addressed by slot index
+	private Object[] slotValues = null;
+	private TupleOperationType[] slotOperations = null;
+	private BitSet dirtySlots = null;
 	private Map<String, TupleOperation> currentState = null; //lazy initialize the Map as it costs quite some memory
+	private Set<TupleOperation> operations = null; //built on demand, until the next change
 
 	public Tuple(TupleSnapshot snapshot) {
+		this( snapshot, null );
+	}
+
+	/**
+	 * @param snapshot the state of the tuple at creation time
+	 * @param tupleContext the context whose selectable columns get slot addressing, can be null
+	 */
+	public Tuple(TupleSnapshot snapshot, TupleContext tupleContext) {
 		this.snapshot = snapshot;
+		this.tupleContext = tupleContext;
 	}
 
 	public Object get(String column) {
+		return get( -1, column );
+	}
+
+	/**
+	 * Read a column by the slot its {@link TupleContext} assigns to it.
+	 * The column is looked up by name when the slot does not match the context of this tuple.
+	 *
+	 * @param slot the slot of the column, -1 if unknown
+	 * @param column the column name
+	 */
+	public Object get(int slot, String column) {
+		slot = resolveSlot( slot, column );
+		if ( slot >= 0 ) {
+			if ( dirtySlots == null || !dirtySlots.get( slot ) ) {
+				return snapshot.get( column );
+			}
+			return slotOperations[slot] == PUT ? slotValues[slot] : null;
+		}
 		if ( currentState == null ) {
 			return snapshot.get( column );
 		}
@@ -69,22 +108,42 @@ else if ( result.getType() == PUT_NULL || result.getType() == REMOVE ) {
 	}
 
 	public void put(String column, Object value) {
+		put( -1, column, value );
+	}
+
+	/**
+	 * Write a column by the slot its {@link TupleContext} assigns to it.
+	 * The column is looked up by name when the slot does not match the context of this tuple.
+	 *
+	 * @param slot the slot of the column, -1 if unknown
+	 * @param column the column name
+	 * @param value the new value of the column
+	 */
+	public void put(int slot, String column, Object value) {
+		TupleOperationType type = value == null ? PUT_NULL : PUT;
+		slot = resolveSlot( slot, column );
+		if ( slot >= 0 ) {
+			setSlot( slot, value, type );
+			return;
+		}
 		if ( currentState == null ) {
 			currentState = new HashMap<String, TupleOperation>();
 		}
-		if ( value == null ) {
-			currentState.put( column, new TupleOperation( column, null, PUT_NULL ) );
-		}
-		else {
-			currentState.put( column, new TupleOperation( column, value, PUT ) );
-		}
+		currentState.put( column, new TupleOperation( column, value, type ) );
+		operations = null;
 	}
 
 	public void remove(String column) {
+		int slot = resolveSlot( -1, column );
+		if ( slot >= 0 ) {
+			setSlot( slot, null, REMOVE );
+			return;
+		}
 		if ( currentState == null ) {
 			currentState = new HashMap<String, TupleOperation>();
 		}
 		currentState.put( column, new TupleOperation( column, null, REMOVE ) );
+		operations = null;
 	}
 
 	/**
@@ -92,12 +151,27 @@ public void remove(String column) {
 	 * Inherently deduplicated operations
 	 */
 	public Set<TupleOperation> getOperations() {
-		if ( currentState == null ) {
-			return Collections.emptySet();
+		if ( operations == null ) {
+			operations = buildOperations();
 		}
-		else {
+		return operations;
+	}
+
+	private Set<TupleOperation> buildOperations() {
+		if ( dirtySlots == null ) {
+			if ( currentState == null ) {
+				return Collections.emptySet();
+			}
 			return new SetFromCollection<TupleOperation>( currentState.values() );
 		}
+		List<TupleOperation> result = new ArrayList<TupleOperation>( dirtySlots.cardinality() + ( currentState == null ? 0 : currentState.size() ) );
+		for ( int slot = dirtySlots.nextSetBit( 0 ); slot >= 0; slot = dirtySlots.nextSetBit( slot + 1 ) ) {
+			result.add( new TupleOperation( tupleContext.getColumn( slot ), slotValues[slot], slotOperations[slot] ) );
+		}
+		if ( currentState != null ) {
+			result.addAll( currentState.values() );
+		}
+		return new SetFromCollection<TupleOperation>( result );
 	}
 
 	public TupleSnapshot getSnapshot() {
@@ -105,21 +179,51 @@ public TupleSnapshot getSnapshot() {
 	}
 
 	public Set<String> getColumnNames() {
-		if ( currentState == null ) {
+		if ( currentState == null && dirtySlots == null ) {
 			return snapshot.getColumnNames();
 		}
 		Set<String> columnNames = new HashSet<String>( snapshot.getColumnNames() );
-		for ( TupleOperation op : currentState.values() ) {
-			switch ( op.getType() ) {
-				case PUT :
-				case PUT_NULL :
-					columnNames.add( op.getColumn() );
-					break;
-				case REMOVE:
-					columnNames.remove( op.getColumn() );
-					break;
+		if ( dirtySlots != null ) {
+			for ( int slot = dirtySlots.nextSetBit( 0 ); slot >= 0; slot = dirtySlots.nextSetBit( slot + 1 ) ) {
+				applyTo( columnNames, tupleContext.getColumn( slot ), slotOperations[slot] );
+			}
+		}
+		if ( currentState != null ) {
+			for ( TupleOperation op : currentState.values() ) {
+				applyTo( columnNames, op.getColumn(), op.getType() );
 			}
 		}
 		return columnNames;
 	}
+
+	private static void applyTo(Set<String> columnNames, String column, TupleOperationType type) {
+		switch ( type ) {
+			case PUT :
+			case PUT_NULL :
+				columnNames.add( column );
+				break;
+			case REMOVE:
+				columnNames.remove( column );
+				break;
+		}
+	}
+
+	private int resolveSlot(int slot, String column) {
+		if ( tupleContext == null ) {
+			return -1;
+		}
+		return tupleContext.isSlotOf( slot, column ) ? slot : tupleContext.getSlot( column );
+	}
+
+	private void setSlot(int slot, Object value, TupleOperationType type) {
+		if ( dirtySlots == null ) {
+			slotValues = new Object[tupleContext.getSlotCount()];
+			slotOperations = new TupleOperationType[tupleContext.getSlotCount()];
+			dirtySlots = new BitSet( tupleContext.getSlotCount() );
+		}
+		slotValues[slot] = value;
+		slotOperations[slot] = type;
+		dirtySlots.set( slot );
+		operations = null;
+	}
 }
@@ -20,7 +20,8 @@
  */
 package org.hibernate.ogm.datastore.spi;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,19 +29,76 @@
  * Represents all information used to load an entity
  * with some specific characteristics like a projection
  *
+ * The selectable columns are also assigned a slot index, computed once
+ * when the context is built: a {@link Tuple} created with this context stores
+ * the values of these columns in an array instead of a hash map. Callers
+ * resolving the slots of their columns once, see {@link #getSlots(String[])},
+ * can then address these columns without any lookup.
+ *
  * @author Guillaume Scheibel <guillaume.scheibel@gmail.com>
  */
 public class TupleContext {
 	public TupleContext(List<String> selectableColumns) {
 		this.selectableColumns = selectableColumns;
+		this.slotColumns = new String[selectableColumns.size()];
+		Map<String, Integer> slots = new HashMap<String, Integer>( selectableColumns.size() * 2 );
+		for ( int index = 0; index < selectableColumns.size(); index++ ) {
+			String column = selectableColumns.get( index );
+			//the same column can be mapped by several properties, keep the first slot
+			if ( !slots.containsKey( column ) ) {
+				slots.put( column, index );
+				slotColumns[index] = column;
+			}
+		}
+		this.slotsByColumn = Collections.unmodifiableMap( slots );
 	}
 
 	private final List<String> selectableColumns;
+	//the column of each slot, null for the slots of columns already mapped by a previous slot
+	private final String[] slotColumns;
+	private final Map<String, Integer> slotsByColumn;
 
 	public List<String> getSelectableColumns() {
 		return selectableColumns;
 	}
 
+	/**
+	 * @return the slot index of the given column or -1 if the column is not part of this context
+	 */
+	public int getSlot(String column) {
+		Integer slot = slotsByColumn.get( column );
+		return slot == null ? -1 : slot.intValue();
+	}
+
+	/**
+	 * @return the slot index of each of the given columns, -1 for the columns which are not part of this context
+	 */
+	public int[] getSlots(String[] columns) {
+		int[] slots = new int[columns.length];
+		for ( int index = 0; index < columns.length; index++ ) {
+			slots[index] = getSlot( columns[index] );
+		}
+		return slots;
+	}
+
+	/**
+	 * @return true if the given slot is the one of the given column in this context
+	 */
+	public boolean isSlotOf(int slot, String column) {
+		return slot >= 0 && slot < slotColumns.length && column.equals( slotColumns[slot] );
+	}
+
+	public int getSlotCount() {
+		return slotColumns.length;
+	}
+
+	/**
+	 * @return the column of the given slot or null if this slot is not used
+	 */
+	public String getColumn(int slot) {
+		return slotColumns[slot];
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder builder = new StringBuilder( "Tuple Context {" );
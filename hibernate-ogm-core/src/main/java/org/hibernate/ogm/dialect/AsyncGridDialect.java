@@ -0,0 +1,73 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect;
+
+import java.util.concurrent.Future;
+
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+
+/**
+ * A {@link GridDialect} able to send several independent operations to the datastore at the same time.
+ *
+ * Hibernate OGM starts the writes of a flush which do not depend on each other (for instance the
+ * associations updated by the flush, see {@link org.hibernate.ogm.util.impl.FlushWorkingSet}) and waits for
+ * all of them before going on, so that the flush takes about as long as its slowest datastore call
+ * instead of the sum of them.
+ *
+ * The operations started together always target different keys. The returned futures report the failure of
+ * an operation through {@link java.util.concurrent.ExecutionException}. An implementation may run an
+ * operation on the calling thread and return a completed future, typically when the operation has to be
+ * applied in order with other pending operations of this thread.
+ *
+ * Note that a dialect which is also a {@link BatchableGridDialect} queues the tuple writes of a flush on the
+ * flushing thread until the batch is executed, so {@link #updateTupleAsync} then completes on the calling
+ * thread: during a flush only the association writes actually run concurrently.
+ */
+public interface AsyncGridDialect extends GridDialect {
+
+	/**
+	 * Not used by the flush, which only writes; meant for the callers reading several independent tuples.
+	 *
+	 * @see GridDialect#getTuple(EntityKey, TupleContext)
+	 */
+	Future<Tuple> getTupleAsync(EntityKey key, TupleContext tupleContext);
+
+	/**
+	 * May run on the calling thread, see the note on batching above.
+	 *
+	 * @see GridDialect#updateTuple(Tuple, EntityKey)
+	 */
+	Future<Void> updateTupleAsync(Tuple tuple, EntityKey key);
+
+	/**
+	 * @see GridDialect#updateAssociation(Association, AssociationKey)
+	 */
+	Future<Void> updateAssociationAsync(Association association, AssociationKey key);
+
+	/**
+	 * @see GridDialect#removeAssociation(AssociationKey)
+	 */
+	Future<Void> removeAssociationAsync(AssociationKey key);
+}
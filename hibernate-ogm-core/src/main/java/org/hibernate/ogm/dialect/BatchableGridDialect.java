@@ -0,0 +1,49 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect;
+
+/**
+ * A {@link GridDialect} able to defer the tuple writes happening during a flush
+ * and to send them to the datastore in bulk at the end of the flush.
+ *
+ * The batch is bound to the current thread: between {@link #prepareBatch()} and {@link #executeBatch()}
+ * or {@link #clearBatch()}, {@link #updateTuple(org.hibernate.ogm.datastore.spi.Tuple, org.hibernate.ogm.grid.EntityKey)}
+ * and {@link #removeTuple(org.hibernate.ogm.grid.EntityKey)} may be queued instead of being applied right away.
+ * Implementations must apply the pending writes before any other operation touching the datastore
+ * so that the session always reads its own writes.
+ */
+public interface BatchableGridDialect extends GridDialect {
+
+	/**
+	 * Start queueing the tuple writes of the current thread
+	 */
+	void prepareBatch();
+
+	/**
+	 * Apply the queued tuple writes of the current thread and stop queueing
+	 */
+	void executeBatch();
+
+	/**
+	 * Discard the queued tuple writes of the current thread and stop queueing
+	 */
+	void clearBatch();
+}
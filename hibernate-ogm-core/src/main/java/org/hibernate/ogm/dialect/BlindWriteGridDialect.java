@@ -0,0 +1,43 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect;
+
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.grid.EntityKey;
+
+/**
+ * A {@link GridDialect} able to update a tuple without reading it first.
+ *
+ * When the old state of an entity is not needed to update it (no version check, no {@code ALL} or {@code DIRTY}
+ * optimistic locking and no property metadata to maintain), Hibernate OGM builds the changes on top of a
+ * write-only tuple and hands them to {@link #updateTuple(Tuple, EntityKey)}, saving the read of the tuple.
+ * This only makes sense for datastores where {@code updateTuple} applies the operations of the tuple as a delta.
+ */
+public interface BlindWriteGridDialect extends GridDialect {
+
+	/**
+	 * Return a tuple for the entity identified by the given key whose snapshot does not contain the state
+	 * of the entity: only the changes applied to the tuple are meant to be written by
+	 * {@link #updateTuple(Tuple, EntityKey)}. The datastore is not accessed.
+	 */
+	Tuple createTupleForUpdate(EntityKey key, TupleContext tupleContext);
+}
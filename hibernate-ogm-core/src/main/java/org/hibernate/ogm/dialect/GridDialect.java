@@ -52,17 +52,36 @@ public interface GridDialect extends Service {
 	 */
 	Tuple getTuple(EntityKey key, TupleContext tupleContext);
 
+	/**
+	 * Return the tuples with the given column for the given keys.
+	 * The returned list has the same size and order as {@code keys}; a null element means the corresponding
+	 * tuple is not present.
+	 *
+	 * Dialects are encouraged to fetch all tuples in a single round trip to the datastore.
+	 * Dialects not able to do so can simply delegate to {@link #getTuple(EntityKey, TupleContext)} for each key.
+	 */
+	List<Tuple> getTuples(List<EntityKey> keys, TupleContext tupleContext);
+
 	/**
 	 * Return a new tuple for a given key
 	 * Only used if the tuple is not present
 	 */
-	Tuple createTuple(EntityKey key);
+	Tuple createTuple(EntityKey key, TupleContext tupleContext);
 
 	/**
 	 * Update the tuple for a given key or null if not present
 	 */
 	void updateTuple(Tuple tuple, EntityKey key);
 
+	/**
+	 * Write a new tuple for a given key in a single atomic operation. The columns of the tuple are the ones
+	 * put into it, its snapshot is empty.
+	 *
+	 * @throws org.hibernate.ogm.exception.TupleAlreadyExistsException if a tuple with the same key is already
+	 * present. Dialects deferring their writes (see {@link BatchableGridDialect}) may raise it when the writes are applied.
+	 */
+	void insertTuple(Tuple tuple, EntityKey key);
+
 	/**
 	 * Remove the tuple for a given key
 	 */
@@ -73,6 +92,27 @@ public interface GridDialect extends Service {
 	 */
 	Association getAssociation(AssociationKey key, AssociationContext associationContext);
 
+	/**
+	 * Return the number of tuples of a given association, 0 if the association is not present.
+	 *
+	 * Dialects are encouraged to count the tuples without reading them.
+	 */
+	int getAssociationSize(AssociationKey key);
+
+	/**
+	 * Return whether a given association contains the row with the given key, false if the association is not present.
+	 *
+	 * Dialects are encouraged to look the row up without reading the whole association.
+	 */
+	boolean containsRow(AssociationKey key, RowKey rowKey);
+
+	/**
+	 * Return the row with the given key of a given association, null if the row or the association is not present.
+	 *
+	 * Dialects are encouraged to read this row only.
+	 */
+	Tuple getRow(AssociationKey key, RowKey rowKey);
+
 	/**
 	 * Create an empty container for the list of tuples corresponding to a given association
 	 * Only used if the association data is not present
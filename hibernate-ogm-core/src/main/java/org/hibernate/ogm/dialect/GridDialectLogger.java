@@ -20,6 +20,9 @@
  */
 package org.hibernate.ogm.dialect;
 
+import java.util.List;
+import java.util.concurrent.Future;
+
 import org.hibernate.LockMode;
 import org.hibernate.dialect.lock.LockingStrategy;
 import org.hibernate.id.IntegralDataTypeHolder;
@@ -41,11 +44,15 @@
  * A wrapper dialect that logs the calls performed on the real dialect.
  * It is only used when this class's logger level is set to Trace
  *
+ * The optional dialect contracts are all implemented and forwarded to the real dialect; use
+ * {@link org.hibernate.ogm.dialect.impl.GridDialects#hasFacet(GridDialect, Class)} to find out whether the
+ * real dialect supports them.
+ *
  * @author Sebastien Lorber (<i>lorber.sebastien@gmail.com</i>)
  * @author Emmanuel Bernard <emmanuel@hibernate.org>
  * @see org.hibernate.ogm.dialect.impl.GridDialectFactoryImpl#buildGridDialect(java.util.Map, org.hibernate.service.ServiceRegistry)
  */
-public class GridDialectLogger implements GridDialect {
+public class GridDialectLogger implements BatchableGridDialect, AsyncGridDialect, BlindWriteGridDialect {
 
 	private static final Log log = Logger.getMessageLogger( Log.class, CoreLogCategories.DATASTORE_ACCESS.toString() );
 
@@ -58,6 +65,13 @@ public GridDialectLogger(GridDialect gridDialect) {
 		this.gridDialect = gridDialect;
 	}
 
+	/**
+	 * @return the real grid dialect
+	 */
+	public GridDialect getGridDialect() {
+		return gridDialect;
+	}
+
 	/**
 	 * Returns true if this grid dialect logger should wrap the real grid dialect
 	 *
@@ -80,9 +94,21 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext){
 	}
 
 	@Override
-	public Tuple createTuple(EntityKey key) {
+	public List<Tuple> getTuples(List<EntityKey> keys, TupleContext tupleContext) {
+		log.tracef( "Reading %1$d Tuples with keys %2$s and context %3$s", keys.size(), keys, tupleContext.toString() );
+		return gridDialect.getTuples( keys, tupleContext );
+	}
+
+	@Override
+	public Tuple createTuple(EntityKey key, TupleContext tupleContext) {
 		log.tracef( "Build Tuple object with key %1$s (does not trigger access to the datastore)", key );
-		return gridDialect.createTuple( key );
+		return gridDialect.createTuple( key, tupleContext );
+	}
+
+	@Override
+	public Tuple createTupleForUpdate(EntityKey key, TupleContext tupleContext) {
+		log.tracef( "Build write-only Tuple object with key %1$s (does not trigger access to the datastore)", key );
+		return facet( BlindWriteGridDialect.class ).createTupleForUpdate( key, tupleContext );
 	}
 
 	@Override
@@ -95,6 +121,12 @@ public void updateTuple(Tuple tuple, EntityKey key) {
 		gridDialect.updateTuple( tuple, key );
 	}
 
+	@Override
+	public void insertTuple(Tuple tuple, EntityKey key) {
+		log.tracef( "Inserting Tuple with key %1$s in datastore", key );
+		gridDialect.insertTuple( tuple, key );
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		log.tracef( "Removing Tuple with key %1$s from datastore", key );
@@ -107,6 +139,24 @@ public Association getAssociation(AssociationKey key, AssociationContext associa
 		return gridDialect.getAssociation( key, associationContext );
 	}
 
+	@Override
+	public int getAssociationSize(AssociationKey key) {
+		log.tracef( "Reading size of association with key %1$s from datastore", key );
+		return gridDialect.getAssociationSize( key );
+	}
+
+	@Override
+	public boolean containsRow(AssociationKey key, RowKey rowKey) {
+		log.tracef( "Looking up row %1$s of association with key %2$s in datastore", rowKey, key );
+		return gridDialect.containsRow( key, rowKey );
+	}
+
+	@Override
+	public Tuple getRow(AssociationKey key, RowKey rowKey) {
+		log.tracef( "Reading row %1$s of association with key %2$s from datastore", rowKey, key );
+		return gridDialect.getRow( key, rowKey );
+	}
+
 	@Override
 	public Association createAssociation(AssociationKey key) {
 		log.tracef( "Build association object with key %1$s (does not trigger access to the datastore)", key );
@@ -150,4 +200,58 @@ public GridType overrideType(Type type) {
 		return gridDialect.overrideType( type );
 	}
 
+	@Override
+	public Future<Tuple> getTupleAsync(EntityKey key, TupleContext tupleContext) {
+		log.tracef( "Reading Tuple with key %1$s and context %2$s asynchronously", key, tupleContext.toString() );
+		return facet( AsyncGridDialect.class ).getTupleAsync( key, tupleContext );
+	}
+
+	@Override
+	public Future<Void> updateTupleAsync(Tuple tuple, EntityKey key) {
+		log.tracef( "Updating Tuple with key %1$s in datastore asynchronously", key );
+		return facet( AsyncGridDialect.class ).updateTupleAsync( tuple, key );
+	}
+
+	@Override
+	public Future<Void> updateAssociationAsync(Association association, AssociationKey key) {
+		log.tracef( "Updating association with key %1$s in datastore asynchronously", key );
+		return facet( AsyncGridDialect.class ).updateAssociationAsync( association, key );
+	}
+
+	@Override
+	public Future<Void> removeAssociationAsync(AssociationKey key) {
+		log.tracef( "Removing association with key %1$s from datastore asynchronously", key );
+		return facet( AsyncGridDialect.class ).removeAssociationAsync( key );
+	}
+
+	@Override
+	public void prepareBatch() {
+		if ( gridDialect instanceof BatchableGridDialect ) {
+			log.tracef( "Starting to batch tuple writes" );
+			( (BatchableGridDialect) gridDialect ).prepareBatch();
+		}
+	}
+
+	@Override
+	public void executeBatch() {
+		if ( gridDialect instanceof BatchableGridDialect ) {
+			log.tracef( "Executing batched tuple writes" );
+			( (BatchableGridDialect) gridDialect ).executeBatch();
+		}
+	}
+
+	@Override
+	public void clearBatch() {
+		if ( gridDialect instanceof BatchableGridDialect ) {
+			log.tracef( "Discarding batched tuple writes" );
+			( (BatchableGridDialect) gridDialect ).clearBatch();
+		}
+	}
+
+	private <T extends GridDialect> T facet(Class<T> facet) {
+		if ( !facet.isInstance( gridDialect ) ) {
+			throw new UnsupportedOperationException( gridDialect.getClass().getName() + " does not implement " + facet.getName() );
+		}
+		return facet.cast( gridDialect );
+	}
 }
@@ -0,0 +1,66 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.impl;
+
+import org.hibernate.HibernateException;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.ogm.dialect.BatchableGridDialect;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.util.impl.FlushWorkingSet;
+
+/**
+ * Same as {@link BatchingFlushEventListener} for the flushes happening before a query is executed.
+ */
+public class BatchingAutoFlushEventListener implements AutoFlushEventListener {
+
+	private final AutoFlushEventListener[] delegates;
+
+	public BatchingAutoFlushEventListener(AutoFlushEventListener[] delegates) {
+		this.delegates = delegates;
+	}
+
+	@Override
+	public void onAutoFlush(AutoFlushEvent event) throws HibernateException {
+		final GridDialect gridDialect = BatchingFlushEventListener.getGridDialect( event.getSession() );
+		final BatchableGridDialect batchableGridDialect = BatchingFlushEventListener.getBatchableGridDialect( gridDialect );
+		final FlushWorkingSet workingSet = FlushWorkingSet.begin( event.getSession(), gridDialect );
+		if ( batchableGridDialect != null ) {
+			batchableGridDialect.prepareBatch();
+		}
+		try {
+			for ( AutoFlushEventListener delegate : delegates ) {
+				delegate.onAutoFlush( event );
+			}
+			workingSet.end();
+		}
+		catch ( RuntimeException e ) {
+			workingSet.discard();
+			if ( batchableGridDialect != null ) {
+				batchableGridDialect.clearBatch();
+			}
+			throw e;
+		}
+		if ( batchableGridDialect != null ) {
+			batchableGridDialect.executeBatch();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.impl;
+
+import org.hibernate.HibernateException;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.ogm.datastore.impl.DatastoreServices;
+import org.hibernate.ogm.dialect.BatchableGridDialect;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.util.impl.FlushWorkingSet;
+
+/**
+ * Wraps the flush listeners of the session factory so that the tuple writes of a flush are
+ * sent in bulk when the {@link GridDialect} is a {@link BatchableGridDialect}.
+ * <p>
+ * The listener also binds a {@link FlushWorkingSet} for the duration of the flush so that the associations
+ * touched by the persisters are read and written once.
+ */
+public class BatchingFlushEventListener implements FlushEventListener {
+
+	private final FlushEventListener[] delegates;
+
+	public BatchingFlushEventListener(FlushEventListener[] delegates) {
+		this.delegates = delegates;
+	}
+
+	@Override
+	public void onFlush(FlushEvent event) throws HibernateException {
+		final GridDialect gridDialect = getGridDialect( event.getSession() );
+		final BatchableGridDialect batchableGridDialect = getBatchableGridDialect( gridDialect );
+		final FlushWorkingSet workingSet = FlushWorkingSet.begin( event.getSession(), gridDialect );
+		if ( batchableGridDialect != null ) {
+			batchableGridDialect.prepareBatch();
+		}
+		try {
+			for ( FlushEventListener delegate : delegates ) {
+				delegate.onFlush( event );
+			}
+			workingSet.end();
+		}
+		catch ( RuntimeException e ) {
+			workingSet.discard();
+			if ( batchableGridDialect != null ) {
+				batchableGridDialect.clearBatch();
+			}
+			throw e;
+		}
+		if ( batchableGridDialect != null ) {
+			batchableGridDialect.executeBatch();
+		}
+	}
+
+	static GridDialect getGridDialect(EventSource session) {
+		return session.getFactory()
+				.getServiceRegistry()
+				.getService( DatastoreServices.class )
+				.getGridDialect();
+	}
+
+	/**
+	 * @return the grid dialect in use if it supports batching, {@code null} otherwise
+	 */
+	static BatchableGridDialect getBatchableGridDialect(GridDialect gridDialect) {
+		return GridDialects.hasFacet( gridDialect, BatchableGridDialect.class ) ? (BatchableGridDialect) gridDialect : null;
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.impl;
+
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.GridDialectLogger;
+
+/**
+ * Helpers to find out which optional contracts a {@link GridDialect} implements.
+ */
+public final class GridDialects {
+
+	private GridDialects() {
+	}
+
+	/**
+	 * Whether the given dialect implements the given optional contract, such as
+	 * {@link org.hibernate.ogm.dialect.BatchableGridDialect}. A {@link GridDialectLogger} implements all of them
+	 * and forwards them, so the dialect it wraps is checked instead.
+	 */
+	public static boolean hasFacet(GridDialect gridDialect, Class<? extends GridDialect> facet) {
+		if ( gridDialect instanceof GridDialectLogger ) {
+			return hasFacet( ( (GridDialectLogger) gridDialect ).getGridDialect(), facet );
+		}
+		return facet.isInstance( gridDialect );
+	}
+}
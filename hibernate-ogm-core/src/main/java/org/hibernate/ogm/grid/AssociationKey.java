@@ -20,10 +20,12 @@
  */
 package org.hibernate.ogm.grid;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.Arrays;
 
 import org.hibernate.annotations.common.AssertionFailure;
+import org.hibernate.ogm.grid.impl.SerializedKey;
 
 /**
  * Represents the key used to link a property value and the id of it's owning entity
@@ -151,4 +153,8 @@ public void setOwnerEntityKey(EntityKey entityKey) {
 	public void setAssociationKind(AssociationKind kind) {
 		this.associationKind = kind;
 	}
+
+	private Object writeReplace() throws ObjectStreamException {
+		return new SerializedKey( this );
+	}
 }
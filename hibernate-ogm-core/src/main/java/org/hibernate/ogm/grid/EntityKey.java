@@ -20,9 +20,12 @@
  */
 package org.hibernate.ogm.grid;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.Arrays;
 
+import org.hibernate.ogm.grid.impl.SerializedKey;
+
 /**
  * Entity key
  *
@@ -102,4 +105,8 @@ private int generateHashCode() {
 		result = 31 * result + Arrays.hashCode( columnValues );
 		return result;
 	}
+
+	private Object writeReplace() throws ObjectStreamException {
+		return new SerializedKey( this );
+	}
 }
@@ -20,9 +20,12 @@
  */
 package org.hibernate.ogm.grid;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.Arrays;
 
+import org.hibernate.ogm.grid.impl.SerializedKey;
+
 /**
  * Represents the key used to represent a row
  *
@@ -113,4 +116,8 @@ public String toString() {
 		sb.append( '}' );
 		return sb.toString();
 	}
+
+	private Object writeReplace() throws ObjectStreamException {
+		return new SerializedKey( this );
+	}
 }
@@ -0,0 +1,187 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.grid.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.RowKey;
+
+/**
+ * Compact binary form of {@link EntityKey}, {@link RowKey} and {@link AssociationKey}, shared by
+ * the datastore specific externalizers and by Java serialization (see {@link SerializedKey}).
+ *
+ * Names are written as plain UTF strings instead of serialized arrays, the most common column
+ * value types are written without their class descriptor. When read back, table and column
+ * names are interned and column names arrays are made canonical so that the keys of a given
+ * table share the same arrays, whichever node or store they come from.
+ */
+public final class KeyMarshallingHelper {
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte LONG = 2;
+	private static final byte INTEGER = 3;
+	private static final byte UUID_VALUE = 4;
+	private static final byte OBJECT = 5;
+
+	//writeUTF is limited to 65535 bytes, a character takes up to 3 bytes
+	private static final int MAX_UTF_STRING_LENGTH = 65535 / 3;
+
+	//the column names come from the mapping, the dictionary is bounded
+	private static final ConcurrentMap<List<String>, String[]> COLUMN_NAMES = new ConcurrentHashMap<List<String>, String[]>();
+
+	private KeyMarshallingHelper() {
+	}
+
+	public static void writeEntityKey(ObjectOutput output, EntityKey key) throws IOException {
+		writeKey( output, key.getTable(), key.getColumnNames(), key.getColumnValues() );
+	}
+
+	public static EntityKey readEntityKey(ObjectInput input) throws IOException, ClassNotFoundException {
+		return new EntityKey( readTable( input ), readColumnNames( input ), readColumnValues( input ) );
+	}
+
+	public static void writeRowKey(ObjectOutput output, RowKey key) throws IOException {
+		writeKey( output, key.getTable(), key.getColumnNames(), key.getColumnValues() );
+	}
+
+	public static RowKey readRowKey(ObjectInput input) throws IOException, ClassNotFoundException {
+		return new RowKey( readTable( input ), readColumnNames( input ), readColumnValues( input ) );
+	}
+
+	/**
+	 * Only the identity of the key is written; the role, owner entity key and row key columns are
+	 * transient as they are with Java serialization.
+	 */
+	public static void writeAssociationKey(ObjectOutput output, AssociationKey key) throws IOException {
+		writeKey( output, key.getTable(), key.getColumnNames(), key.getColumnValues() );
+	}
+
+	public static AssociationKey readAssociationKey(ObjectInput input) throws IOException, ClassNotFoundException {
+		return new AssociationKey( readTable( input ), readColumnNames( input ), readColumnValues( input ) );
+	}
+
+	private static void writeKey(ObjectOutput output, String table, String[] columnNames, Object[] columnValues) throws IOException {
+		output.writeUTF( table );
+		output.writeShort( columnNames.length );
+		for ( String columnName : columnNames ) {
+			output.writeUTF( columnName );
+		}
+		output.writeShort( columnValues.length );
+		for ( Object value : columnValues ) {
+			writeValue( output, value );
+		}
+	}
+
+	private static String readTable(ObjectInput input) throws IOException {
+		return input.readUTF().intern();
+	}
+
+	private static String[] readColumnNames(ObjectInput input) throws IOException {
+		String[] columnNames = new String[input.readShort()];
+		for ( int index = 0; index < columnNames.length; index++ ) {
+			columnNames[index] = input.readUTF();
+		}
+		return canonicalColumnNames( columnNames );
+	}
+
+	private static Object[] readColumnValues(ObjectInput input) throws IOException, ClassNotFoundException {
+		Object[] columnValues = new Object[input.readShort()];
+		for ( int index = 0; index < columnValues.length; index++ ) {
+			columnValues[index] = readValue( input );
+		}
+		return columnValues;
+	}
+
+	/**
+	 * Return the canonical instance of an array of column names; the names of the given array are
+	 * interned and the array is kept if it is the first of its kind, so it must not be modified afterwards.
+	 */
+	public static String[] canonicalColumnNames(String[] columnNames) {
+		String[] canonical = COLUMN_NAMES.get( Arrays.asList( columnNames ) );
+		if ( canonical == null ) {
+			for ( int index = 0; index < columnNames.length; index++ ) {
+				columnNames[index] = columnNames[index].intern();
+			}
+			canonical = COLUMN_NAMES.putIfAbsent( Arrays.asList( columnNames ), columnNames );
+			if ( canonical == null ) {
+				canonical = columnNames;
+			}
+		}
+		return canonical;
+	}
+
+	private static void writeValue(ObjectOutput output, Object value) throws IOException {
+		if ( value == null ) {
+			output.writeByte( NULL );
+		}
+		else if ( value instanceof String && ( (String) value ).length() <= MAX_UTF_STRING_LENGTH ) {
+			output.writeByte( STRING );
+			output.writeUTF( (String) value );
+		}
+		else if ( value instanceof Long ) {
+			output.writeByte( LONG );
+			output.writeLong( (Long) value );
+		}
+		else if ( value instanceof Integer ) {
+			output.writeByte( INTEGER );
+			output.writeInt( (Integer) value );
+		}
+		else if ( value instanceof UUID ) {
+			output.writeByte( UUID_VALUE );
+			output.writeLong( ( (UUID) value ).getMostSignificantBits() );
+			output.writeLong( ( (UUID) value ).getLeastSignificantBits() );
+		}
+		else {
+			output.writeByte( OBJECT );
+			output.writeObject( value );
+		}
+	}
+
+	private static Object readValue(ObjectInput input) throws IOException, ClassNotFoundException {
+		byte type = input.readByte();
+		switch ( type ) {
+			case NULL:
+				return null;
+			case STRING:
+				return input.readUTF();
+			case LONG:
+				return input.readLong();
+			case INTEGER:
+				return input.readInt();
+			case UUID_VALUE:
+				return new UUID( input.readLong(), input.readLong() );
+			case OBJECT:
+				return input.readObject();
+			default:
+				throw new IOException( "Unknown key column value type: " + type );
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.grid.impl;
+
+import java.util.Arrays;
+
+import org.hibernate.ogm.datastore.impl.EmptyTupleSnapshot;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.grid.RowKey;
+
+/**
+ * Creates the {@link RowKey}s of the rows of a given association table.
+ *
+ * Unlike {@link RowKeyBuilder}, the factory is meant to be kept by the persister: the row keys
+ * share the canonical column names and the tuples used to collect the values address the row key
+ * columns by slot.
+ */
+public final class RowKeyFactory {
+
+	private final String table;
+	private final String[] columnNames;
+	private final TupleContext tupleContext;
+
+	public RowKeyFactory(String table, String[] columnNames) {
+		this.table = table;
+		this.columnNames = KeyMarshallingHelper.canonicalColumnNames( columnNames.clone() );
+		this.tupleContext = new TupleContext( Arrays.asList( this.columnNames ) );
+	}
+
+	/**
+	 * This array should be treated as immutable.
+	 */
+	public String[] getColumnNames() {
+		return columnNames;
+	}
+
+	/**
+	 * @return an empty tuple to write the row key columns to
+	 */
+	public Tuple createTuple() {
+		return new Tuple( EmptyTupleSnapshot.SINGLETON, tupleContext );
+	}
+
+	public RowKey createRowKey(Tuple tuple) {
+		Object[] values = new Object[columnNames.length];
+		for ( int index = 0; index < values.length; index++ ) {
+			values[index] = tuple.get( columnNames[index] );
+		}
+		return new RowKey( table, columnNames, values );
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.grid.impl;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamException;
+
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.RowKey;
+
+/**
+ * Serialization proxy of the key classes: Java serialization, as used by Ehcache disk and
+ * replicated stores, writes the compact form of {@link KeyMarshallingHelper} instead of the
+ * default form of the key and of its arrays.
+ */
+public final class SerializedKey implements Externalizable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final byte ENTITY_KEY = 0;
+	private static final byte ROW_KEY = 1;
+	private static final byte ASSOCIATION_KEY = 2;
+
+	private Object key;
+
+	/**
+	 * For Java serialization only.
+	 */
+	public SerializedKey() {
+	}
+
+	public SerializedKey(Object key) {
+		this.key = key;
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput output) throws IOException {
+		if ( key instanceof EntityKey ) {
+			output.writeByte( ENTITY_KEY );
+			KeyMarshallingHelper.writeEntityKey( output, (EntityKey) key );
+		}
+		else if ( key instanceof RowKey ) {
+			output.writeByte( ROW_KEY );
+			KeyMarshallingHelper.writeRowKey( output, (RowKey) key );
+		}
+		else {
+			output.writeByte( ASSOCIATION_KEY );
+			KeyMarshallingHelper.writeAssociationKey( output, (AssociationKey) key );
+		}
+	}
+
+	@Override
+	public void readExternal(ObjectInput input) throws IOException, ClassNotFoundException {
+		byte type = input.readByte();
+		switch ( type ) {
+			case ENTITY_KEY:
+				key = KeyMarshallingHelper.readEntityKey( input );
+				break;
+			case ROW_KEY:
+				key = KeyMarshallingHelper.readRowKey( input );
+				break;
+			case ASSOCIATION_KEY:
+				key = KeyMarshallingHelper.readAssociationKey( input );
+				break;
+			default:
+				throw new InvalidObjectException( "Unknown key type: " + type );
+		}
+	}
+
+	private Object readResolve() throws ObjectStreamException {
+		return key;
+	}
+}
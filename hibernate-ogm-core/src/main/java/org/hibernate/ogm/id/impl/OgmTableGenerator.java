@@ -326,12 +326,23 @@ public void configure(Type type, Properties params, Dialect dialect) throws Mapp
 				: OptimizerFactory.POOL;
 		final String defaultOptimizerStrategy = incrementSize <= 1 ? OptimizerFactory.NONE : defaultPooledOptimizerStrategy;
 		final String optimizationStrategy = ConfigurationHelper.getString( OPT_PARAM, params, defaultOptimizerStrategy );
-		optimizer = OptimizerFactory.buildOptimizer(
-				optimizationStrategy,
-				identifierType.getReturnedClass(),
-				incrementSize,
-				ConfigurationHelper.getInt( INITIAL_PARAM, params, -1 )
-		);
+		final int explicitInitialValue = ConfigurationHelper.getInt( INITIAL_PARAM, params, -1 );
+		if ( PooledBlockOptimizer.isPooled( optimizationStrategy ) ) {
+			optimizer = new PooledBlockOptimizer(
+					identifierType.getReturnedClass(),
+					incrementSize,
+					explicitInitialValue,
+					OptimizerFactory.POOL_LO.equals( optimizationStrategy )
+			);
+		}
+		else {
+			optimizer = OptimizerFactory.buildOptimizer(
+					optimizationStrategy,
+					identifierType.getReturnedClass(),
+					incrementSize,
+					explicitInitialValue
+			);
+		}
 	}
 
 	/**
@@ -487,7 +498,17 @@ protected String buildInsertQuery() {
 	/**
 	 * {@inheritDoc}
 	 */
-	public synchronized Serializable generate(final SessionImplementor session, Object obj) {
+	public Serializable generate(final SessionImplementor session, Object obj) {
+		if ( !( optimizer instanceof PooledBlockOptimizer ) ) {
+			synchronized ( this ) {
+				return generateWithOptimizer( session );
+			}
+		}
+		//the pooled optimizers only synchronize when reserving a new block
+		return generateWithOptimizer( session );
+	}
+
+	private Serializable generateWithOptimizer(final SessionImplementor session) {
 		return optimizer.generate(
 				new AccessCallback() {
 					public IntegralDataTypeHolder getNextValue() {
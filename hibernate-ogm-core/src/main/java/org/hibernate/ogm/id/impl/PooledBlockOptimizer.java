@@ -0,0 +1,140 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.id.impl;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+
+/**
+ * Pooled and pooled-lo optimizer handing out the identifiers of the current block without locking.
+ *
+ * Each call to {@link AccessCallback#getNextValue()} reserves {@code incrementSize} identifiers in the datastore
+ * (see {@link org.hibernate.ogm.dialect.GridDialect#nextValue}). All the dialects return the values
+ * {@code initialValue}, {@code initialValue + incrementSize}, ... for consecutive calls. The reserved block is:
+ * <ul>
+ * <li>pooled-lo: {@code [value, value + incrementSize)}</li>
+ * <li>pooled: {@code [value - incrementSize, value)}, the first block being computed as
+ * the Hibernate ORM pooled optimizer does to keep the generated values identical</li>
+ * </ul>
+ * Threads only synchronize when the current block is exhausted and a new one has to be reserved.
+ */
+public class PooledBlockOptimizer implements Optimizer {
+
+	private final Class<?> returnClass;
+	private final int incrementSize;
+	private final int initialValue;
+	private final boolean lowerBound;
+
+	private final AtomicReference<Block> currentBlock = new AtomicReference<Block>();
+	private volatile IntegralDataTypeHolder lastSourceValue;
+
+	/**
+	 * @param returnClass the type of the generated identifiers
+	 * @param incrementSize the number of identifiers reserved by each access to the datastore
+	 * @param initialValue the explicit initial value or -1
+	 * @param lowerBound {@code true} for pooled-lo, {@code false} for pooled
+	 */
+	public PooledBlockOptimizer(Class<?> returnClass, int incrementSize, int initialValue, boolean lowerBound) {
+		if ( incrementSize < 1 ) {
+			throw new IllegalArgumentException( "increment size cannot be less than 1" );
+		}
+		this.returnClass = returnClass;
+		this.incrementSize = incrementSize;
+		this.initialValue = initialValue;
+		this.lowerBound = lowerBound;
+	}
+
+	/**
+	 * @return whether the optimizer strategy is handled by {@link PooledBlockOptimizer}
+	 */
+	public static boolean isPooled(String optimizationStrategy) {
+		return OptimizerFactory.POOL.equals( optimizationStrategy ) || OptimizerFactory.POOL_LO.equals( optimizationStrategy );
+	}
+
+	@Override
+	public Serializable generate(AccessCallback callback) {
+		while ( true ) {
+			Block block = currentBlock.get();
+			if ( block != null ) {
+				long value = block.next.getAndIncrement();
+				if ( value < block.hi ) {
+					return IdentifierGeneratorHelper.getIntegralDataTypeHolder( returnClass ).initialize( value ).makeValue();
+				}
+			}
+			synchronized ( this ) {
+				//another thread might have reserved a new block in the meantime
+				if ( currentBlock.get() == block ) {
+					currentBlock.set( reserveBlock( callback, block == null ) );
+				}
+			}
+		}
+	}
+
+	private Block reserveBlock(AccessCallback callback, boolean firstBlock) {
+		long value = nextSourceValue( callback );
+		if ( lowerBound ) {
+			return new Block( value, value + incrementSize );
+		}
+		if ( firstBlock && ( value == initialValue || ( initialValue == -1 && value < incrementSize ) ) ) {
+			//the source just returned its initial value: the block starts there and the next value is its upper bound
+			return new Block( value, nextSourceValue( callback ) );
+		}
+		return new Block( value - incrementSize, value );
+	}
+
+	private long nextSourceValue(AccessCallback callback) {
+		IntegralDataTypeHolder value = callback.getNextValue();
+		lastSourceValue = value;
+		return value.makeValue().longValue();
+	}
+
+	@Override
+	public IntegralDataTypeHolder getLastSourceValue() {
+		return lastSourceValue;
+	}
+
+	@Override
+	public int getIncrementSize() {
+		return incrementSize;
+	}
+
+	@Override
+	public boolean applyIncrementSizeToSourceValues() {
+		return true;
+	}
+
+	private static final class Block {
+		private final AtomicLong next;
+		private final long hi;
+
+		private Block(long lo, long hi) {
+			this.next = new AtomicLong( lo );
+			this.hi = hi;
+		}
+	}
+}
@@ -41,6 +41,7 @@
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -61,7 +62,9 @@
  * @author Emmanuel Bernard
  */
 public class TupleAsMapResultSet implements ResultSet {
-	private List<Tuple> tuples = new ArrayList<Tuple>();
+	private final List<Tuple> tuples = new ArrayList<Tuple>();
+	private Iterator<Tuple> streamedTuples;
+	private Tuple current;
 	private int index = -1;
 
 	/**
@@ -71,11 +74,19 @@ public void addTuple(Tuple tuple) {
 		this.tuples.add( tuple );
 	}
 
+	/**
+	 * Read the given tuples after the ones added one by one.
+	 * They are pulled from the iterator as the result set moves forward and are not retained.
+	 */
+	public void addTuples(Iterator<Tuple> tuples) {
+		this.streamedTuples = tuples;
+	}
+
 	/**
 	 * Retrieve the current value for the collection entry
 	 */
 	public Tuple getTuple() {
-		return tuples.get(index);
+		return current;
 	}
 
 	@Override
@@ -83,9 +94,16 @@ public boolean next() throws SQLException {
 		int currentIndex = index + 1;
 		if ( currentIndex < tuples.size() ) {
 			index = currentIndex;
+			current = tuples.get( index );
+			return true;
+		}
+		else if ( streamedTuples != null && streamedTuples.hasNext() ) {
+			index = tuples.size();
+			current = streamedTuples.next();
 			return true;
 		}
 		else {
+			current = null;
 			return false;
 		}
 	}
@@ -101,6 +119,8 @@ public <T> T unwrap(Class<T> iface) throws SQLException {
 	@Override
 	public void close() throws SQLException {
 		tuples.clear();
+		streamedTuples = null;
+		current = null;
 	}
 
 	@Override
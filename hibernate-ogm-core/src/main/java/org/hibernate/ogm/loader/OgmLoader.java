@@ -40,7 +40,6 @@
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.grid.EntityKey;
-import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.jdbc.TupleAsMapResultSet;
 import org.hibernate.ogm.persister.EntityKeyBuilder;
 import org.hibernate.ogm.persister.OgmCollectionPersister;
@@ -63,7 +62,12 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * Load an entity from the Grid
@@ -149,9 +153,12 @@ public Object load(Serializable id, Object optionalObject, SessionImplementor se
 					MessageHelper.infoString( currentPersister, id, currentPersister.getIdentifierType(), session.getFactory() )
 				);
 		}
+		final Serializable[] ids = getEntityIdsToLoad( id, currentPersister, session );
+		final Type[] idTypes = new Type[ids.length];
+		Arrays.fill( idTypes, currentPersister.getIdentifierType() );
 		QueryParameters qp = new QueryParameters();
-		qp.setPositionalParameterTypes( new Type[] { currentPersister.getIdentifierType() } );
-		qp.setPositionalParameterValues( new Object[] { id } );
+		qp.setPositionalParameterTypes( idTypes );
+		qp.setPositionalParameterValues( ids );
 		qp.setOptionalObject( optionalObject );
 		qp.setOptionalEntityName( currentPersister.getEntityName() );
 		qp.setOptionalId( id );
@@ -165,6 +172,29 @@ public Object load(Serializable id, Object optionalObject, SessionImplementor se
 		return result;
 	}
 
+	/**
+	 * Return the requested id followed by the ids of the other entities of the same type
+	 * waiting to be initialized in the session, up to the batch size of the persister.
+	 */
+	private Serializable[] getEntityIdsToLoad(Serializable id, OgmEntityPersister persister, SessionImplementor session) {
+		if ( !persister.isBatchLoadable() ) {
+			return new Serializable[] { id };
+		}
+		final Serializable[] batch = session.getPersistenceContext()
+				.getBatchFetchQueue()
+				.getEntityBatch( persister, id, persister.getBatchSize(), persister.getEntityMode() );
+		int size = 0;
+		while ( size < batch.length && batch[size] != null ) {
+			size++;
+		}
+		if ( size == batch.length ) {
+			return batch;
+		}
+		final Serializable[] ids = new Serializable[size];
+		System.arraycopy( batch, 0, ids, 0, size );
+		return ids;
+	}
+
 	/**
 	 * Called by subclasses that initialize collections
 	 */
@@ -245,7 +275,9 @@ private Object doQuery(
 		final List<Object> hydratedObjects = entitySpan == 0 ? null : new ArrayList<Object>( entitySpan * 10 );
 		//TODO yuk! Is there a cleaner way to access the id?
 		final Serializable id = qp.getOptionalId() != null ? qp.getOptionalId() : ( Serializable ) qp.getCollectionKeys()[0];
-		TupleAsMapResultSet resultset = getResultSet( id, session );
+		//ids of the entities read, in the order of the tuples of the resultset
+		final List<Serializable> entityIds = new ArrayList<Serializable>();
+		TupleAsMapResultSet resultset = getResultSet( id, qp, entityIds, session );
 
 		//Todo implement lockmode
 		//final LockMode[] lockModesArray = getLockModes( queryParameters.getLockOptions() );
@@ -260,17 +292,23 @@ private Object doQuery(
 		//for each element in resultset
 		//TODO should we collect List<Object> as result? Not necessary today
 		Object result = null;
+		int rowIndex = 0;
 		try {
 			while ( resultset.next() ) {
-				result = getRowFromResultSet(
+				final Serializable rowId = entitySpan == 0 ? qp.getOptionalId() : entityIds.get( rowIndex++ );
+				Object row = getRowFromResultSet(
 						resultset,
 						session,
 						qp,
 						//lockmodeArray,
-						qp.getOptionalId(),
+						rowId,
 						hydratedObjects,
 						keys,
 						returnProxies);
+				//when batch loading entities, only return the one requested
+				if ( entitySpan == 0 || entityPersisters[0].getIdentifierType().isEqual( rowId, id, getFactory() ) ) {
+					result = row;
+				}
 			}
 
 			//TODO collect subselect result key
@@ -389,15 +427,34 @@ private void extractKeysFromResultSet(SessionImplementor session, Serializable o
 		}
 	}
 
-	private TupleAsMapResultSet getResultSet(Serializable id, SessionImplementor session) {
+	private TupleAsMapResultSet getResultSet(Serializable id, QueryParameters qp, List<Serializable> entityIds, SessionImplementor session) {
 		//TODO this if won't work when we will support collections inside the entity tuple but that will do for now
 		final TupleAsMapResultSet resultset = new TupleAsMapResultSet();
 		if ( getEntityPersisters().length > 0 ) {
 			OgmEntityPersister persister = getEntityPersisters()[0];
-			final EntityKey key = EntityKeyBuilder.fromPersister( persister, id, session );
-			Tuple entry = gridDialect.getTuple( key, persister.getTupleContext() );
-			if ( entry != null ) {
-				resultset.addTuple( entry );
+			final Object[] ids = qp.getPositionalParameterValues();
+			if ( ids == null || ids.length <= 1 ) {
+				final EntityKey key = EntityKeyBuilder.fromPersister( persister, id, session );
+				Tuple entry = gridDialect.getTuple( key, persister.getTupleContext() );
+				if ( entry != null ) {
+					resultset.addTuple( entry );
+					entityIds.add( id );
+				}
+			}
+			else {
+				//batch load: read all the tuples in one go
+				final List<EntityKey> keys = new ArrayList<EntityKey>( ids.length );
+				for ( Object batchId : ids ) {
+					keys.add( EntityKeyBuilder.fromPersister( persister, (Serializable) batchId, session ) );
+				}
+				final List<Tuple> entries = gridDialect.getTuples( keys, persister.getTupleContext() );
+				for ( int index = 0; index < ids.length; index++ ) {
+					Tuple entry = entries.get( index );
+					if ( entry != null ) {
+						resultset.addTuple( entry );
+						entityIds.add( (Serializable) ids[index] );
+					}
+				}
 			}
 		}
 		else {
@@ -416,14 +473,61 @@ private TupleAsMapResultSet getResultSet(Serializable id, SessionImplementor ses
 				.session( session );
 			Association assoc = metadataProvider.getCollectionMetadataOrNull();
 			if ( assoc != null ) {
-				for ( RowKey rowKey : assoc.getKeys() ) {
-					resultset.addTuple( assoc.get( rowKey ) );
+				//stream the rows rather than copying them, large associations are read without holding all the rows twice
+				Iterator<Tuple> rows = assoc.getRows();
+				if ( persister.getElementBatchFetchSize() > 1 ) {
+					rows = new ElementPrefetchingIterator( rows, persister, session );
 				}
+				resultset.addTuples( rows );
 			}
 		}
 		return resultset;
 	}
 
+	/**
+	 * Read the element entities of the given rows not yet in the persistence context in bulk, so that resolving the
+	 * elements of the rows does not read them one by one.
+	 */
+	private static void loadElementEntities(OgmCollectionPersister persister, List<Tuple> rows, SessionImplementor session) {
+		if ( rows.size() <= 1 ) {
+			return;
+		}
+		final OgmEntityPersister elementPersister = (OgmEntityPersister) persister.getElementPersister();
+		final PersistenceContext persistenceContext = session.getPersistenceContext();
+		final Set<org.hibernate.engine.spi.EntityKey> keys = new HashSet<org.hibernate.engine.spi.EntityKey>( rows.size() );
+		final List<Serializable> idsToLoad = new ArrayList<Serializable>( rows.size() );
+		for ( Tuple row : rows ) {
+			Serializable elementId = persister.getElementId( row, session );
+			if ( elementId != null ) {
+				org.hibernate.engine.spi.EntityKey key = session.generateEntityKey( elementId, elementPersister );
+				if ( keys.add( key ) && persistenceContext.getEntity( key ) == null ) {
+					idsToLoad.add( elementId );
+				}
+			}
+		}
+		if ( idsToLoad.size() <= 1 ) {
+			return;
+		}
+		final OgmLoader elementLoader = new OgmLoader( new OgmEntityPersister[] { elementPersister } );
+		elementLoader.loadEntityBatch( idsToLoad.toArray( new Serializable[idsToLoad.size()] ), session );
+	}
+
+	/**
+	 * Read the entities of the given ids in one call of the datastore and register them in the persistence context
+	 */
+	private void loadEntityBatch(Serializable[] ids, SessionImplementor session) {
+		final OgmEntityPersister currentPersister = entityPersisters[0];
+		final Type[] idTypes = new Type[ids.length];
+		Arrays.fill( idTypes, currentPersister.getIdentifierType() );
+		QueryParameters qp = new QueryParameters();
+		qp.setPositionalParameterTypes( idTypes );
+		qp.setPositionalParameterValues( ids );
+		qp.setOptionalEntityName( currentPersister.getEntityName() );
+		qp.setOptionalId( ids[0] );
+		qp.setLockOptions( LockOptions.NONE );
+		doQueryAndInitializeNonLazyCollections( session, qp, false );
+	}
+
 	private Object getResultColumnOrRow(Object[] row) {
 		//getResultColumnOrRow
 		//today we don't use this to apply the result transformer and we don't have operations to do like other loaders
@@ -1075,4 +1179,50 @@ protected int[] getOwners() {
 	protected EntityType[] getOwnerAssociationTypes() {
 		return null;
 	}
+
+	/**
+	 * Reads the rows of a collection chunk by chunk, loading the element entities of each chunk in bulk
+	 * before handing out its rows.
+	 */
+	private static class ElementPrefetchingIterator implements Iterator<Tuple> {
+		private final Iterator<Tuple> rows;
+		private final OgmCollectionPersister persister;
+		private final SessionImplementor session;
+		private final List<Tuple> chunk;
+		private int position;
+
+		ElementPrefetchingIterator(Iterator<Tuple> rows, OgmCollectionPersister persister, SessionImplementor session) {
+			this.rows = rows;
+			this.persister = persister;
+			this.session = session;
+			this.chunk = new ArrayList<Tuple>( persister.getElementBatchFetchSize() );
+		}
+
+		@Override
+		public boolean hasNext() {
+			if ( position < chunk.size() ) {
+				return true;
+			}
+			chunk.clear();
+			position = 0;
+			while ( chunk.size() < persister.getElementBatchFetchSize() && rows.hasNext() ) {
+				chunk.add( rows.next() );
+			}
+			loadElementEntities( persister, chunk, session );
+			return !chunk.isEmpty();
+		}
+
+		@Override
+		public Tuple next() {
+			if ( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			return chunk.get( position++ );
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
 }
@@ -28,6 +28,7 @@
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.grid.impl.RowKeyBuilder;
 import org.hibernate.ogm.type.GridType;
+import org.hibernate.ogm.util.impl.AssociationKeyMetadata;
 import org.hibernate.ogm.util.impl.Log;
 import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.ogm.util.impl.LogicalPhysicalConverterHelper;
@@ -155,6 +156,7 @@ public void dehydrate() {
 					gridPropertyTypes[propertyIndex].nullSafeSet(
 							resultset,
 							fields[propertyIndex],
+							persister.getPropertySlots( propertyIndex ),
 							persister.getPropertyColumnNames( propertyIndex ),
 							includeColumns[propertyIndex],
 							session
@@ -184,7 +186,10 @@ private void doAddPropertyMetadata(int tableIndex,
 									   Object[] newColumnValue) {
 
 		String[] propertyColumnNames = persister.getPropertyColumnNames( propertyIndex );
-		String[] rowKeyColumnNames = buildRowKeyColumnNamesForStarToOne( persister, propertyColumnNames );
+		AssociationKeyMetadata associationKeyMetadata = persister.getToOneAssociationKeyMetadata( propertyIndex );
+		String[] rowKeyColumnNames = associationKeyMetadata != null
+				? associationKeyMetadata.getRowKeyColumnNames()
+				: buildRowKeyColumnNamesForStarToOne( persister, propertyColumnNames );
 		PropertyMetadataProvider metadataProvider = new PropertyMetadataProvider()
 				.gridDialect(gridDialect)
 				.keyColumnNames( propertyColumnNames )
@@ -193,6 +198,7 @@ private void doAddPropertyMetadata(int tableIndex,
 				//does not set .collectionPersister as it does not make sense here for a ToOne or a unique key
 				.tableName( persister.getTableName( tableIndex ) )
 				.propertyType( persister.getPropertyTypes()[propertyIndex] )
+				.associationKeyMetadata( associationKeyMetadata )
 				.rowKeyColumnNames( rowKeyColumnNames );
 		Tuple tuple = new Tuple( EmptyTupleSnapshot.SINGLETON );
 		//add the id column
@@ -232,7 +238,10 @@ private void doRemovePropertyMetadata(int tableIndex,
 										int propertyIndex,
 										Object[] oldColumnValue) {
 		String[] propertyColumnNames = persister.getPropertyColumnNames( propertyIndex );
-		String[] rowKeyColumnNames = buildRowKeyColumnNamesForStarToOne( persister, propertyColumnNames );
+		AssociationKeyMetadata associationKeyMetadata = persister.getToOneAssociationKeyMetadata( propertyIndex );
+		String[] rowKeyColumnNames = associationKeyMetadata != null
+				? associationKeyMetadata.getRowKeyColumnNames()
+				: buildRowKeyColumnNamesForStarToOne( persister, propertyColumnNames );
 		PropertyMetadataProvider metadataProvider = new PropertyMetadataProvider()
 				.gridDialect(gridDialect)
 				.keyColumnNames( propertyColumnNames )
@@ -241,6 +250,7 @@ private void doRemovePropertyMetadata(int tableIndex,
 				//does not set .collectionPersister as it does not make sense here for a ToOne or a unique key
 				.tableName( persister.getTableName( tableIndex ) )
 				.propertyType( persister.getPropertyTypes()[propertyIndex] )
+				.associationKeyMetadata( associationKeyMetadata )
 				.rowKeyColumnNames( rowKeyColumnNames );
 		//add fk column value in TupleKey
 		Tuple tupleKey = new Tuple( EmptyTupleSnapshot.SINGLETON );
@@ -256,7 +266,7 @@ private void doRemovePropertyMetadata(int tableIndex,
 			//this is a StarToOne case ie the FK is on the owning entity
 			final RowKey matchingTuple = new RowKeyBuilder()
 					.tableName( persister.getTableName() )
-					.addColumns( buildRowKeyColumnNamesForStarToOne( persister, propertyColumnNames ) )
+					.addColumns( rowKeyColumnNames )
 					.values( tupleKey )
 					.build();
 			//TODO what should we do if that's null?
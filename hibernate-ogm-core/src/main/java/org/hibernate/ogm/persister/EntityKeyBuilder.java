@@ -40,12 +40,7 @@ public static EntityKey fromPersister(
 			final OgmEntityPersister persister,
 			final Serializable id,
 			SessionImplementor session) {
-		return fromData(
-				persister.getTableName(),
-				persister.getIdentifierColumnNames(),
-				persister.getGridIdentifierType(),
-				id,
-				session );
+		return persister.getEntityKeyFactory().createKey( id, session );
 	}
 
 	//static method because the builder pattern version was showing up during profiling
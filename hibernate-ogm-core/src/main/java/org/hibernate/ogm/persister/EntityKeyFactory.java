@@ -0,0 +1,64 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.persister;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.ogm.datastore.impl.EmptyTupleSnapshot;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.impl.KeyMarshallingHelper;
+import org.hibernate.ogm.type.GridType;
+
+/**
+ * Creates the {@link EntityKey}s of the entities of a given persister.
+ *
+ * Everything which does not depend on the id is computed once: all the keys share the canonical
+ * identifier column names (the ones deserialized keys use as well) and the id is converted through
+ * a tuple addressing the identifier columns by slot.
+ */
+public final class EntityKeyFactory {
+
+	private final String table;
+	private final String[] columnNames;
+	private final GridType identifierGridType;
+	private final TupleContext tupleContext;
+
+	public EntityKeyFactory(String table, String[] identifierColumnNames, GridType identifierGridType) {
+		this.table = table;
+		this.columnNames = KeyMarshallingHelper.canonicalColumnNames( identifierColumnNames.clone() );
+		this.identifierGridType = identifierGridType;
+		this.tupleContext = new TupleContext( Arrays.asList( columnNames ) );
+	}
+
+	public EntityKey createKey(Serializable id, SessionImplementor session) {
+		Tuple tuple = new Tuple( EmptyTupleSnapshot.SINGLETON, tupleContext );
+		identifierGridType.nullSafeSet( tuple, id, columnNames, session );
+		Object[] values = new Object[columnNames.length];
+		for ( int index = 0; index < values.length; index++ ) {
+			values[index] = tuple.get( columnNames[index] );
+		}
+		return new EntityKey( table, columnNames, values );
+	}
+}
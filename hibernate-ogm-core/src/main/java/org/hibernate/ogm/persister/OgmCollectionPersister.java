@@ -34,10 +34,11 @@
 import org.hibernate.internal.FilterAliasGenerator;
 import org.hibernate.internal.StaticFilterAliasGenerator;
 import org.hibernate.internal.util.collections.ArrayHelper;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.loader.collection.CollectionInitializer;
 import org.hibernate.mapping.Collection;
+import org.hibernate.ogm.cfg.OgmConfiguration;
 import org.hibernate.ogm.datastore.impl.DatastoreServices;
-import org.hibernate.ogm.datastore.impl.EmptyTupleSnapshot;
 import org.hibernate.ogm.datastore.spi.Association;
 import org.hibernate.ogm.datastore.spi.AssociationContext;
 import org.hibernate.ogm.datastore.spi.Tuple;
@@ -45,10 +46,13 @@
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.grid.impl.RowKeyBuilder;
+import org.hibernate.ogm.grid.impl.RowKeyFactory;
 import org.hibernate.ogm.jdbc.TupleAsMapResultSet;
 import org.hibernate.ogm.loader.OgmBasicCollectionLoader;
 import org.hibernate.ogm.type.GridType;
 import org.hibernate.ogm.type.TypeTranslator;
+import org.hibernate.ogm.util.impl.AssociationKeyMetadata;
+import org.hibernate.ogm.util.impl.FlushWorkingSet;
 import org.hibernate.ogm.util.impl.Log;
 import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.ogm.util.impl.LogicalPhysicalConverterHelper;
@@ -87,10 +91,19 @@ public class OgmCollectionPersister extends AbstractCollectionPersister implemen
 	private final AssociationType associationType;
 	private final GridDialect gridDialect;
 	private final AssociationContext associationContext;
+	private final int elementBatchFetchSize;
+	private RowKeyFactory rowKeyFactory;
+	private AssociationKeyMetadata associationKeyMetadata;
+	private AssociationKeyMetadata inverseAssociationKeyMetadata;
 
 	public OgmCollectionPersister(final Collection collection, final CollectionRegionAccessStrategy cacheAccessStrategy, final Configuration cfg, final SessionFactoryImplementor factory)
 			throws MappingException, CacheException {
-		super( collection, cacheAccessStrategy, cfg, factory );
+		super(
+				collection,
+				SecondLevelCacheHelper.getCacheAccessStrategy( cacheAccessStrategy, collection.getRole(), factory ),
+				cfg,
+				factory
+		);
 		ServiceRegistry registry = factory.getServiceRegistry();
 		final TypeTranslator typeTranslator = registry.getService(TypeTranslator.class);
 		this.gridDialect = registry.getService(DatastoreServices.class).getGridDialect();
@@ -120,12 +133,60 @@ else if ( getElementType().isAssociationType() && getElementType().isEntityType(
 			associationType = AssociationType.OTHER;
 		}
 		associationContext = buildAssociationContext();
+		elementBatchFetchSize = determineElementBatchFetchSize( factory );
 }
 
+	/*
+	 * Only the elements referenced by their id can be fetched in bulk through their persister
+	 */
+	private int determineElementBatchFetchSize(SessionFactoryImplementor factory) {
+		if ( gridTypeOfAssociatedId == null
+				|| !( (EntityType) getElementType() ).isReferenceToPrimaryKey()
+				|| !( getElementPersister() instanceof OgmEntityPersister ) ) {
+			return 1;
+		}
+		int batchSize = ConfigurationHelper.getInt(
+				OgmConfiguration.ELEMENT_BATCH_FETCH_SIZE,
+				factory.getProperties(),
+				OgmConfiguration.DEFAULT_ELEMENT_BATCH_FETCH_SIZE
+		);
+		return Math.max( batchSize, 1 );
+	}
+
+	/**
+	 * @return the maximum number of element entities read in one go when the collection is initialized;
+	 * 1 if they are resolved one by one
+	 */
+	public int getElementBatchFetchSize() {
+		return elementBatchFetchSize;
+	}
+
+	/**
+	 * @return the id of the element entity referenced by the given row of the association
+	 */
+	public Serializable getElementId(Tuple row, SessionImplementor session) {
+		return (Serializable) gridTypeOfAssociatedId.nullSafeGet( row, getElementColumnNames(), session, null );
+	}
+
 	public AssociationContext getAssociationContext() {
 		return associationContext;
 	}
 
+	/**
+	 * @return the metadata of the association as seen from the owner of the collection
+	 */
+	public AssociationKeyMetadata getAssociationKeyMetadata() {
+		return associationKeyMetadata;
+	}
+
+	/**
+	 * @return the metadata of the association as seen from the elements of the collection,
+	 * only available for associations stored in a table
+	 */
+	public AssociationKeyMetadata getInverseAssociationKeyMetadata() {
+		return inverseAssociationKeyMetadata;
+	}
+
 	private AssociationContext buildAssociationContext() {
 		List<String> selectableColumns = new ArrayList<String>();
 		// add identifier, index, key and element columns
@@ -305,8 +366,8 @@ private void completeTuple(RowKeyAndTuple keyAndTuple, PersistentCollection coll
 	private RowKeyAndTuple createAndPutTupleforInsert(Serializable key, PersistentCollection collection,
 													  PropertyMetadataProvider metadataProvider,
 													  SessionImplementor session, int i, Object entry) {
-		RowKeyBuilder rowKeyBuilder = initializeRowKeyBuilder();
-		Tuple tuple = new Tuple( EmptyTupleSnapshot.SINGLETON );
+		RowKeyFactory rowKeyFactory = getRowKeyFactory();
+		Tuple tuple = rowKeyFactory.createTuple();
 		if ( hasIdentifier ) {
 			final Object identifier = collection.getIdentifier( entry, i );
 			String[] names = { getIdentifierColumnName() };
@@ -327,7 +388,7 @@ tuple, incrementIndexByBase( index ), getIndexColumnNames(), session
 
 		}
 		RowKeyAndTuple result = new RowKeyAndTuple();
-		result.key = rowKeyBuilder.values( tuple ).build();
+		result.key = rowKeyFactory.createRowKey( tuple );
 		Tuple assocEntryTuple = metadataProvider.createAndPutAssociationTuple( result.key );
 		for ( String column : tuple.getColumnNames() ) {
 			assocEntryTuple.put( column, tuple.get( column ) );
@@ -358,12 +419,20 @@ public RowKeyBuilder initializeRowKeyBuilder() {
 	}
 
 	public String[] getRowKeyColumnNames() {
-		return initializeRowKeyBuilder().getColumnNames();
+		return getRowKeyFactory().getColumnNames();
+	}
+
+	private RowKeyFactory getRowKeyFactory() {
+		//racy but harmless: the factory is immutable
+		if ( rowKeyFactory == null ) {
+			rowKeyFactory = new RowKeyFactory( getTableName(), initializeRowKeyBuilder().getColumnNames() );
+		}
+		return rowKeyFactory;
 	}
 
 	private RowKey getTupleKeyForUpdate(Serializable key, PersistentCollection collection, SessionImplementor session, int i, Object entry) {
-		RowKeyBuilder rowKeyBuilder = initializeRowKeyBuilder();
-		Tuple tuple = new Tuple( EmptyTupleSnapshot.SINGLETON );
+		RowKeyFactory rowKeyFactory = getRowKeyFactory();
+		Tuple tuple = rowKeyFactory.createTuple();
 		if ( hasIdentifier ) {
 			final Object identifier = collection.getIdentifier( entry, i );
 			String[] names = { getIdentifierColumnName() };
@@ -386,12 +455,12 @@ tuple, incrementIndexByBase( index ), getIndexColumnNames(), session
 				getElementGridType().nullSafeSet( tuple, snapshotElement, getElementColumnNames(), session );
 			}
 		}
-		return rowKeyBuilder.values( tuple ).build();
+		return rowKeyFactory.createRowKey( tuple );
 	}
 
 	private RowKey getTupleKeyForDelete(Serializable key, PersistentCollection collection, SessionImplementor session, Object entry, boolean findByIndex) {
-		RowKeyBuilder rowKeyBuilder = initializeRowKeyBuilder();
-		Tuple tuple = new Tuple( EmptyTupleSnapshot.SINGLETON );
+		RowKeyFactory rowKeyFactory = getRowKeyFactory();
+		Tuple tuple = rowKeyFactory.createTuple();
 		if ( hasIdentifier ) {
 			final Object identifier = entry;
 			String[] names = { getIdentifierColumnName() };
@@ -414,8 +483,7 @@ tuple, incrementIndexByBase( index ), getIndexColumnNames(), session
 				getElementGridType().nullSafeSet( tuple, snapshotElement, getElementColumnNames(), session );
 			}
 		}
-		rowKeyBuilder.values( tuple );
-		return rowKeyBuilder.build();
+		return rowKeyFactory.createRowKey( tuple );
 	}
 
 
@@ -432,8 +500,85 @@ public int getSize(Serializable key, SessionImplementor session) {
 				.collectionPersister( this )
 				.keyColumnNames( getKeyColumnNames() );
 
-		final Association collectionMetadata = metadataProvider.getCollectionMetadataOrNull();
-		return collectionMetadata == null ? 0 : collectionMetadata.size();
+		return metadataProvider.getCollectionSize();
+	}
+
+	@Override
+	public boolean indexExists(Serializable key, Object index, SessionImplementor session) {
+		if ( isRowKeyIndexed() ) {
+			return getMetadataProvider( key, session ).containsCollectionRow( getTupleKeyForDelete( key, null, session, index, true ) );
+		}
+		return findRowByIndex( key, index, session ) != null;
+	}
+
+	@Override
+	public boolean elementExists(Serializable key, Object element, SessionImplementor session) {
+		if ( isRowKeyElement() ) {
+			return getMetadataProvider( key, session ).containsCollectionRow( getTupleKeyForDelete( key, null, session, element, false ) );
+		}
+		Object[] elementValues = LogicalPhysicalConverterHelper.getColumnsValuesFromObjectValue(
+				element, getElementGridType(), getElementColumnNames(), session
+		);
+		return findRow( key, getElementColumnNames(), elementValues, session ) != null;
+	}
+
+	@Override
+	public Object getElementByIndex(Serializable key, Object index, SessionImplementor session, Object owner) {
+		Tuple row;
+		if ( isRowKeyIndexed() ) {
+			row = getMetadataProvider( key, session ).getCollectionRow( getTupleKeyForDelete( key, null, session, index, true ) );
+		}
+		else {
+			row = findRowByIndex( key, index, session );
+		}
+		return row == null ? null : getElementGridType().nullSafeGet( row, getElementColumnNames(), session, owner );
+	}
+
+	/*
+	 * Same conditions as initializeRowKeyBuilder: whether the rows are identified by the index, or by the element
+	 */
+	private boolean isRowKeyIndexed() {
+		return !hasIdentifier && !isOneToMany() && hasIndex && !indexContainsFormula;
+	}
+
+	private boolean isRowKeyElement() {
+		return !hasIdentifier && !isRowKeyIndexed() && !elementIsPureFormula;
+	}
+
+	private Tuple findRowByIndex(Serializable key, Object index, SessionImplementor session) {
+		Object[] indexValues = LogicalPhysicalConverterHelper.getColumnsValuesFromObjectValue(
+				incrementIndexByBase( index ), indexGridType, getIndexColumnNames(), session
+		);
+		return findRow( key, getIndexColumnNames(), indexValues, session );
+	}
+
+	/*
+	 * The rows are not identified by the given columns: the whole association has to be read
+	 */
+	private Tuple findRow(Serializable key, String[] columnNames, Object[] columnValues, SessionImplementor session) {
+		Association association = getMetadataProvider( key, session ).getCollectionMetadataOrNull();
+		if ( association == null ) {
+			return null;
+		}
+		Iterator<Tuple> rows = association.getRows();
+		while ( rows.hasNext() ) {
+			Tuple row = rows.next();
+			if ( row != null && Arrays.equals( LogicalPhysicalConverterHelper.getColumnValuesFromResultset( row, columnNames ), columnValues ) ) {
+				return row;
+			}
+		}
+		return null;
+	}
+
+	private PropertyMetadataProvider getMetadataProvider(Serializable key, SessionImplementor session) {
+		return new PropertyMetadataProvider()
+				.key( key )
+				.tableName( getTableName() )
+				.session( session )
+				.gridDialect( gridDialect )
+				.keyGridType( getKeyGridType() )
+				.collectionPersister( this )
+				.keyColumnNames( getKeyColumnNames() );
 	}
 
 	@Override
@@ -618,7 +763,10 @@ private void updateInverseSideOfAssociationNavigation(SessionImplementor session
 			Serializable entityId = (Serializable) gridTypeOfAssociatedId.nullSafeGet( tuple, getElementColumnNames(), session, null );
 			OgmEntityPersister persister = (OgmEntityPersister) getElementPersister();
 			final EntityKey entityKey = EntityKeyBuilder.fromPersister( persister, entityId, session );
-			final Tuple entityTuple = gridDialect.getTuple( entityKey, persister.getTupleContext() );
+			final FlushWorkingSet workingSet = FlushWorkingSet.get( session );
+			final Tuple entityTuple = workingSet != null
+					? workingSet.getTuple( entityKey, persister.getTupleContext() )
+					: gridDialect.getTuple( entityKey, persister.getTupleContext() );
 			//the entity tuple could already be gone (not 100% sure this can happen but that feels right)
 			if (entityTuple == null) {
 				return;
@@ -642,7 +790,13 @@ else if (action == Action.REMOVE) {
 			else {
 				throw new AssertionFailure( "Unknown action type: " + action );
 			}
-			gridDialect.updateTuple( entityTuple, entityKey ); //update cache
+			if ( workingSet != null ) {
+				//written once at the end of the flush
+				workingSet.tupleChanged( entityKey, entityTuple );
+			}
+			else {
+				gridDialect.updateTuple( entityTuple, entityKey ); //update cache
+			}
 		}
 		else if ( associationType == AssociationType.ASSOCIATION_TABLE_TO_ENTITY ) {
 			String[] elementColumnNames = getElementColumnNames();
@@ -765,7 +919,12 @@ protected void logStaticSQL() {
 
 	@Override
 	public void postInstantiate() throws MappingException {
-		//we don't have custom query loader, nothing to do
+		//we don't have custom query loader
+		//all the persisters exist at this stage: resolve the roles of both sides of the association once
+		associationKeyMetadata = AssociationKeyMetadata.forCollection( this );
+		if ( associationType == AssociationType.ASSOCIATION_TABLE_TO_ENTITY ) {
+			inverseAssociationKeyMetadata = AssociationKeyMetadata.forInverseCollection( this, getFactory() );
+		}
 	}
 
 	@Override
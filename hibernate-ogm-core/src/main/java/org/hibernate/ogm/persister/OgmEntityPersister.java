@@ -32,6 +32,7 @@
 import org.hibernate.internal.DynamicFilterAliasGenerator;
 import org.hibernate.internal.FilterAliasGenerator;
 import org.hibernate.ogm.datastore.impl.DatastoreServices;
+import org.hibernate.ogm.datastore.impl.EmptyTupleSnapshot;
 import org.hibernate.ogm.datastore.spi.TupleContext;
 import org.hibernate.service.spi.ServiceRegistryImplementor;
 
@@ -61,13 +62,18 @@
 import org.hibernate.mapping.Table;
 import org.hibernate.ogm.datastore.spi.Association;
 import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.BlindWriteGridDialect;
 import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialects;
 import org.hibernate.ogm.exception.NotSupportedException;
+import org.hibernate.ogm.exception.TupleAlreadyExistsException;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.loader.OgmLoader;
 import org.hibernate.ogm.type.GridType;
 import org.hibernate.ogm.type.TypeTranslator;
 import org.hibernate.ogm.util.impl.ArrayHelper;
+import org.hibernate.ogm.util.impl.AssociationKeyMetadata;
+import org.hibernate.ogm.util.impl.FlushWorkingSet;
 import org.hibernate.ogm.util.impl.Log;
 import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.ogm.util.impl.PropertyMetadataProvider;
@@ -104,12 +110,18 @@ public class OgmEntityPersister extends AbstractEntityPersister implements Entit
 	private final GridType[] gridPropertyTypes;
 	private final GridType gridVersionType;
 	private final GridType gridIdentifierType;
+	private final EntityKeyFactory entityKeyFactory;
 	private final String jpaEntityName;
 	private Object discriminatorValue;
 	private final TupleContext tupleContext;
+	//the slots of the columns of each property in the tuple context
+	private final int[][] propertySlots;
+	private AssociationKeyMetadata[] toOneAssociationKeyMetadata;
 
 	//service references
 	private final GridDialect gridDialect;
+	//whether the dialect, or the dialect wrapped by the logger, updates tuples without reading them
+	private final boolean blindWrites;
 
 
 
@@ -119,12 +131,18 @@ public OgmEntityPersister(
 			final NaturalIdRegionAccessStrategy naturalIdRegionAccessStrategy,
 			final SessionFactoryImplementor factory,
 			final Mapping mapping) throws HibernateException {
-		super(persistentClass, cacheAccessStrategy, naturalIdRegionAccessStrategy, factory);
+		super(
+				persistentClass,
+				SecondLevelCacheHelper.getCacheAccessStrategy( cacheAccessStrategy, persistentClass.getEntityName(), factory ),
+				SecondLevelCacheHelper.getCacheAccessStrategy( naturalIdRegionAccessStrategy, persistentClass.getEntityName() + " natural id", factory ),
+				factory
+		);
 		if ( log.isTraceEnabled() ) {
 			log.tracef( "Creating OgmEntityPersister for %s", persistentClass.getClassName() );
 		}
 		ServiceRegistryImplementor serviceRegistry = factory.getServiceRegistry();
 		this.gridDialect = serviceRegistry.getService( DatastoreServices.class ).getGridDialect();
+		this.blindWrites = GridDialects.hasFacet( gridDialect, BlindWriteGridDialect.class );
 
 		tableName = persistentClass.getTable().getQualifiedName(
 				factory.getDialect(),
@@ -225,6 +243,7 @@ public OgmEntityPersister(
 		}
 		gridVersionType = typeTranslator.getType( getVersionType() );
 		gridIdentifierType = typeTranslator.getType( getIdentifierType() );
+		entityKeyFactory = new EntityKeyFactory( getTableName(), getIdentifierColumnNames(), gridIdentifierType );
 		List<String> columnNames = new ArrayList<String>();
 		for ( int propertyCount = 0; propertyCount < this.getPropertySpan(); propertyCount++ ) {
 			String[] property = this.getPropertyColumnNames( propertyCount );
@@ -233,6 +252,10 @@ public OgmEntityPersister(
 			}
 		}
 		this.tupleContext = new TupleContext( columnNames );
+		this.propertySlots = new int[this.getPropertySpan()][];
+		for ( int propertyCount = 0; propertyCount < this.getPropertySpan(); propertyCount++ ) {
+			propertySlots[propertyCount] = tupleContext.getSlots( this.getPropertyColumnNames( propertyCount ) );
+		}
 		jpaEntityName = persistentClass.getJpaEntityName();
 	}
 
@@ -241,12 +264,47 @@ public void postInstantiate() {
 		createLoaders();
 		//createUniqueKeyLoaders();
 		createQueryLoader();
+		initToOneAssociationKeyMetadata();
+	}
+
+	/*
+	 * All the persisters exist at this stage: resolve the role of the *-to-one associations on the other side once
+	 */
+	private void initToOneAssociationKeyMetadata() {
+		final Type[] types = getPropertyTypes();
+		final int[] propertyTableNumbers = getPropertyTableNumbers();
+		toOneAssociationKeyMetadata = new AssociationKeyMetadata[types.length];
+		for ( int index = 0; index < types.length; index++ ) {
+			if ( types[index].isEntityType() ) {
+				final String[] propertyColumnNames = getPropertyColumnNames( index );
+				//same table as the one used by the EntityDehydrator when writing the association
+				toOneAssociationKeyMetadata[index] = AssociationKeyMetadata.forToOne(
+						(EntityType) types[index],
+						getTableName( propertyTableNumbers[index] ),
+						propertyColumnNames,
+						buildRowKeyColumnNamesForStarToOne( this, propertyColumnNames ),
+						getFactory()
+				);
+			}
+		}
+	}
+
+	/**
+	 * @return the metadata of the association of a *-to-one property as seen from the associated entity,
+	 * {@code null} if the property is not a *-to-one association
+	 */
+	public AssociationKeyMetadata getToOneAssociationKeyMetadata(int propertyIndex) {
+		return toOneAssociationKeyMetadata[propertyIndex];
 	}
 
 	public GridType getGridIdentifierType() {
 		return gridIdentifierType;
 	}
 
+	public EntityKeyFactory getEntityKeyFactory() {
+		return entityKeyFactory;
+	}
+
 	/**
 	 * This snapshot is meant to be used when updating data.
 	 */
@@ -271,7 +329,7 @@ public Object[] getDatabaseSnapshot(Serializable id, SessionImplementor session)
 		boolean[] includeProperty = getPropertyUpdateability();
 		for ( int i = 0; i < types.length; i++ ) {
 			if ( includeProperty[i] ) {
-				values[i] = types[i].hydrate( resultset, getPropertyAliases( "", i ), session, null ); //null owner ok??
+				values[i] = types[i].hydrate( resultset, propertySlots[i], getPropertyAliases( "", i ), session, null ); //null owner ok??
 			}
 		}
 		return values;
@@ -406,10 +464,11 @@ public Object loadByUniqueKey(
 		//we get the property type for an associated entity
 		final int propertyIndex = getPropertyIndex( propertyName );
 		final GridType gridUniqueKeyType = getUniqueKeyTypeFromAssociatedEntity( propertyIndex, propertyName );
+		final AssociationKeyMetadata associationKeyMetadata = getToOneAssociationKeyMetadata( propertyIndex );
 		//get the associated property index (to get its column names)
 		//find the ids per unique property name
 		PropertyMetadataProvider metadataProvider = new PropertyMetadataProvider()
-				.tableName( getTableName() )
+				.tableName( getTableName( getPropertyTableNumbers()[propertyIndex] ) )
 				.gridDialect( gridDialect )
 				.key( uniqueKey )
 				.keyGridType( gridUniqueKeyType )
@@ -417,7 +476,8 @@ public Object loadByUniqueKey(
 				//does not set .collectionPersister as it does not make sense here for an entity
 				.session( session )
 				.propertyType( getPropertyTypes()[propertyIndex] )
-				.rowKeyColumnNames( buildRowKeyColumnNamesForStarToOne( this, getPropertyColumnNames( propertyIndex ) ) );
+				.associationKeyMetadata( associationKeyMetadata )
+				.rowKeyColumnNames( associationKeyMetadata.getRowKeyColumnNames() );
 		final Association ids = metadataProvider.getCollectionMetadataOrNull();
 
 		if (ids == null || ids.size() == 0 ) {
@@ -630,7 +690,7 @@ else if ( allProperties || !laziness[index] ) {
 					//: suffixedPropertyColumns[i];
 					cols = getPropertyAliases( "", index );
 				}
-				value = gridTypes[index].hydrate( resultset, cols, session, object ); //null owner ok??
+				value = gridTypes[index].hydrate( resultset, propertySlots[index], cols, session, object ); //null owner ok??
 			}
 		}
 		else {
@@ -736,11 +796,19 @@ else if ( ! isModifiableEntity( entry ) ) {
 			// Now update only the tables with dirty properties (and the table with the version number)
 			if ( tableUpdateNeeded[j] ) {
 				final EntityKey key = EntityKeyBuilder.fromPersister( this, id, session );
-				Tuple resultset = gridDialect.getTuple( key, this.getTupleContext() );
+				//the tuple might have been changed by the associations updated earlier in this flush
+				FlushWorkingSet.writeChanges( session );
+				Tuple resultset;
+				if ( blindWrites && !isReadBeforeUpdateNeeded( propsToUpdate, j ) ) {
+					//only the dirty columns are written: no need to read the tuple
+					resultset = ( (BlindWriteGridDialect) gridDialect ).createTupleForUpdate( key, this.getTupleContext() );
+				}
+				else {
+					resultset = gridDialect.getTuple( key, this.getTupleContext() );
+					resultset = createNewResultSetIfNull( key, resultset, id, session );
+				}
 				final boolean useVersion = j == 0 && isVersioned();
 
-				resultset = createNewResultSetIfNull( key, resultset, id, session );
-
 				final EntityMetamodel entityMetamodel = getEntityMetamodel();
 
 				// Write any appropriate versioning conditional parameters
@@ -786,6 +854,29 @@ resultset, getPropertyColumnNames( i ), session, object
 		}
 	}
 
+	/*
+	 * The old state of the tuple is needed to check the version, to compare the old values of the properties
+	 * and to remove the property metadata (inverse side of *-to-one associations and unique keys) of the
+	 * updated properties
+	 */
+	private boolean isReadBeforeUpdateNeeded(boolean[] propsToUpdate, int tableIndex) {
+		if ( isVersioned() || isAllOrDirtyOptLocking() ) {
+			return true;
+		}
+		final boolean[] uniqueness = getPropertyUniqueness();
+		final Type[] propertyTypes = getPropertyTypes();
+		for ( int propertyIndex = 0; propertyIndex < getEntityMetamodel().getPropertySpan(); propertyIndex++ ) {
+			if ( propsToUpdate[propertyIndex] && isPropertyOfTable( propertyIndex, tableIndex ) ) {
+				final Type propertyType = propertyTypes[propertyIndex];
+				boolean isStarToOne = propertyType.isAssociationType() && ! propertyType.isCollectionType();
+				if ( isStarToOne || uniqueness[propertyIndex] ) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	//Copied from AbstractEntityPersister
 	private boolean isAllOrDirtyOptLocking() {
 		EntityMetamodel entityMetamodel = getEntityMetamodel();
@@ -864,15 +955,18 @@ public void insert(Serializable id, Object[] fields, Object object, SessionImple
 		final int span = getTableSpan();
 		//insert operations are always dynamic in OGM
 		boolean[] propertiesToInsert = getPropertiesToInsert(fields);
+		//all the tables of the entity share the same key and end up in a single tuple, inserted once
+		final EntityKey key = EntityKeyBuilder.fromPersister( this, id, session );
+		Tuple resultset = null;
 		for ( int j = 0; j < span; j++ ) {
 			if ( isInverseTable( j ) ) {
-				return;
+				break;
 			}
 
 			//note: it is conceptually possible that a UserType could map null to
 			//	  a non-null value, so the following is arguable:
 			if ( isNullableTable( j ) && isAllNull( fields, j ) ) {
-				return;
+				break;
 			}
 
 			if ( log.isTraceEnabled() ) {
@@ -882,23 +976,25 @@ public void insert(Serializable id, Object[] fields, Object object, SessionImple
 				}
 			}
 
-			final EntityKey key = EntityKeyBuilder.fromPersister( this, id, session );
-			Tuple resultset = gridDialect.getTuple( key, this.getTupleContext() );
-			// add the discriminator
-			if ( j == 0 ) {
-				if (resultset != null) {
-					throw new HibernateException( "trying to insert an already existing entity: "
-							+  MessageHelper.infoString( this, id, getFactory() ) );
-				}
+			if ( resultset == null ) {
+				resultset = new Tuple( EmptyTupleSnapshot.SINGLETON, this.getTupleContext() );
+				gridIdentifierType.nullSafeSet( resultset, id, getIdentifierColumnNames(), session );
 				//TODO add discriminator
-
 			}
 
-			resultset = createNewResultSetIfNull( key, resultset, id, session );
-
 			//dehydrate
 			dehydrate(resultset, fields, propertiesToInsert, getPropertyColumnInsertable(), j, id, session );
-			gridDialect.updateTuple( resultset, key );
+		}
+
+		if ( resultset != null ) {
+			//the dialect checks atomically that the tuple does not exist yet
+			try {
+				gridDialect.insertTuple( resultset, key );
+			}
+			catch ( TupleAlreadyExistsException e ) {
+				throw new HibernateException( "trying to insert an already existing entity: "
+						+  MessageHelper.infoString( this, id, getFactory() ), e );
+			}
 		}
 	}
 
@@ -908,7 +1004,7 @@ private Tuple createNewResultSetIfNull(
 			Serializable id,
 			SessionImplementor session) {
 		if (resultset == null) {
-			resultset = gridDialect.createTuple(key);
+			resultset = gridDialect.createTuple( key, getTupleContext() );
 			gridIdentifierType.nullSafeSet( resultset, id, getIdentifierColumnNames(), session );
 		}
 		return resultset;
@@ -945,6 +1041,8 @@ public void delete(Serializable id, Object version, Object object, SessionImplem
 		}
 
 		final EntityKey key = EntityKeyBuilder.fromPersister( this, id, session );
+		//write the association changes of this flush before the entity is gone
+		FlushWorkingSet.writeChanges( session );
 		final Tuple resultset = gridDialect.getTuple( key, this.getTupleContext() );
 		final SessionFactoryImplementor factory = getFactory();
 		if ( isImpliedOptimisticLocking && loadedState != null ) {
@@ -1150,10 +1248,26 @@ public Serializable[] getPropertySpaces() {
 		return spaces;
 	}
 
+	/**
+	 * @return the slots of the columns of the given property in the {@link #getTupleContext() tuple context}
+	 */
+	public int[] getPropertySlots(int propertyIndex) {
+		return propertySlots[propertyIndex];
+	}
+
 	public TupleContext getTupleContext() {
 		return this.tupleContext;
 	}
 
+	/**
+	 * The maximum number of entities of this type loaded in one go from the datastore,
+	 * as computed by {@link AbstractEntityPersister} from {@code @BatchSize} or {@code hibernate.default_batch_fetch_size}
+	 */
+	@Override
+	public int getBatchSize() {
+		return super.getBatchSize();
+	}
+
 	public String getJpaEntityName() {
 		return jpaEntityName;
 	}
@@ -0,0 +1,57 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.persister;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.datastore.spi.CacheBackedDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
+
+/**
+ * Decides whether the persisters use the second-level cache region Hibernate has set up for them.
+ *
+ * @see CacheBackedDatastoreProvider
+ */
+final class SecondLevelCacheHelper {
+
+	private static final Log log = LoggerFactory.make();
+
+	private SecondLevelCacheHelper() {
+	}
+
+	/**
+	 * @return the given access strategy or {@code null} if the datastore makes the second-level cache redundant, that
+	 * is if it holds all the data in the memory of the local node
+	 */
+	static <T> T getCacheAccessStrategy(T cacheAccessStrategy, String role, SessionFactoryImplementor factory) {
+		if ( cacheAccessStrategy == null ) {
+			return null;
+		}
+		DatastoreProvider datastoreProvider = factory.getServiceRegistry().getService( DatastoreProvider.class );
+		if ( datastoreProvider instanceof CacheBackedDatastoreProvider
+				&& ( (CacheBackedDatastoreProvider) datastoreProvider ).isDataHeldLocally() ) {
+			log.secondLevelCacheBypassed( role );
+			return null;
+		}
+		return cacheAccessStrategy;
+	}
+}
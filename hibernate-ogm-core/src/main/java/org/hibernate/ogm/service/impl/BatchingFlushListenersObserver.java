@@ -0,0 +1,88 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.ogm.dialect.impl.BatchingAutoFlushEventListener;
+import org.hibernate.ogm.dialect.impl.BatchingFlushEventListener;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Wraps the flush listeners in {@link BatchingFlushEventListener} and {@link BatchingAutoFlushEventListener}.
+ * <p>
+ * Other integrators, like the JPA one, replace the flush listeners while the session factory is built, so the
+ * wrapping happens once all of them have run: the listeners they registered are kept as delegates.
+ */
+public class BatchingFlushListenersObserver implements SessionFactoryObserver {
+	private SessionFactoryServiceRegistry serviceRegistry;
+
+	public BatchingFlushListenersObserver(SessionFactoryServiceRegistry serviceRegistry) {
+		this.serviceRegistry = serviceRegistry;
+	}
+
+	@Override
+	public void sessionFactoryCreated(SessionFactory factory) {
+		EventListenerRegistry eventListenerRegistry = serviceRegistry.getService( EventListenerRegistry.class );
+		wrapFlushListeners( eventListenerRegistry );
+		wrapAutoFlushListeners( eventListenerRegistry );
+		this.serviceRegistry = null;
+	}
+
+	@Override
+	public void sessionFactoryClosed(SessionFactory factory) {
+	}
+
+	private void wrapFlushListeners(EventListenerRegistry eventListenerRegistry) {
+		List<FlushEventListener> flushListeners = new ArrayList<FlushEventListener>();
+		for ( FlushEventListener listener : eventListenerRegistry.getEventListenerGroup( EventType.FLUSH ).listeners() ) {
+			if ( listener instanceof BatchingFlushEventListener ) {
+				return;
+			}
+			flushListeners.add( listener );
+		}
+		eventListenerRegistry.setListeners(
+				EventType.FLUSH,
+				new BatchingFlushEventListener( flushListeners.toArray( new FlushEventListener[flushListeners.size()] ) )
+		);
+	}
+
+	private void wrapAutoFlushListeners(EventListenerRegistry eventListenerRegistry) {
+		List<AutoFlushEventListener> autoFlushListeners = new ArrayList<AutoFlushEventListener>();
+		for ( AutoFlushEventListener listener : eventListenerRegistry.getEventListenerGroup( EventType.AUTO_FLUSH ).listeners() ) {
+			if ( listener instanceof BatchingAutoFlushEventListener ) {
+				return;
+			}
+			autoFlushListeners.add( listener );
+		}
+		eventListenerRegistry.setListeners(
+				EventType.AUTO_FLUSH,
+				new BatchingAutoFlushEventListener( autoFlushListeners.toArray( new AutoFlushEventListener[autoFlushListeners.size()] ) )
+		);
+	}
+}
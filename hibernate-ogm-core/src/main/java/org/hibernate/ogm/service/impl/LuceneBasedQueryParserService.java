@@ -20,18 +20,27 @@
  */
 package org.hibernate.ogm.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.CommonTokenStream;
 import org.antlr.runtime.RecognitionException;
-import org.antlr.runtime.TokenStream;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
 import org.antlr.runtime.tree.CommonTree;
+import org.antlr.runtime.tree.CommonTreeAdaptor;
 import org.antlr.runtime.tree.CommonTreeNodeStream;
 import org.hibernate.HibernateException;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.search.FullTextQuery;
 import org.hibernate.search.FullTextSession;
 import org.hibernate.search.Search;
@@ -49,49 +58,96 @@
  * QueryParserService using the ANTLR3-powered LuceneJPQLWalker.
  * Expects the targeted entities and used attributes to be indexed via Hibernate Search,
  * transforming HQL and JPQL in Lucene Queries.
+ *
+ * Parsed queries are kept in a bounded cache keyed by query string: each execution walks its own copy
+ * of the cached syntax tree and tokens, so that concurrent executions never share a mutable ANTLR or
+ * Lucene object.
  * 
  * @author Sanne Grinovero <sanne@hibernate.org> (C) 2012 Red Hat Inc.
  */
 public class LuceneBasedQueryParserService implements QueryParserService {
 
+	/**
+	 * The maximum number of parsed queries kept in the query plan cache
+	 */
+	public static final String QUERY_PLAN_CACHE_MAX_SIZE = "hibernate.ogm.query.plan_cache_max_size";
+
+	public static final int DEFAULT_QUERY_PLAN_CACHE_MAX_SIZE = 2048;
+
 	private final ServiceRegistryImplementor registry;
 	private volatile SessionFactoryEntityNamesResolver entityNamesResolver;
+	private final BoundedConcurrentHashMap<String, QueryPlan> queryPlanCache;
+	private final AtomicLong queryPlanCacheHitCount = new AtomicLong();
+	private final AtomicLong queryPlanCacheMissCount = new AtomicLong();
 
 	public LuceneBasedQueryParserService(ServiceRegistryImplementor registry, Map configurationValues) {
 		this.registry = registry;
 		//TODO: make it possible to lookup the SearchFactoryImplementor at initialization time
 		//searchFactoryImplementor = lookupSearchFactory( registry );
+		int maxSize = ConfigurationHelper.getInt( QUERY_PLAN_CACHE_MAX_SIZE, configurationValues, DEFAULT_QUERY_PLAN_CACHE_MAX_SIZE );
+		this.queryPlanCache = new BoundedConcurrentHashMap<String, QueryPlan>(
+				maxSize,
+				20,
+				BoundedConcurrentHashMap.Eviction.LIRS
+		);
 	}
 
 	@Override
 	public Query getParsedQueryExecutor(Session session, String queryString, Map<String, Object> namedParameters) {
+		//TODO move the following logic into the hibernate-jpql-parser project?
+		QueryPlan queryPlan = getQueryPlan( queryString );
+		FullTextSession fullTextSession = Search.getFullTextSession( session );
+		EntityNamesResolver entityNamesResolver = getDefinedEntityNames( session.getSessionFactory() );
+		SearchFactoryImplementor searchFactory = (SearchFactoryImplementor) fullTextSession.getSearchFactory();
+		//Lucene queries are mutable (boost, rewrite): each execution gets its own
+		ResolvedQuery resolvedQuery = queryPlan.resolve( searchFactory, entityNamesResolver, namedParameters );
+
+		FullTextQuery fullTextQuery = fullTextSession.createFullTextQuery( resolvedQuery.luceneQuery, resolvedQuery.targetEntity );
+		//Following options are mandatory to load matching entities without using a query
+		//(chicken and egg problem)
+		fullTextQuery.initializeObjectsWith( ObjectLookupMethod.SKIP, DatabaseRetrievalMethod.FIND_BY_ID );
+		return fullTextQuery;
+	}
+
+	/**
+	 * @return the number of queries found in the query plan cache
+	 */
+	public long getQueryPlanCacheHitCount() {
+		return queryPlanCacheHitCount.get();
+	}
+
+	/**
+	 * @return the number of queries which had to be parsed
+	 */
+	public long getQueryPlanCacheMissCount() {
+		return queryPlanCacheMissCount.get();
+	}
+
+	private QueryPlan getQueryPlan(String queryString) {
+		QueryPlan queryPlan = queryPlanCache.get( queryString );
+		if ( queryPlan != null ) {
+			queryPlanCacheHitCount.incrementAndGet();
+			return queryPlan;
+		}
+		queryPlanCacheMissCount.incrementAndGet();
+		queryPlan = parse( queryString );
+		QueryPlan existing = queryPlanCache.putIfAbsent( queryString, queryPlan );
+		return existing != null ? existing : queryPlan;
+	}
+
+	private QueryPlan parse(String queryString) {
 		HQLLexer lexed = new HQLLexer( new ANTLRStringStream( queryString ) );
-		TokenStream tokens = new CommonTokenStream( lexed );
+		CommonTokenStream tokens = new CommonTokenStream( lexed );
 		HQLParser parser = new HQLParser( tokens );
 		try {
-			//TODO move the following logic into the hibernate-jpql-parser project?
-			//needs to consider usage of a parsed query plans cache
-
 			// parser#statement() is the entry point for evaluation of any kind of statement
 			HQLParser.statement_return r = parser.statement();
 			CommonTree tree = (CommonTree) r.getTree();
-			// To walk the resulting tree we need a treenode stream:
-			CommonTreeNodeStream treeStream = new CommonTreeNodeStream( tree );
-			// AST nodes have payloads referring to the tokens from the Lexer:
-			treeStream.setTokenStream( tokens );
-			EntityNamesResolver entityNamesResolver = getDefinedEntityNames( session.getSessionFactory() );
-			FullTextSession fullTextSession = Search.getFullTextSession( session );
-			SearchFactoryImplementor searchFactory = (SearchFactoryImplementor) fullTextSession.getSearchFactory();
-			// Finally create the treewalker:
-			LuceneJPQLWalker walker = new LuceneJPQLWalker( treeStream, searchFactory, entityNamesResolver, namedParameters );
-			walker.statement();
-			org.apache.lucene.search.Query luceneQuery = walker.getLuceneQuery();
-			Class targetEntity = walker.getTargetEntity();
-			FullTextQuery fullTextQuery = fullTextSession.createFullTextQuery( luceneQuery, targetEntity );
-			//Following options are mandatory to load matching entities without using a query
-			//(chicken and egg problem)
-			fullTextQuery.initializeObjectsWith( ObjectLookupMethod.SKIP, DatabaseRetrievalMethod.FIND_BY_ID );
-			return fullTextQuery;
+			List<Token> parsedTokens = new ArrayList<Token>();
+			for ( Object token : tokens.getTokens() ) {
+				parsedTokens.add( (Token) token );
+			}
+			return new QueryPlan( tree, parsedTokens );
 		}
 		catch (RecognitionException e) {
 			throw new HibernateException( "Invalid query syntax", e );
@@ -105,4 +161,73 @@ private EntityNamesResolver getDefinedEntityNames(SessionFactory sessionFactory)
 		return entityNamesResolver;
 	}
 
+	/**
+	 * The syntax tree and tokens of a query. ANTLR streams and tree nodes keep a position and
+	 * are updated while walked, so the cached ones are never walked: each execution copies them.
+	 * The copied nodes share their token payloads, which are only read by the walker.
+	 */
+	private static final class QueryPlan {
+		private final CommonTree tree;
+		private final List<Token> tokens;
+
+		private QueryPlan(CommonTree tree, List<Token> tokens) {
+			this.tree = tree;
+			this.tokens = Collections.unmodifiableList( tokens );
+		}
+
+		private ResolvedQuery resolve(SearchFactoryImplementor searchFactory, EntityNamesResolver entityNamesResolver, Map<String, Object> namedParameters) {
+			// To walk the resulting tree we need a treenode stream, over a copy of the cached tree:
+			CommonTreeNodeStream treeStream = new CommonTreeNodeStream( new CommonTreeAdaptor().dupTree( tree ) );
+			// AST nodes have payloads referring to the tokens from the Lexer:
+			treeStream.setTokenStream( new CommonTokenStream( new CopiedTokenSource( tokens ) ) );
+			// Finally create the treewalker:
+			LuceneJPQLWalker walker = new LuceneJPQLWalker( treeStream, searchFactory, entityNamesResolver, namedParameters );
+			try {
+				walker.statement();
+			}
+			catch (RecognitionException e) {
+				throw new HibernateException( "Invalid query syntax", e );
+			}
+			return new ResolvedQuery( walker.getLuceneQuery(), walker.getTargetEntity() );
+		}
+	}
+
+	/**
+	 * Replays copies of the tokens of a parsed query: token streams set the index of the tokens they buffer
+	 */
+	private static final class CopiedTokenSource implements TokenSource {
+		private final List<Token> tokens;
+		private int index = 0;
+
+		private CopiedTokenSource(List<Token> tokens) {
+			this.tokens = tokens;
+		}
+
+		@Override
+		public Token nextToken() {
+			if ( index < tokens.size() ) {
+				return new CommonToken( tokens.get( index++ ) );
+			}
+			return new CommonToken( Token.EOF );
+		}
+
+		@Override
+		public String getSourceName() {
+			return null;
+		}
+	}
+
+	/**
+	 * A Lucene query with its parameters bound
+	 */
+	private static final class ResolvedQuery {
+		private final org.apache.lucene.search.Query luceneQuery;
+		private final Class<?> targetEntity;
+
+		private ResolvedQuery(org.apache.lucene.search.Query luceneQuery, Class<?> targetEntity) {
+			this.luceneQuery = luceneQuery;
+			this.targetEntity = targetEntity;
+		}
+	}
+
 }
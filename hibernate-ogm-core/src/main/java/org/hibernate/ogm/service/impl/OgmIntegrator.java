@@ -48,6 +48,7 @@
  * - replace ConnectionProvider
  * - replace DialectFactory
  * - replace (if not provided by the user) NamingStrategy
+ * - wrap the flush listeners to let the GridDialect batch the writes of a flush
  *
  * Also enforce an OGM NamingStrategy
  *
@@ -62,6 +63,7 @@ public void integrate(Configuration configuration, SessionFactoryImplementor ses
 		Version.touch();
 		configuration.setNamingStrategy( OgmNamingStrategy.INSTANCE );
 		sessionFactory.addObserver( new DatastoreProviderToSessionFactoryObserverAdaptor(configuration, serviceRegistry) );
+		sessionFactory.addObserver( new BatchingFlushListenersObserver( serviceRegistry ) );
 	}
 
 	@Override
@@ -32,6 +32,8 @@
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.type.descriptor.AbstractGridExtractor;
+import org.hibernate.ogm.type.descriptor.BasicGridBinder;
 import org.hibernate.ogm.type.descriptor.GridTypeDescriptor;
 import org.hibernate.ogm.type.descriptor.GridValueBinder;
 import org.hibernate.ogm.type.descriptor.GridValueExtractor;
@@ -257,11 +259,23 @@ protected final void nullSafeSet(Tuple rs, Object value, String[] names, Wrapper
 	@Override
 	public final void nullSafeSet(Tuple st, Object value, String[] names, boolean[] settable, SessionImplementor session)
 			throws HibernateException {
+		nullSafeSet( st, value, null, names, settable, session );
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	@Override
+	public final void nullSafeSet(Tuple st, Object value, int[] slots, String[] names, boolean[] settable, SessionImplementor session)
+			throws HibernateException {
 		if (settable.length > 1) {
 			throw new NotYetImplementedException("Multi column property not implemented yet");
 		}
 		if ( settable[0] ) {
-			nullSafeSet( st, value, names, session );
+			if ( typeBinder instanceof BasicGridBinder ) {
+				( (BasicGridBinder<T>) typeBinder ).bind( st, (T) value, slots, names );
+			}
+			else {
+				typeBinder.bind( st, (T) value, names );
+			}
 		}
 	}
 
@@ -315,6 +329,15 @@ public final Object hydrate(Tuple rs, String[] names, SessionImplementor session
 		return nullSafeGet(rs, names, session, owner);
 	}
 
+	@Override
+	public final Object hydrate(Tuple rs, int[] slots, String[] names, SessionImplementor session, Object owner)
+			throws HibernateException {
+		if ( typeExtractor instanceof AbstractGridExtractor ) {
+			return ( (AbstractGridExtractor<T>) typeExtractor ).extract( rs, slots == null ? -1 : slots[0], names[0] );
+		}
+		return typeExtractor.extract( rs, names[0] );
+	}
+
 	public final Object resolve(Object value, SessionImplementor session, Object owner) throws HibernateException {
 		return value;
 	}
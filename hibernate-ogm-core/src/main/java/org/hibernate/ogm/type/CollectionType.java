@@ -59,10 +59,22 @@ public void nullSafeSet(Tuple resultset, Object value, String[] names, SessionIm
 		//NOOP
 	}
 
+	@Override
+	public void nullSafeSet(Tuple resultset, Object value, int[] slots, String[] names, boolean[] settable, SessionImplementor session)
+			throws HibernateException {
+		//NOOP
+	}
+
 	@Override
 	public Object hydrate(Tuple rs, String[] names, SessionImplementor session, Object owner)
 			throws HibernateException {
 		//CollectionType.delegate returns a marker object. We pass it through.
 		return delegate.hydrate( null, names, session, owner );
 	}
+
+	@Override
+	public Object hydrate(Tuple rs, int[] slots, String[] names, SessionImplementor session, Object owner)
+			throws HibernateException {
+		return hydrate( rs, names, session, owner );
+	}
 }
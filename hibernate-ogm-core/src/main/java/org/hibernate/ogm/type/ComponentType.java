@@ -33,6 +33,8 @@
  * @author Emmanuel Bernard
  */
 public class ComponentType extends GridTypeDelegatingToCoreType implements GridType {
+	private static final boolean[] TRUE_SETTABLE = { true };
+
 	private final org.hibernate.type.ComponentType componentType;
 	private final int propertySpan;
 	private final GridType[] propertyTypes;
@@ -63,6 +65,12 @@ public Object nullSafeGet(Tuple rs, String name, SessionImplementor session, Obj
 	@Override
 	public void nullSafeSet(Tuple resultset, Object value, String[] names, boolean[] settable, SessionImplementor session)
 			throws HibernateException {
+		nullSafeSet( resultset, value, null, names, settable, session );
+	}
+
+	@Override
+	public void nullSafeSet(Tuple resultset, Object value, int[] slots, String[] names, boolean[] settable, SessionImplementor session)
+			throws HibernateException {
 		Object[] subvalues = nullSafeGetValues( value, componentType.getEntityMode() );
 		//TODO in the original componentType begin and loc are different (namely begin only counts settable slots
 		//I don't think that's relevant for us
@@ -74,7 +82,8 @@ public void nullSafeSet(Tuple resultset, Object value, String[] names, boolean[]
 			}
 			else if ( columnSpanOnProperty == 1 ) {
 				if ( settable[columnCurrentIndex] ) {
-					propertyTypes[i].nullSafeSet( resultset, subvalues[i], new String[] { names[columnCurrentIndex] }, session );
+					int[] subslots = slots == null ? null : new int[] { slots[columnCurrentIndex] };
+					propertyTypes[i].nullSafeSet( resultset, subvalues[i], subslots, new String[] { names[columnCurrentIndex] }, TRUE_SETTABLE, session );
 				}
 			}
 			else {
@@ -82,7 +91,8 @@ else if ( columnSpanOnProperty == 1 ) {
 				System.arraycopy( settable, columnCurrentIndex, subsettable, 0, columnSpanOnProperty );
 				final String[] subnames = new String[columnSpanOnProperty];
 				System.arraycopy( names, columnCurrentIndex, subnames, 0, columnSpanOnProperty );
-				propertyTypes[i].nullSafeSet( resultset, subvalues[i], subnames, subsettable, session );
+				final int[] subslots = slots == null ? null : slice( slots, columnCurrentIndex, columnSpanOnProperty );
+				propertyTypes[i].nullSafeSet( resultset, subvalues[i], subslots, subnames, subsettable, session );
 			}
 			columnCurrentIndex += columnSpanOnProperty;
 		}
@@ -99,13 +109,20 @@ public void nullSafeSet(Tuple resultset, Object value, String[] names, SessionIm
 	@Override
 	public Object hydrate(Tuple rs, String[] names, SessionImplementor session, Object owner)
 			throws HibernateException {
+		return hydrate( rs, null, names, session, owner );
+	}
+
+	@Override
+	public Object hydrate(Tuple rs, int[] slots, String[] names, SessionImplementor session, Object owner)
+			throws HibernateException {
 		int begin = 0;
 		boolean notNull = false;
 		Object[] values = new Object[propertySpan];
 		for ( int i = 0; i < propertySpan; i++ ) {
 			int length = propertyTypes[i].getColumnSpan( session.getFactory() );
 			String[] range = ArrayHelper.slice( names, begin, length ); //cache this
-			Object val = propertyTypes[i].hydrate( rs, range, session, owner );
+			int[] slotRange = slots == null ? null : slice( slots, begin, length );
+			Object val = propertyTypes[i].hydrate( rs, slotRange, range, session, owner );
 			if ( val == null ) {
 				if ( componentType.isKey() ) {
 					return null; //different nullability rules for pk/fk
@@ -122,6 +139,12 @@ public Object hydrate(Tuple rs, String[] names, SessionImplementor session, Obje
 	}
 
 	//utility methods
+	private static int[] slice(int[] slots, int begin, int length) {
+		int[] range = new int[length];
+		System.arraycopy( slots, begin, range, 0, length );
+		return range;
+	}
+
 	private Object[] nullSafeGetValues(Object value, EntityMode entityMode) throws HibernateException {
 		if ( value == null ) {
 			return new Object[propertySpan];
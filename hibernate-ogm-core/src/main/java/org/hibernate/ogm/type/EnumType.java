@@ -62,7 +62,11 @@ public Object nullSafeGet(Tuple rs, String[] names, SessionImplementor session,
 	@Override
 	public Object nullSafeGet(Tuple rs, String name, SessionImplementor session, Object owner)
 			throws HibernateException {
-		final Object object = rs.get( name );
+		return get( rs, -1, name );
+	}
+
+	private Object get(Tuple rs, int slot, String name) {
+		final Object object = rs.get( slot, name );
 		if ( object == null ) {
 			log.tracef( "found [null] as column [$s]", name );
 			return null;
@@ -105,20 +109,39 @@ public Object hydrate(Tuple rs, String[] names, SessionImplementor session, Obje
 		return nullSafeGet( rs, names, session, owner );
 	}
 
+	@Override
+	public Object hydrate(Tuple rs, int[] slots, String[] names, SessionImplementor session, Object owner)
+			throws HibernateException {
+		if ( names.length > 1 ) {
+			throw new NotYetImplementedException( "Multi column property not implemented yet" );
+		}
+		return get( rs, slots == null ? -1 : slots[0], names[0] );
+	}
+
 	@Override
 	public void nullSafeSet(Tuple resultset, Object value, String[] names, boolean[] settable, SessionImplementor session)
 			throws HibernateException {
+		nullSafeSet( resultset, value, null, names, settable, session );
+	}
+
+	@Override
+	public void nullSafeSet(Tuple resultset, Object value, int[] slots, String[] names, boolean[] settable, SessionImplementor session)
+			throws HibernateException {
 		if ( settable.length > 1 ) {
 			throw new NotYetImplementedException( "Multi column property not implemented yet" );
 		}
 		if ( settable[0] ) {
-			nullSafeSet( resultset, value, names, session );
+			set( resultset, value, slots == null ? -1 : slots[0], names );
 		}
 	}
 
 	@Override
 	public void nullSafeSet(Tuple resultset, Object value, String[] names, SessionImplementor session)
 			throws HibernateException {
+		set( resultset, value, -1, names );
+	}
+
+	private void set(Tuple resultset, Object value, int slot, String[] names) {
 		if ( names.length > 1 ) {
 			throw new NotYetImplementedException( "Multi column property not implemented yet" );
 		}
@@ -130,7 +153,7 @@ public void nullSafeSet(Tuple resultset, Object value, String[] names, SessionIm
 					Integer.valueOf( ( ( Enum<?> ) value ).ordinal() ) :
 					( ( Enum<?> ) value ).name();
 			log.tracef( "binding [$s] to parameter(s) $s", endValue, names[0] );
-			resultset.put( names[0], endValue );
+			resultset.put( slot, names[0], endValue );
 		}
 
 	}
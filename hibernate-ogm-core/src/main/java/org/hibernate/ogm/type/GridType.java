@@ -314,6 +314,22 @@ public void nullSafeSet(Tuple resultset, Object value, String[] names, boolean[]
 	public void nullSafeSet(Tuple resultset, Object value, String[] names, SessionImplementor session)
 	throws HibernateException;
 
+	/**
+	 * Write an instance of the mapped class to a tuple, ignoring some columns.
+	 * The columns are addressed by their slot in the {@link org.hibernate.ogm.datastore.spi.TupleContext}
+	 * of the tuple; the names are used for the columns whose slot does not apply.
+	 * @param resultset to push value into
+	 * @param value the object to write
+	 * @param slots the slot of each column, -1 for unknown slots
+	 * @param names the column names
+	 * @param settable an array indicating which columns to ignore
+	 * @param session
+	 *
+	 * @throws HibernateException
+	 */
+	public void nullSafeSet(Tuple resultset, Object value, int[] slots, String[] names, boolean[] settable, SessionImplementor session)
+	throws HibernateException;
+
 	/**
 	 * A representation of the value to be embedded in an XML element.
 	 *
@@ -412,6 +428,23 @@ public Object assemble(Serializable cached, SessionImplementor session, Object o
 	public Object hydrate(Tuple rs, String[] names, SessionImplementor session, Object owner)
 	throws HibernateException;
 
+	/**
+	 * Retrieve an instance of the mapped class, or the identifier of an entity or collection,
+	 * from a tuple whose columns are addressed by their slot in its
+	 * {@link org.hibernate.ogm.datastore.spi.TupleContext}.
+	 *
+	 * @see GridType#hydrate(Tuple, String[], SessionImplementor, Object)
+	 * @param rs
+	 * @param slots the slot of each column, -1 for unknown slots
+	 * @param names the column names
+	 * @param session the session
+	 * @param owner the parent entity
+	 * @return Object an identifier or actual value
+	 * @throws HibernateException
+	 */
+	public Object hydrate(Tuple rs, int[] slots, String[] names, SessionImplementor session, Object owner)
+	throws HibernateException;
+
 	/**
 	 * Map identifiers to entities or collections. This is the second phase of 2-phase property
 	 * initialization.
@@ -64,6 +64,13 @@ public void nullSafeSet(Tuple resultset, Object value, String[] names, boolean[]
 		idGridType.nullSafeSet( resultset, getIdentifier( value, session ), names, settable, session );
 	}
 
+	@Override
+	public void nullSafeSet(Tuple resultset, Object value, int[] slots, String[] names, boolean[] settable, SessionImplementor session)
+			throws HibernateException {
+		GridType idGridType = getIdGridType( session );
+		idGridType.nullSafeSet( resultset, getIdentifier( value, session ), slots, names, settable, session );
+	}
+
 	private GridType getIdGridType(SessionImplementor session) {
 		final Type idType = delegate.getIdentifierOrUniqueKeyType( session.getFactory() );
 		GridType idGridType = typeTranslator.getType( idType );
@@ -88,6 +95,15 @@ public Object hydrate(Tuple rs, String[] names, SessionImplementor session, Obje
 		return id;
 	}
 
+	@Override
+	public Object hydrate(Tuple rs, int[] slots, String[] names, SessionImplementor session, Object owner)
+			throws HibernateException {
+		GridType idGridType = getIdGridType( session );
+		Serializable id = (Serializable) idGridType.resolve( idGridType.hydrate( rs, slots, names, session, null ), session, null );
+		scheduleBatchLoadIfNeeded( id, session );
+		return id;
+	}
+
 	/**
 	 * Register the entity as batch loadable, if enabled
 	 *
@@ -61,9 +61,21 @@ public void nullSafeSet(Tuple resultset, Object value, String[] names, SessionIm
 		//nothing to do
 	}
 
+	@Override
+	public void nullSafeSet(Tuple resultset, Object value, int[] slots, String[] names, boolean[] settable, SessionImplementor session)
+			throws HibernateException {
+		//nothing to do
+	}
+
 	@Override
 	public Object hydrate(Tuple rs, String[] names, SessionImplementor session, Object owner)
 			throws HibernateException {
 		return session.getContextEntityIdentifier(owner);
 	}
+
+	@Override
+	public Object hydrate(Tuple rs, int[] slots, String[] names, SessionImplementor session, Object owner)
+			throws HibernateException {
+		return session.getContextEntityIdentifier(owner);
+	}
 }
@@ -20,7 +20,6 @@
  */
 package org.hibernate.ogm.type.descriptor;
 
-import java.sql.SQLException;
 import java.util.Arrays;
 
 import org.hibernate.engine.jdbc.LobCreator;
@@ -65,29 +64,57 @@ public BasicGridBinder(JavaTypeDescriptor<X> javaDescriptor, GridTypeDescriptor
 
 	@Override
 	public void bind(Tuple resultset, X value, String[] names) {
+		bind( resultset, value, null, names );
+	}
+
+	/**
+	 * Bind the value to the given columns, addressed by the slots of the {@link Tuple} context
+	 *
+	 * @param slots the slot of each column, null or -1 for unknown slots
+	 */
+	public void bind(Tuple resultset, X value, int[] slots, String[] names) {
 		if ( value == null ) {
-			for ( String name : names ) {
-				log.tracef( "binding [null] to parameter [%1$s]", name );
-				resultset.put( name, null );
+			for ( int index = 0; index < names.length; index++ ) {
+				log.tracef( "binding [null] to parameter [%1$s]", names[index] );
+				resultset.put( slot( slots, index ), names[index], null );
 			}
 		}
 		else {
 			if ( log.isTraceEnabled() ) {
 				log.tracef( "binding [%1$s] to parameter(s) %2$s", javaDescriptor.extractLoggableRepresentation( value ), Arrays.toString( names ) );
 			}
-			doBind( resultset, value, names, DEFAULT_OPTIONS );
+			doBind( resultset, value, slots, names, DEFAULT_OPTIONS );
 		}
 	}
 
 	/**
 	 * Perform the binding.  Safe to assume that value is not null.
 	 *
-	 * @param st The prepared statement
+	 * @param resultset The tuple
 	 * @param value The value to bind (not null).
-	 * @param index The index at which to bind
+	 * @param names The columns at which to bind
 	 * @param options The binding options
-	 *
-	 * @throws SQLException Indicates a problem binding to the prepared statement.
 	 */
 	protected abstract void doBind(Tuple resultset, X value, String[] names, WrapperOptions options);
+
+	/**
+	 * Perform the binding to columns addressed by their slots, by name unless overridden.
+	 * Safe to assume that value is not null.
+	 *
+	 * @param resultset The tuple
+	 * @param value The value to bind (not null).
+	 * @param slots The slots of the columns in the tuple context, can be null
+	 * @param names The columns at which to bind
+	 * @param options The binding options
+	 */
+	protected void doBind(Tuple resultset, X value, int[] slots, String[] names, WrapperOptions options) {
+		doBind( resultset, value, names, options );
+	}
+
+	/**
+	 * @return the slot of the column at the given index, -1 if the slots are unknown
+	 */
+	protected static int slot(int[] slots, int index) {
+		return slots == null ? -1 : slots[index];
+	}
 }
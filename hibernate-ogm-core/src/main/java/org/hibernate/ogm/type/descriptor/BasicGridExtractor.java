@@ -28,7 +28,7 @@
 /**
  * @author Emmanuel Bernard
  */
-public final class BasicGridExtractor<J> implements GridValueExtractor<J> {
+public final class BasicGridExtractor<J> extends AbstractGridExtractor<J> {
 
 	private static final Log log = LoggerFactory.make();
 
@@ -42,8 +42,13 @@ public BasicGridExtractor( JavaTypeDescriptor<J> javaTypeDescriptor, GridTypeDes
 
 	@Override
 	public J extract(final Tuple resultset, final String name) {
+		return extract( resultset, -1, name );
+	}
+
+	@Override
+	public J extract(final Tuple resultset, final int slot, final String name) {
 		@SuppressWarnings( "unchecked" )
-		final J result = (J) resultset.get( name );
+		final J result = (J) resultset.get( slot, name );
 		if ( result == null ) {
 			log.tracef( "found [null] as column [$s]", name );
 			return null;
@@ -28,7 +28,7 @@
 /**
  * @author Nicolas Helleringer
  */
-public class StringMappedGridExtractor<J> implements GridValueExtractor<J> {
+public class StringMappedGridExtractor<J> extends AbstractGridExtractor<J> {
 
 	private static final Log log = LoggerFactory.make();
 
@@ -42,8 +42,12 @@ public StringMappedGridExtractor( JavaTypeDescriptor<J> javaTypeDescriptor, Grid
 
 	@Override
 	public J extract(Tuple resultset, String name) {
-		@SuppressWarnings( "unchecked" )
-		final String result = (String) resultset.get( name );
+		return extract( resultset, -1, name );
+	}
+
+	@Override
+	public J extract(Tuple resultset, int slot, String name) {
+		final String result = (String) resultset.get( slot, name );
 		if ( result == null ) {
 			log.tracef( "found [null] as column [$s]", name );
 			return null;
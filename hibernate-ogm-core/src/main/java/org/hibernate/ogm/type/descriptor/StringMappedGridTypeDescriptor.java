@@ -37,7 +37,12 @@ public <X> GridValueBinder<X> getBinder(final JavaTypeDescriptor<X> javaTypeDesc
 		return new BasicGridBinder<X>(javaTypeDescriptor, this) {
 			@Override
 			protected void doBind(Tuple resultset, X value, String[] names, WrapperOptions options) {
-				resultset.put( names[0], javaTypeDescriptor.toString( value) );
+				doBind( resultset, value, null, names, options );
+			}
+
+			@Override
+			protected void doBind(Tuple resultset, X value, int[] slots, String[] names, WrapperOptions options) {
+				resultset.put( slot( slots, 0 ), names[0], javaTypeDescriptor.toString( value) );
 			}
 		};
 	}
@@ -0,0 +1,256 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.util.impl;
+
+import java.util.Arrays;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.grid.AssociationKind;
+import org.hibernate.ogm.persister.CollectionPhysicalModel;
+import org.hibernate.ogm.persister.OgmCollectionPersister;
+import org.hibernate.ogm.persister.OgmEntityPersister;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.Loadable;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.OneToOneType;
+import org.hibernate.type.Type;
+
+/**
+ * The mapping dependent information of an {@link org.hibernate.ogm.grid.AssociationKey}: role, kind, row key
+ * column names and whether the association is bidirectional.
+ *
+ * Finding the role of the other side of an association requires to go through all the properties of the
+ * associated entity; this is done once, when the persisters are instantiated, and the result is kept by the
+ * persisters (see {@link OgmEntityPersister#getToOneAssociationKeyMetadata(int)} and
+ * {@link OgmCollectionPersister#getInverseAssociationKeyMetadata()}).
+ */
+public final class AssociationKeyMetadata {
+
+	private final String collectionRole;
+	private final AssociationKind associationKind;
+	private final String[] rowKeyColumnNames;
+	//null when the other side has not been looked for
+	private final Boolean bidirectional;
+
+	private AssociationKeyMetadata(String collectionRole, AssociationKind associationKind, String[] rowKeyColumnNames, Boolean bidirectional) {
+		this.collectionRole = collectionRole;
+		this.associationKind = associationKind;
+		this.rowKeyColumnNames = rowKeyColumnNames;
+		this.bidirectional = bidirectional;
+	}
+
+	/**
+	 * Metadata of the association as seen from the owner of the collection.
+	 */
+	public static AssociationKeyMetadata forCollection(OgmCollectionPersister collectionPersister) {
+		return new AssociationKeyMetadata(
+				getUnqualifiedRole( collectionPersister ),
+				getAssociationKind( collectionPersister ),
+				collectionPersister.getRowKeyColumnNames(),
+				null
+		);
+	}
+
+	/**
+	 * Metadata of the association as seen from the entities referenced by the collection.
+	 * Must only be used for collections of entities.
+	 */
+	public static AssociationKeyMetadata forInverseCollection(OgmCollectionPersister collectionPersister, SessionFactoryImplementor factory) {
+		RoleResolver resolver = new RoleResolver( factory, collectionPersister.getTableName(), collectionPersister.getElementColumnNames(), null );
+		String role = resolver.buildCollectionRole( collectionPersister );
+		return new AssociationKeyMetadata(
+				role,
+				getAssociationKind( collectionPersister ),
+				collectionPersister.getRowKeyColumnNames(),
+				resolver.bidirectional
+		);
+	}
+
+	/**
+	 * Metadata of the association as seen from the entity targeted by a *-to-one property.
+	 */
+	public static AssociationKeyMetadata forToOne(EntityType propertyType, String tableName, String[] keyColumnNames, String[] rowKeyColumnNames, SessionFactoryImplementor factory) {
+		OgmEntityPersister associatedPersister = (OgmEntityPersister) propertyType.getAssociatedJoinable( factory );
+		RoleResolver resolver = new RoleResolver( factory, tableName, keyColumnNames, propertyType );
+		String role = resolver.getCollectionRoleFromToOne( associatedPersister );
+		return new AssociationKeyMetadata(
+				role,
+				AssociationKind.ASSOCIATION,
+				rowKeyColumnNames,
+				resolver.bidirectional
+		);
+	}
+
+	public String getCollectionRole() {
+		return collectionRole;
+	}
+
+	public AssociationKind getAssociationKind() {
+		return associationKind;
+	}
+
+	public String[] getRowKeyColumnNames() {
+		return rowKeyColumnNames;
+	}
+
+	/**
+	 * @return whether the other side of the association has been found, {@code null} if it has not been looked for
+	 */
+	public Boolean isBidirectional() {
+		return bidirectional;
+	}
+
+	private static AssociationKind getAssociationKind(OgmCollectionPersister collectionPersister) {
+		//TODO add information on the collection type, set, map, bag, list etc
+		return collectionPersister.getElementType().isEntityType() ? AssociationKind.ASSOCIATION : AssociationKind.EMBEDDED;
+	}
+
+	private static String getUnqualifiedRole(CollectionPersister persister) {
+		String entity = persister.getOwnerEntityPersister().getEntityName();
+		String role = persister.getRole();
+		return role.substring( entity.length() + 1 );
+	}
+
+	/*
+	 * Looks for the property matching an association on the other side of the navigation
+	 */
+	private static class RoleResolver {
+		private final SessionFactoryImplementor factory;
+		private final String tableName;
+		private final String[] keyColumnNames;
+		private final Type propertyType;
+		private Boolean bidirectional;
+
+		RoleResolver(SessionFactoryImplementor factory, String tableName, String[] keyColumnNames, Type propertyType) {
+			this.factory = factory;
+			this.tableName = tableName;
+			this.keyColumnNames = keyColumnNames;
+			this.propertyType = propertyType;
+		}
+
+		/*
+		 * Try and find the inverse association matching from the associated entity
+		 * If a match is found, use the other side's association name as role
+		 * Otherwise use the table name
+		 */
+		String getCollectionRoleFromToOne(OgmEntityPersister associatedPersister) {
+			//code logic is slightly duplicated but the input and context is different, hence this choice
+			Type[] propertyTypes = associatedPersister.getPropertyTypes();
+			String otherSidePropertyName = null;
+			for ( int index = 0 ; index <  propertyTypes.length ; index++ ) {
+				Type type = propertyTypes[index];
+				boolean matching = false;
+				//we try and restrict type search as much as possible
+				//we look for associations that also are collections
+				if ( type.isAssociationType() && type.isCollectionType() ) {
+					matching = isCollectionMatching( (CollectionType) type, tableName );
+				}
+				//we look for associations that are to-one
+				else if ( type.isAssociationType() && ! type.isCollectionType() ) { //isCollectionType redundant but kept for readability
+					matching = isToOneMatching( associatedPersister, index, type );
+				}
+				if ( matching ) {
+					otherSidePropertyName = associatedPersister.getPropertyNames()[index];
+					break;
+				}
+			}
+			return processOtherSidePropertyName( otherSidePropertyName );
+		}
+
+		/*
+		 * Try and find the inverse association matching from the associated entity
+		 * If a match is found, use the other side's association name as role
+		 * Otherwise use the table name
+		 */
+		String buildCollectionRole(OgmCollectionPersister collectionPersister) {
+			String otherSidePropertyName = null;
+			Loadable elementPersister = (Loadable) collectionPersister.getElementPersister();
+			Type[] propertyTypes = elementPersister.getPropertyTypes();
+
+			for ( int index = 0 ; index <  propertyTypes.length ; index++ ) {
+				Type type = propertyTypes[index];
+				//we try and restrict type search as much as possible
+				if ( type.isAssociationType() ) {
+					boolean matching = false;
+					//if the main side collection is a one-to-many, the reverse side should be a to-one is not a collection
+					if ( collectionPersister.isOneToMany() && ! type.isCollectionType() ) {
+						matching = isToOneMatching( elementPersister, index, type );
+					}
+					//if the main side collection is not a one-to-many, the reverse side should be a collection
+					else if ( ! collectionPersister.isOneToMany() && type.isCollectionType() ) {
+						matching = isCollectionMatching( (CollectionType) type, collectionPersister.getTableName() );
+					}
+					if ( matching ) {
+						otherSidePropertyName = elementPersister.getPropertyNames()[index];
+						break;
+					}
+				}
+			}
+			return processOtherSidePropertyName( otherSidePropertyName );
+		}
+
+		private boolean isCollectionMatching(CollectionType type, String primarySideTableName) {
+			// Find the reverse side collection and check if the table name and key columns are matching
+			// what we have on the main side
+			String collectionRole = type.getRole();
+			CollectionPhysicalModel reverseCollectionPersister = (CollectionPhysicalModel) factory.getCollectionPersister( collectionRole );
+			boolean isSameTable = primarySideTableName.equals( reverseCollectionPersister.getTableName() );
+			return isSameTable && Arrays.equals( keyColumnNames, reverseCollectionPersister.getKeyColumnNames() );
+		}
+
+		private boolean isToOneMatching(Loadable elementPersister, int index, Type type) {
+			if ( ( (EntityType) type ).isOneToOne() ) {
+				// If that's a OneToOne check the associated property name and see if it matches where we come from
+				// we need to do that as OneToOne don't define columns
+				OneToOneType oneToOneType = (OneToOneType) type;
+				String associatedProperty = oneToOneType.getRHSUniqueKeyPropertyName();
+				if ( associatedProperty != null ) {
+					OgmEntityPersister mainSidePersister = (OgmEntityPersister) oneToOneType.getAssociatedJoinable( factory );
+					try {
+						int propertyIndex = mainSidePersister.getPropertyIndex( associatedProperty );
+						return mainSidePersister.getPropertyTypes()[propertyIndex] == propertyType;
+					}
+					catch ( HibernateException e ) {
+						//not the right property
+						//probably should not happen
+					}
+				}
+			}
+			//otherwise we do a key column comparison to see if it matches
+			return Arrays.equals( keyColumnNames, elementPersister.getPropertyColumnNames( index ) );
+		}
+
+		private String processOtherSidePropertyName(String otherSidePropertyName) {
+			//if we found the matching property on the reverse side, we are
+			//bidirectional, otherwise we are not
+			if ( otherSidePropertyName != null ) {
+				bidirectional = Boolean.TRUE;
+			}
+			else {
+				bidirectional = Boolean.FALSE;
+				otherSidePropertyName = tableName;
+			}
+			return otherSidePropertyName;
+		}
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.util.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.AssociationContext;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.dialect.AsyncGridDialect;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+
+/**
+ * Associations and entity tuples read and modified by the persisters during a flush.
+ *
+ * The persisters update the navigational information of both sides of an association row by row. Without the
+ * working set, every row leads to a read and a write of the same association (or of the same entity tuple for
+ * one-to-many associations stored in the entity). With the working set, each of them is read at most once
+ * and written once, when the flush completes.
+ *
+ * The working set is bound to the current thread by the flush listeners (see
+ * {@link org.hibernate.ogm.dialect.impl.BatchingFlushEventListener}) and is only visible to the session
+ * being flushed. Outside of a flush, {@link #get(SessionImplementor)} returns {@code null} and the persisters
+ * access the dialect directly.
+ *
+ * When the dialect is an {@link AsyncGridDialect}, the changes are sent to the datastore concurrently.
+ */
+public final class FlushWorkingSet {
+
+	private static final Log log = LoggerFactory.make();
+
+	private static final ThreadLocal<FlushWorkingSet> CURRENT = new ThreadLocal<FlushWorkingSet>();
+
+	private final SessionImplementor session;
+	private final GridDialect gridDialect;
+
+	//a null value means that the association or the tuple does not exist in the datastore
+	private final Map<AssociationKey, Association> associations = new HashMap<AssociationKey, Association>();
+	private final Map<EntityKey, Tuple> tuples = new HashMap<EntityKey, Tuple>();
+	private final Map<AssociationKey, Association> changedAssociations = new LinkedHashMap<AssociationKey, Association>();
+	private final Map<EntityKey, Tuple> changedTuples = new LinkedHashMap<EntityKey, Tuple>();
+
+	//working set of another session being flushed by the same thread
+	private final FlushWorkingSet previous;
+	private int depth = 0;
+
+	private FlushWorkingSet(SessionImplementor session, GridDialect gridDialect, FlushWorkingSet previous) {
+		this.session = session;
+		this.gridDialect = gridDialect;
+		this.previous = previous;
+	}
+
+	/**
+	 * Bind a working set to the current thread for the duration of the flush of the given session.
+	 * Nested flushes of the same session share the working set of the outermost flush.
+	 */
+	public static FlushWorkingSet begin(SessionImplementor session, GridDialect gridDialect) {
+		FlushWorkingSet workingSet = CURRENT.get();
+		if ( workingSet == null || workingSet.session != session ) {
+			workingSet = new FlushWorkingSet( session, gridDialect, workingSet );
+			CURRENT.set( workingSet );
+		}
+		workingSet.depth++;
+		return workingSet;
+	}
+
+	/**
+	 * @return the working set of the flush of the given session or {@code null} if the session is not being flushed
+	 */
+	public static FlushWorkingSet get(SessionImplementor session) {
+		FlushWorkingSet workingSet = CURRENT.get();
+		return workingSet != null && workingSet.session == session ? workingSet : null;
+	}
+
+	/**
+	 * Write the changes collected so far if the given session is being flushed.
+	 * Used before operations which must observe them, like the removal of an entity.
+	 */
+	public static void writeChanges(SessionImplementor session) {
+		FlushWorkingSet workingSet = get( session );
+		if ( workingSet != null ) {
+			workingSet.writeChanges();
+		}
+	}
+
+	/**
+	 * End the flush: the changes are written if this is the outermost flush.
+	 */
+	public void end() {
+		if ( --depth == 0 ) {
+			try {
+				writeChanges();
+			}
+			finally {
+				unbind();
+			}
+		}
+	}
+
+	/**
+	 * End the flush without writing the changes, used when the flush failed.
+	 */
+	public void discard() {
+		if ( --depth == 0 ) {
+			unbind();
+		}
+	}
+
+	public Association getAssociation(AssociationKey key, AssociationContext associationContext) {
+		if ( associations.containsKey( key ) ) {
+			return associations.get( key );
+		}
+		Association association = gridDialect.getAssociation( key, associationContext );
+		associations.put( key, association );
+		return association;
+	}
+
+	public Association createAssociation(AssociationKey key) {
+		Association association = gridDialect.createAssociation( key );
+		associations.put( key, association );
+		return association;
+	}
+
+	/**
+	 * @return the association if it has already been read during this flush, {@code null} otherwise
+	 */
+	public Association getLoadedAssociation(AssociationKey key) {
+		return associations.get( key );
+	}
+
+	public void associationChanged(AssociationKey key, Association association) {
+		changedAssociations.put( key, association );
+	}
+
+	public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
+		if ( tuples.containsKey( key ) ) {
+			return tuples.get( key );
+		}
+		Tuple tuple = gridDialect.getTuple( key, tupleContext );
+		tuples.put( key, tuple );
+		return tuple;
+	}
+
+	public void tupleChanged(EntityKey key, Tuple tuple) {
+		changedTuples.put( key, tuple );
+	}
+
+	private void writeChanges() {
+		if ( changedAssociations.isEmpty() && changedTuples.isEmpty() ) {
+			return;
+		}
+		if ( GridDialects.hasFacet( gridDialect, AsyncGridDialect.class ) ) {
+			writeChangesConcurrently( (AsyncGridDialect) gridDialect );
+		}
+		else {
+			for ( Map.Entry<AssociationKey, Association> entry : changedAssociations.entrySet() ) {
+				if ( entry.getValue().isEmpty() ) {
+					gridDialect.removeAssociation( entry.getKey() );
+				}
+				else {
+					gridDialect.updateAssociation( entry.getValue(), entry.getKey() );
+				}
+			}
+			for ( Map.Entry<EntityKey, Tuple> entry : changedTuples.entrySet() ) {
+				gridDialect.updateTuple( entry.getValue(), entry.getKey() );
+			}
+		}
+		//the written objects still hold their operations: read them again if needed
+		changedAssociations.clear();
+		changedTuples.clear();
+		associations.clear();
+		tuples.clear();
+	}
+
+	/*
+	 * The associations are written together, then the tuples: an association stored in an entity
+	 * might share its document with a changed tuple.
+	 */
+	private void writeChangesConcurrently(AsyncGridDialect asyncGridDialect) {
+		List<Future<Void>> writes = new ArrayList<Future<Void>>( Math.max( changedAssociations.size(), changedTuples.size() ) );
+		for ( Map.Entry<AssociationKey, Association> entry : changedAssociations.entrySet() ) {
+			if ( entry.getValue().isEmpty() ) {
+				writes.add( asyncGridDialect.removeAssociationAsync( entry.getKey() ) );
+			}
+			else {
+				writes.add( asyncGridDialect.updateAssociationAsync( entry.getValue(), entry.getKey() ) );
+			}
+		}
+		awaitAll( writes );
+		writes.clear();
+		for ( Map.Entry<EntityKey, Tuple> entry : changedTuples.entrySet() ) {
+			writes.add( asyncGridDialect.updateTupleAsync( entry.getValue(), entry.getKey() ) );
+		}
+		awaitAll( writes );
+	}
+
+	/*
+	 * Wait for all the writes, even when one of them fails, so that none of them is still running
+	 * once the flush is over; the first failure is then propagated.
+	 */
+	private static void awaitAll(List<Future<Void>> writes) {
+		RuntimeException failure = null;
+		boolean interrupted = false;
+		for ( Future<Void> write : writes ) {
+			while ( true ) {
+				try {
+					write.get();
+					break;
+				}
+				catch ( InterruptedException e ) {
+					interrupted = true;
+					if ( failure == null ) {
+						failure = log.interruptedWhileWaitingForWrites( e );
+					}
+				}
+				catch ( ExecutionException e ) {
+					if ( failure == null ) {
+						failure = e.getCause() instanceof RuntimeException
+								? (RuntimeException) e.getCause()
+								: log.asynchronousWriteFailed( e.getCause() );
+					}
+					break;
+				}
+			}
+		}
+		writes.clear();
+		if ( interrupted ) {
+			Thread.currentThread().interrupt();
+		}
+		if ( failure != null ) {
+			throw failure;
+		}
+	}
+
+	private void unbind() {
+		if ( previous == null ) {
+			CURRENT.remove();
+		}
+		else {
+			CURRENT.set( previous );
+		}
+	}
+}
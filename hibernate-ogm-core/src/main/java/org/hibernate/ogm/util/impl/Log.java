@@ -30,6 +30,8 @@
 import org.hibernate.TransactionException;
 import org.hibernate.hql.internal.ast.QuerySyntaxException;
 import org.hibernate.ogm.datastore.impl.DatastoreProviderInitiator;
+import org.hibernate.ogm.exception.TupleAlreadyExistsException;
+import org.hibernate.ogm.grid.EntityKey;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Cause;
 import org.jboss.logging.LogMessage;
@@ -120,4 +122,17 @@ public interface Log extends BasicLogger {
 	@Message(id = 24, value = "Syntax error in query: [%1$s]")
 	HibernateException querySyntaxException(@Cause QuerySyntaxException qse, String queryString);
 
+	@Message(id = 25, value = "Interrupted while waiting for the datastore writes of a flush")
+	HibernateException interruptedWhileWaitingForWrites(@Cause InterruptedException e);
+
+	@Message(id = 26, value = "A datastore write of the flush failed")
+	HibernateException asynchronousWriteFailed(@Cause Throwable cause);
+
+	@LogMessage(level = WARN)
+	@Message(id = 27, value = "The second-level cache region of %1$s is ignored: the datastore already keeps all its data in the memory of the local node")
+	void secondLevelCacheBypassed(String role);
+
+	@Message(id = 28, value = "Trying to insert an already existing tuple: %1$s")
+	TupleAlreadyExistsException tupleAlreadyExists(EntityKey key);
+
 }
@@ -20,7 +20,6 @@
  */
 package org.hibernate.ogm.util.impl;
 
-import org.hibernate.HibernateException;
 import org.hibernate.annotations.common.AssertionFailure;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.ogm.datastore.map.impl.MapAssociationSnapshot;
@@ -32,21 +31,15 @@
 import org.hibernate.ogm.grid.AssociationKind;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.RowKey;
-import org.hibernate.ogm.persister.CollectionPhysicalModel;
 import org.hibernate.ogm.persister.EntityKeyBuilder;
 import org.hibernate.ogm.persister.OgmCollectionPersister;
 import org.hibernate.ogm.persister.OgmEntityPersister;
 import org.hibernate.ogm.type.GridType;
-import org.hibernate.persister.collection.CollectionPersister;
-import org.hibernate.persister.entity.Loadable;
-import org.hibernate.type.CollectionType;
 import org.hibernate.type.EntityType;
-import org.hibernate.type.OneToOneType;
 import org.hibernate.type.Type;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -68,6 +61,7 @@ public class PropertyMetadataProvider {
 	private Type propertyType;
 	private String[] rowKeyColumnNames;
 	private AssociationContext associationContext;
+	private AssociationKeyMetadata associationKeyMetadata;
 	/*
 	 * Return true if the other side association has been searched and not been found
 	 * The other side association is searched when we are looking forward to udpate it
@@ -129,6 +123,7 @@ private AssociationKey getCollectionMetadataKey() {
 			// We have a collection on the main side
 			if (collectionPersister != null) {
 				EntityKey entityKey;
+				AssociationKeyMetadata metadata;
 				// we are explicitly looking to update the non owning side
 				if ( inverse ) {
 					//look for the other side of the collection, build the key of the other side's entity
@@ -138,11 +133,12 @@ private AssociationKey getCollectionMetadataKey() {
 							(Serializable) key,
 							session
 					);
-					collectionMetadataKey.setCollectionRole( buildCollectionRole(collectionPersister) );
+					metadata = collectionPersister.getInverseAssociationKeyMetadata();
+					isBidirectional = metadata.isBidirectional();
 				}
 				else {
 					//we are on the right side, use the association property
-					collectionMetadataKey.setCollectionRole( getUnqualifiedRole( collectionPersister ) );
+					metadata = collectionPersister.getAssociationKeyMetadata();
 					entityKey = EntityKeyBuilder.fromPersister(
 							(OgmEntityPersister) collectionPersister.getOwnerEntityPersister(),
 							(Serializable) key,
@@ -150,11 +146,9 @@ private AssociationKey getCollectionMetadataKey() {
 					);
 				}
 				collectionMetadataKey.setOwnerEntityKey( entityKey );
-				//TODO add information on the collection type, set, map, bag, list etc
-
-				AssociationKind type = collectionPersister.getElementType().isEntityType() ? AssociationKind.ASSOCIATION : AssociationKind.EMBEDDED;
-				collectionMetadataKey.setAssociationKind( type );
-				collectionMetadataKey.setRowKeyColumnNames( collectionPersister.getRowKeyColumnNames() );
+				collectionMetadataKey.setCollectionRole( metadata.getCollectionRole() );
+				collectionMetadataKey.setAssociationKind( metadata.getAssociationKind() );
+				collectionMetadataKey.setRowKeyColumnNames( metadata.getRowKeyColumnNames() );
 			}
 			// We have a to-one on the main side
 			else if ( propertyType != null ) {
@@ -169,7 +163,13 @@ else if ( propertyType != null ) {
 					);
 					collectionMetadataKey.setOwnerEntityKey( entityKey );
 					collectionMetadataKey.setRowKeyColumnNames( rowKeyColumnNames );
-					collectionMetadataKey.setCollectionRole( getCollectionRoleFromToOne( associatedPersister ) );
+					if ( associationKeyMetadata == null ) {
+						associationKeyMetadata = AssociationKeyMetadata.forToOne(
+								entityType, tableName, keyColumnNames, rowKeyColumnNames, session.getFactory()
+						);
+					}
+					collectionMetadataKey.setCollectionRole( associationKeyMetadata.getCollectionRole() );
+					isBidirectional = associationKeyMetadata.isBidirectional();
 				}
 				else {
 					throw new AssertionFailure( "Cannot detect associated entity metadata. propertyType is of unexpected type: " + propertyType.getClass() );
@@ -182,119 +182,6 @@ else if ( propertyType != null ) {
 		return collectionMetadataKey;
 	}
 
-	/*
-	 * Try and find the inverse association matching from the associated entity
-	 * If a match is found, use the other side's association name as role
-	 * Otherwise use the table name
-	 */
-	//TODO we could cache such knowledge in a service if that turns out to be costly
-	private String getCollectionRoleFromToOne(OgmEntityPersister associatedPersister) {
-		//code logic is slightly duplicated but the input and context is different, hence this choice
-		Type[] propertyTypes = associatedPersister.getPropertyTypes();
-		String otherSidePropertyName = null;
-		for ( int index = 0 ; index <  propertyTypes.length ; index++ ) {
-			Type type = propertyTypes[index];
-			boolean matching = false;
-			//we try and restrict type search as much as possible
-			//we look for associations that also are collections
-			if ( type.isAssociationType() && type.isCollectionType() ) {
-				matching = isCollectionMatching( (CollectionType) type, tableName );
-			}
-			//we look for associations that are to-one
-			else if ( type.isAssociationType() && ! type.isCollectionType() ) { //isCollectionType redundant but kept for readability
-				matching = isToOneMatching( associatedPersister, index, type );
-			}
-			if ( matching ) {
-				otherSidePropertyName = associatedPersister.getPropertyNames()[index];
-				break;
-			}
-		}
-		return processOtherSidePropertyName( otherSidePropertyName );
-	}
-
-	private boolean isCollectionMatching(CollectionType type, String primarySideTableName) {
-		// Find the reverse side collection and check if the table name and key columns are matching 
-		// what we have on the main side
-		String collectionRole = type.getRole();
-		CollectionPhysicalModel reverseCollectionPersister = (CollectionPhysicalModel) session.getFactory().getCollectionPersister( collectionRole );
-		boolean isSameTable = primarySideTableName.equals( reverseCollectionPersister.getTableName() );
-		return isSameTable && Arrays.equals( keyColumnNames, reverseCollectionPersister.getKeyColumnNames() );
-	}
-
-	/*
-	 * Try and find the inverse association matching from the associated entity
-	 * If a match is found, use the other side's association name as role
-	 * Otherwise use the table name
-	 */
-	//TODO we could cache such knowledge in a service if that turns out to be costly
-	private String buildCollectionRole(OgmCollectionPersister collectionPersister) {
-		String otherSidePropertyName = null;
-		Loadable elementPersister = (Loadable) collectionPersister.getElementPersister();
-		Type[] propertyTypes = elementPersister.getPropertyTypes();
-
-		for ( int index = 0 ; index <  propertyTypes.length ; index++ ) {
-			Type type = propertyTypes[index];
-			//we try and restrict type search as much as possible
-			if ( type.isAssociationType() ) {
-				boolean matching = false;
-				//if the main side collection is a one-to-many, the reverse side should be a to-one is not a collection
-				if ( collectionPersister.isOneToMany() && ! type.isCollectionType() ) {
-					matching = isToOneMatching( elementPersister, index, type );
-				}
-				//if the main side collection is not a one-to-many, the reverse side should be a collection
-				else if ( ! collectionPersister.isOneToMany() && type.isCollectionType() ) {
-					matching = isCollectionMatching( (CollectionType) type, collectionPersister.getTableName() );
-				}
-				if ( matching ) {
-					otherSidePropertyName = elementPersister.getPropertyNames()[index];
-					break;
-				}
-			}
-		}
-		return processOtherSidePropertyName( otherSidePropertyName );
-	}
-
-	private boolean isToOneMatching(Loadable elementPersister, int index, Type type) {
-		if ( ( (EntityType) type ).isOneToOne() ) {
-			// If that's a OneToOne check the associated property name and see if it matches where we come from
-			// we need to do that as OneToOne don't define columns
-			OneToOneType oneToOneType = (OneToOneType) type;
-			String associatedProperty = oneToOneType.getRHSUniqueKeyPropertyName();
-			if ( associatedProperty != null ) {
-				OgmEntityPersister mainSidePersister = (OgmEntityPersister) oneToOneType.getAssociatedJoinable( session.getFactory() );
-				try {
-					int propertyIndex = mainSidePersister.getPropertyIndex( associatedProperty );
-					return mainSidePersister.getPropertyTypes()[propertyIndex] == propertyType;
-				}
-				catch ( HibernateException e ) {
-					//not the right property
-					//probably should not happen
-				}
-			}
-		}
-		//otherwise we do a key column comparison to see if it matches
-		return Arrays.equals( keyColumnNames, elementPersister.getPropertyColumnNames( index ) );
-	}
-
-	private String processOtherSidePropertyName(String otherSidePropertyName) {
-		//if we found the matching property on the reverse side, we are
-		//bidirectional, otherwise we are not
-		if ( otherSidePropertyName != null ) {
-			isBidirectional = Boolean.TRUE;
-		}
-		else {
-			isBidirectional = Boolean.FALSE;
-			otherSidePropertyName = tableName;
-		}
-		return otherSidePropertyName;
-	}
-
-	private String getUnqualifiedRole(CollectionPersister persister) {
-		String entity = persister.getOwnerEntityPersister().getEntityName();
-		String role = persister.getRole();
-		return role.substring( entity.length() + 1 );
-	}
-
 	private Object[] getKeyColumnValues() {
 		if ( columnValues == null ) {
 			columnValues = LogicalPhysicalConverterHelper.getColumnsValuesFromObjectValue(
@@ -322,9 +209,18 @@ public Association getCollectionMetadata() {
 				collectionMetadata = new Association( new MapAssociationSnapshot( Collections.EMPTY_MAP ) );
 			}
 			else {
-				collectionMetadata = gridDialect.getAssociation( key, this.getAssociationContext() );
-				if (collectionMetadata == null) {
-					collectionMetadata = gridDialect.createAssociation( key );
+				FlushWorkingSet workingSet = FlushWorkingSet.get( session );
+				if ( workingSet != null ) {
+					collectionMetadata = workingSet.getAssociation( key, this.getAssociationContext() );
+					if ( collectionMetadata == null ) {
+						collectionMetadata = workingSet.createAssociation( key );
+					}
+				}
+				else {
+					collectionMetadata = gridDialect.getAssociation( key, this.getAssociationContext() );
+					if ( collectionMetadata == null ) {
+						collectionMetadata = gridDialect.createAssociation( key );
+					}
 				}
 			}
 		}
@@ -336,16 +232,72 @@ public Association getCollectionMetadata() {
 	 */
 	public Association getCollectionMetadataOrNull() {
 		if ( collectionMetadata == null ) {
-			collectionMetadata = gridDialect.getAssociation( getCollectionMetadataKey(), this.getAssociationContext() );
+			FlushWorkingSet workingSet = FlushWorkingSet.get( session );
+			if ( workingSet != null ) {
+				collectionMetadata = workingSet.getAssociation( getCollectionMetadataKey(), this.getAssociationContext() );
+			}
+			else {
+				collectionMetadata = gridDialect.getAssociation( getCollectionMetadataKey(), this.getAssociationContext() );
+			}
+		}
+		return collectionMetadata;
+	}
+
+	/*
+	 * Number of rows of the collection; the collection is not read if not loaded already
+	 */
+	public int getCollectionSize() {
+		if ( getLoadedCollectionMetadata() != null ) {
+			return collectionMetadata.size();
+		}
+		return gridDialect.getAssociationSize( getCollectionMetadataKey() );
+	}
+
+	/*
+	 * Whether the collection contains the given row; the collection is not read if not loaded already
+	 */
+	public boolean containsCollectionRow(RowKey rowKey) {
+		if ( getLoadedCollectionMetadata() != null ) {
+			return collectionMetadata.get( rowKey ) != null;
+		}
+		return gridDialect.containsRow( getCollectionMetadataKey(), rowKey );
+	}
+
+	/*
+	 * The given row of the collection or null; the collection is not read if not loaded already
+	 */
+	public Tuple getCollectionRow(RowKey rowKey) {
+		if ( getLoadedCollectionMetadata() != null ) {
+			return collectionMetadata.get( rowKey );
+		}
+		return gridDialect.getRow( getCollectionMetadataKey(), rowKey );
+	}
+
+	/*
+	 * The collection as changed by the current flush, if any; null when it has to be read from the datastore
+	 */
+	private Association getLoadedCollectionMetadata() {
+		if ( collectionMetadata == null ) {
+			FlushWorkingSet workingSet = FlushWorkingSet.get( session );
+			if ( workingSet != null ) {
+				collectionMetadata = workingSet.getLoadedAssociation( getCollectionMetadataKey() );
+			}
 		}
 		return collectionMetadata;
 	}
 
+	/*
+	 * Write the association; during a flush the write is deferred to the end of the flush (see FlushWorkingSet)
+	 */
 	public void flushToCache() {
 		//If we don't have a bidirectional association, do not update the info
 		//to prevent unidirectional associations to keep record of the inverse side
 		if ( isBidirectional != Boolean.FALSE ) {
-			if ( getCollectionMetadata().isEmpty() ) {
+			FlushWorkingSet workingSet = FlushWorkingSet.get( session );
+			if ( workingSet != null ) {
+				workingSet.associationChanged( getCollectionMetadataKey(), getCollectionMetadata() );
+			}
+			else if ( getCollectionMetadata().isEmpty() ) {
 				gridDialect.removeAssociation( getCollectionMetadataKey() );
 				collectionMetadata = null;
 			}
@@ -370,6 +322,15 @@ public PropertyMetadataProvider rowKeyColumnNames(String[] rowKeyColumnNames) {
 		return this;
 	}
 
+	/**
+	 * Metadata of the *-to-one association computed when the persisters are instantiated;
+	 * computed on the fly if not set.
+	 */
+	public PropertyMetadataProvider associationKeyMetadata(AssociationKeyMetadata associationKeyMetadata) {
+		this.associationKeyMetadata = associationKeyMetadata;
+		return this;
+	}
+
 	private AssociationContext getAssociationContext() {
 		if ( associationContext == null ) {
 			if ( collectionPersister != null ) {
@@ -0,0 +1,83 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.associations.collection.extralazy;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+
+/**
+ * Checks that size, contains and get by index do not initialize an extra-lazy collection.
+ */
+public class ExtraLazyCollectionTest extends OgmTestCase {
+
+	public void testOperationsDoNotInitializeTheCollection() throws Exception {
+		Session session = openSession();
+		Transaction tx = session.beginTransaction();
+		Book dune = new Book();
+		dune.setTitle( "Dune" );
+		Book hyperion = new Book();
+		hyperion.setTitle( "Hyperion" );
+		Book solaris = new Book();
+		solaris.setTitle( "Solaris" );
+		session.persist( dune );
+		session.persist( hyperion );
+		session.persist( solaris );
+		Shelf shelf = new Shelf();
+		shelf.getBooks().add( dune );
+		shelf.getBooks().add( hyperion );
+		session.persist( shelf );
+		tx.commit();
+
+		session.clear();
+
+		tx = session.beginTransaction();
+		shelf = (Shelf) session.get( Shelf.class, shelf.getId() );
+		solaris = (Book) session.get( Book.class, solaris.getId() );
+		assertThat( shelf.getBooks().size() ).isEqualTo( 2 );
+		assertThat( shelf.getBooks().contains( session.load( Book.class, hyperion.getId() ) ) ).isTrue();
+		assertThat( shelf.getBooks().contains( solaris ) ).isFalse();
+		assertThat( shelf.getBooks().get( 1 ).getTitle() ).isEqualTo( "Hyperion" );
+		assertThat( Hibernate.isInitialized( shelf.getBooks() ) )
+				.as( "Extra-lazy operations should not initialize the collection" )
+				.isFalse();
+		session.delete( shelf );
+		session.delete( session.load( Book.class, dune.getId() ) );
+		session.delete( session.load( Book.class, hyperion.getId() ) );
+		session.delete( solaris );
+		tx.commit();
+
+		session.close();
+
+		checkCleanCache();
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] {
+				Shelf.class,
+				Book.class
+		};
+	}
+}
@@ -20,6 +20,11 @@
  */
 package org.hibernate.ogm.test.associations.collection.unidirectional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.ogm.test.simpleentity.OgmTestCase;
@@ -113,6 +118,108 @@ public void testUnidirectionalCollection() throws Exception {
 		checkCleanCache();
 	}
 
+	public void testReplacedCollectionIsClearedAndFilledInOneFlush() throws Exception {
+		final Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		SnowFlake sf = new SnowFlake();
+		sf.setDescription( "Snowflake 1" );
+		session.persist( sf );
+		SnowFlake sf2 = new SnowFlake();
+		sf2.setDescription( "Snowflake 2" );
+		session.persist( sf2 );
+		Cloud cloud = new Cloud();
+		cloud.getProducedSnowFlakes().add( sf );
+		cloud.getProducedSnowFlakes().add( sf2 );
+		session.persist( cloud );
+		transaction.commit();
+
+		session.clear();
+
+		//the collection is removed then recreated: the association is cleared before the new rows are added
+		transaction = session.beginTransaction();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		SnowFlake sf3 = new SnowFlake();
+		sf3.setDescription( "Snowflake 3" );
+		session.persist( sf3 );
+		cloud.setProducedSnowFlakes( new HashSet<SnowFlake>() );
+		cloud.getProducedSnowFlakes().add( sf3 );
+		transaction.commit();
+
+		session.clear();
+
+		transaction = session.beginTransaction();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		assertThat( descriptionsOf( cloud.getProducedSnowFlakes() ) ).containsOnly( "Snowflake 3" );
+		deleteCloudAndSnowFlakes( session, cloud, sf, sf2, sf3 );
+		transaction.commit();
+		session.close();
+
+		checkCleanCache();
+	}
+
+	public void testRowsAddedAndRemovedInOneFlush() throws Exception {
+		final Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		SnowFlake sf = new SnowFlake();
+		sf.setDescription( "Snowflake 1" );
+		session.persist( sf );
+		SnowFlake sf2 = new SnowFlake();
+		sf2.setDescription( "Snowflake 2" );
+		session.persist( sf2 );
+		SnowFlake sf3 = new SnowFlake();
+		sf3.setDescription( "Snowflake 3" );
+		session.persist( sf3 );
+		Cloud cloud = new Cloud();
+		cloud.getProducedSnowFlakes().add( sf );
+		cloud.getProducedSnowFlakes().add( sf2 );
+		cloud.getProducedSnowFlakes().add( sf3 );
+		session.persist( cloud );
+		transaction.commit();
+
+		session.clear();
+
+		transaction = session.beginTransaction();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		SnowFlake sf4 = new SnowFlake();
+		sf4.setDescription( "Snowflake 4" );
+		session.persist( sf4 );
+		SnowFlake sf5 = new SnowFlake();
+		sf5.setDescription( "Snowflake 5" );
+		session.persist( sf5 );
+		cloud.getProducedSnowFlakes().remove( session.load( SnowFlake.class, sf.getId() ) );
+		cloud.getProducedSnowFlakes().add( sf4 );
+		cloud.getProducedSnowFlakes().remove( session.load( SnowFlake.class, sf3.getId() ) );
+		cloud.getProducedSnowFlakes().add( sf5 );
+		transaction.commit();
+
+		session.clear();
+
+		transaction = session.beginTransaction();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		assertThat( descriptionsOf( cloud.getProducedSnowFlakes() ) ).containsOnly( "Snowflake 2", "Snowflake 4", "Snowflake 5" );
+		deleteCloudAndSnowFlakes( session, cloud, sf, sf2, sf3, sf4, sf5 );
+		transaction.commit();
+		session.close();
+
+		checkCleanCache();
+	}
+
+	private static List<String> descriptionsOf(Set<SnowFlake> snowFlakes) {
+		List<String> descriptions = new ArrayList<String>();
+		for ( SnowFlake snowFlake : snowFlakes ) {
+			descriptions.add( snowFlake.getDescription() );
+		}
+		return descriptions;
+	}
+
+	private static void deleteCloudAndSnowFlakes(Session session, Cloud cloud, SnowFlake... snowFlakes) {
+		cloud.getProducedSnowFlakes().clear();
+		session.delete( cloud );
+		for ( SnowFlake snowFlake : snowFlakes ) {
+			session.delete( session.load( SnowFlake.class, snowFlake.getId() ) );
+		}
+	}
+
 	@Override
 	protected Class<?>[] getAnnotatedClasses() {
 		return new Class<?>[] {
@@ -20,9 +20,14 @@
  */
 package org.hibernate.ogm.test.associations.onetoone;
 
+import static org.fest.assertions.Assertions.assertThat;
+
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.ogm.persister.OgmEntityPersister;
 import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+import org.hibernate.ogm.util.impl.AssociationKeyMetadata;
 
 /**
  * @author Emmanuel Bernard
@@ -127,6 +132,50 @@ public void testBidirectionalManyToOne() throws Exception {
 		session.close();
 	}
 
+	public void testLoadByUniqueKey() throws Exception {
+		final Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Husband husband = new Husband();
+		husband.setName( "Alex" );
+		Wife wife = new Wife();
+		wife.setName( "Bea" );
+		husband.setWife( wife );
+		wife.setHusband( husband );
+		session.persist( husband );
+		session.persist( wife );
+		transaction.commit();
+		session.clear();
+
+		OgmEntityPersister persister = (OgmEntityPersister) sfi().getEntityPersister( Husband.class.getName() );
+		AssociationKeyMetadata metadata = persister.getToOneAssociationKeyMetadata( persister.getPropertyIndex( "wife" ) );
+		assertThat( metadata.getCollectionRole() ).isEqualTo( "husband" );
+		assertThat( metadata.getRowKeyColumnNames() ).isEqualTo( new String[] { "id", "wife" } );
+		assertThat( metadata.isBidirectional() ).isTrue();
+		assertThat( persister.getToOneAssociationKeyMetadata( persister.getPropertyIndex( "name" ) ) ).isNull();
+
+		transaction = session.beginTransaction();
+		Husband loaded = (Husband) persister.loadByUniqueKey( "wife", wife.getId(), (SessionImplementor) session );
+		assertThat( loaded.getId() ).isEqualTo( husband.getId() );
+		assertThat( persister.loadByUniqueKey( "wife", "unknown", (SessionImplementor) session ) ).isNull();
+		//the inverse side of the one to one goes through the same lookup
+		session.clear();
+		wife = (Wife) session.get( Wife.class, wife.getId() );
+		assertThat( wife.getHusband().getId() ).isEqualTo( husband.getId() );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		wife = (Wife) session.get( Wife.class, wife.getId() );
+		husband = wife.getHusband();
+		husband.setWife( null );
+		wife.setHusband( null );
+		session.delete( husband );
+		session.delete( wife );
+		transaction.commit();
+		session.close();
+		checkCleanCache();
+	}
+
 	@Override
 	protected Class<?>[] getAnnotatedClasses() {
 		return new Class<?>[] {
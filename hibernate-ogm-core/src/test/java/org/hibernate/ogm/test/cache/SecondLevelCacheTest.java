@@ -0,0 +1,107 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.ogm.datastore.spi.CacheBackedDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.Statistics;
+import org.hibernate.testing.cache.CachingRegionFactory;
+
+/**
+ * Checks that the persisters bypass the second-level cache when the datastore is itself an in-memory cache holding
+ * all the data on the local node and use it otherwise.
+ */
+public class SecondLevelCacheTest extends OgmTestCase {
+
+	public void testCacheRegionsAreOnlyUsedIfTheDatastoreIsNotCacheBacked() throws Exception {
+		boolean useCache = !isCacheBacked();
+		EntityPersister entityPersister = sfi().getEntityPersister( Planet.class.getName() );
+		CollectionPersister collectionPersister = sfi().getCollectionPersister( Planet.class.getName() + ".moons" );
+		assertThat( entityPersister.hasCache() ).isEqualTo( useCache );
+		assertThat( entityPersister.hasNaturalIdCache() ).isEqualTo( useCache );
+		assertThat( collectionPersister.hasCache() ).isEqualTo( useCache );
+	}
+
+	public void testCacheableEntityIsReadFromTheDatastore() throws Exception {
+		Statistics statistics = sessions.getStatistics();
+		statistics.clear();
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Planet earth = new Planet();
+		earth.setId( "earth" );
+		earth.setName( "Earth" );
+		earth.getMoons().add( "Moon" );
+		session.persist( earth );
+		transaction.commit();
+		session.close();
+
+		session = openSession();
+		transaction = session.beginTransaction();
+		earth = (Planet) session.get( Planet.class, "earth" );
+		assertThat( earth.getMoons() ).containsOnly( "Moon" );
+		transaction.commit();
+		session.close();
+
+		if ( isCacheBacked() ) {
+			assertThat( statistics.getSecondLevelCachePutCount() ).isEqualTo( 0 );
+			assertThat( statistics.getSecondLevelCacheHitCount() ).isEqualTo( 0 );
+			assertThat( statistics.getSecondLevelCacheMissCount() ).isEqualTo( 0 );
+		}
+		else {
+			assertThat( statistics.getSecondLevelCachePutCount() ).isGreaterThan( 0 );
+		}
+
+		session = openSession();
+		transaction = session.beginTransaction();
+		session.delete( session.get( Planet.class, "earth" ) );
+		transaction.commit();
+		session.close();
+		checkCleanCache();
+	}
+
+	private boolean isCacheBacked() {
+		DatastoreProvider provider = sfi().getServiceRegistry().getService( DatastoreProvider.class );
+		return provider instanceof CacheBackedDatastoreProvider && ( (CacheBackedDatastoreProvider) provider ).isDataHeldLocally();
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.USE_SECOND_LEVEL_CACHE, "true" );
+		cfg.setProperty( Environment.CACHE_REGION_FACTORY, CachingRegionFactory.class.getName() );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Planet.class };
+	}
+}
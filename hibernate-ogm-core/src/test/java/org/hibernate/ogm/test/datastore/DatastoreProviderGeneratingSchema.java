@@ -99,7 +99,12 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
 		}
 
 		@Override
-		public Tuple createTuple(EntityKey key) {
+		public List<Tuple> getTuples(List<EntityKey> keys, TupleContext tupleContext) {
+			return null;  //To change body of implemented methods use File | Settings | File Templates.
+		}
+
+		@Override
+		public Tuple createTuple(EntityKey key, TupleContext tupleContext) {
 			return null;  //To change body of implemented methods use File | Settings | File Templates.
 		}
 
@@ -108,6 +113,11 @@ public void updateTuple(Tuple tuple, EntityKey key) {
 			//To change body of implemented methods use File | Settings | File Templates.
 		}
 
+		@Override
+		public void insertTuple(Tuple tuple, EntityKey key) {
+			//To change body of implemented methods use File | Settings | File Templates.
+		}
+
 		@Override
 		public void removeTuple(EntityKey key) {
 			//To change body of implemented methods use File | Settings | File Templates.
@@ -118,6 +128,21 @@ public Association getAssociation(AssociationKey key, AssociationContext associa
 			return null;  //To change body of implemented methods use File | Settings | File Templates.
 		}
 
+		@Override
+		public int getAssociationSize(AssociationKey key) {
+			return 0;  //To change body of implemented methods use File | Settings | File Templates.
+		}
+
+		@Override
+		public boolean containsRow(AssociationKey key, RowKey rowKey) {
+			return false;
+		}
+
+		@Override
+		public Tuple getRow(AssociationKey key, RowKey rowKey) {
+			return null;
+		}
+
 		@Override
 		public Association createAssociation(AssociationKey key) {
 			return null;  //To change body of implemented methods use File | Settings | File Templates.
@@ -0,0 +1,146 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.datastore;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.hibernate.ogm.datastore.impl.AssociationRow;
+import org.hibernate.ogm.datastore.impl.EmptyTupleSnapshot;
+import org.hibernate.ogm.datastore.impl.MapHelpers;
+import org.hibernate.ogm.datastore.impl.MapTupleSnapshot;
+import org.hibernate.ogm.datastore.map.impl.MapAssociationSnapshot;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.RowKey;
+import org.junit.Test;
+
+/**
+ * Checks how {@link MapHelpers} turns association tuples into immutable {@link AssociationRow}s.
+ */
+public class MapHelpersTest {
+
+	private static final String TABLE = "Blog_BlogEntry";
+	private static final String[] ROW_KEY_COLUMNS = { "Blog_id", "entries_id" };
+	private static final AssociationKey KEY = new AssociationKey( TABLE, new String[] { "Blog_id" }, new Object[] { 1L } );
+
+	@Test
+	public void testNewRowsWithTheSameLayoutShareTheirColumns() {
+		Map<RowKey, Map<String, Object>> store = new HashMap<RowKey, Map<String, Object>>();
+		Association association = new Association( new MapAssociationSnapshot( store ) );
+		association.put( rowKey( 1L ), newRow( 1L ) );
+		association.put( rowKey( 2L ), newRow( 2L ) );
+		MapHelpers.updateAssociation( association, KEY );
+
+		AssociationRow first = (AssociationRow) store.get( rowKey( 1L ) );
+		AssociationRow second = (AssociationRow) store.get( rowKey( 2L ) );
+		assertThat( first.getColumns() ).isEqualTo( new String[] { "Blog_id", "entries_id" } );
+		assertThat( first.getValues() ).isEqualTo( new Object[] { 1L, 1L } );
+		assertThat( second.get( "entries_id" ) ).isEqualTo( 2L );
+		assertThat( second.getColumns() ).isSameAs( first.getColumns() );
+	}
+
+	@Test
+	public void testUnchangedRowIsStoredAsIs() {
+		Map<RowKey, Map<String, Object>> store = new HashMap<RowKey, Map<String, Object>>();
+		AssociationRow row = row( 1L, 1L );
+		store.put( rowKey( 1L ), row );
+
+		Association association = new Association( new MapAssociationSnapshot( store ) );
+		association.put( rowKey( 1L ), new Tuple( new MapTupleSnapshot( row ) ) );
+		MapHelpers.updateAssociation( association, KEY );
+
+		assertThat( store.get( rowKey( 1L ) ) ).isSameAs( row );
+	}
+
+	@Test
+	public void testChangedRowIsCopied() {
+		Map<RowKey, Map<String, Object>> store = new HashMap<RowKey, Map<String, Object>>();
+		AssociationRow row = row( 1L, 1L );
+		store.put( rowKey( 1L ), row );
+
+		Association association = new Association( new MapAssociationSnapshot( store ) );
+		Tuple tuple = new Tuple( new MapTupleSnapshot( row ) );
+		tuple.put( "entries_id", 3L );
+		association.put( rowKey( 1L ), tuple );
+		MapHelpers.updateAssociation( association, KEY );
+
+		AssociationRow copy = (AssociationRow) store.get( rowKey( 1L ) );
+		assertThat( copy ).isNotSameAs( row );
+		assertThat( copy.get( "entries_id" ) ).isEqualTo( 3L );
+		assertThat( copy.getColumns() ).as( "The layout did not change" ).isSameAs( row.getColumns() );
+		assertThat( row.get( "entries_id" ) ).as( "The stored row is never modified" ).isEqualTo( 1L );
+	}
+
+	@Test
+	public void testRowWithARemovedColumnGetsItsOwnLayout() {
+		Map<RowKey, Map<String, Object>> store = new HashMap<RowKey, Map<String, Object>>();
+		AssociationRow row = row( 1L, 1L );
+		store.put( rowKey( 1L ), row );
+
+		Association association = new Association( new MapAssociationSnapshot( store ) );
+		Tuple tuple = new Tuple( new MapTupleSnapshot( row ) );
+		tuple.remove( "entries_id" );
+		association.put( rowKey( 1L ), tuple );
+		MapHelpers.updateAssociation( association, KEY );
+
+		AssociationRow copy = (AssociationRow) store.get( rowKey( 1L ) );
+		assertThat( copy.getColumns() ).isEqualTo( new String[] { "Blog_id" } );
+		assertThat( copy.containsKey( "entries_id" ) ).isFalse();
+		assertThat( row.getColumns() ).isEqualTo( new String[] { "Blog_id", "entries_id" } );
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRowCannotBeModified() {
+		row( 1L, 1L ).put( "entries_id", 2L );
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRowColumnCannotBeRemoved() {
+		Iterator<Map.Entry<String, Object>> entries = row( 1L, 1L ).entrySet().iterator();
+		entries.next();
+		entries.remove();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRowValueCannotBeReplaced() {
+		row( 1L, 1L ).entrySet().iterator().next().setValue( 2L );
+	}
+
+	private static AssociationRow row(Long blogId, Long entryId) {
+		return new AssociationRow( new String[] { "Blog_id", "entries_id" }, new Object[] { blogId, entryId } );
+	}
+
+	private static Tuple newRow(Long entryId) {
+		Tuple row = new Tuple( EmptyTupleSnapshot.SINGLETON );
+		row.put( ROW_KEY_COLUMNS[1], entryId );
+		row.put( ROW_KEY_COLUMNS[0], 1L );
+		return row;
+	}
+
+	private static RowKey rowKey(Long entryId) {
+		return new RowKey( TABLE, ROW_KEY_COLUMNS, new Object[] { 1L, entryId } );
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.datastore;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.ogm.datastore.impl.MapTupleSnapshot;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleOperation;
+import org.hibernate.ogm.datastore.spi.TupleOperationType;
+import org.junit.Test;
+
+/**
+ * Checks the slot addressing of the columns of a {@link Tuple} and its fallback to the column names.
+ */
+public class TupleTest {
+
+	//"name" is mapped twice, as by two properties sharing a column
+	private final TupleContext context = new TupleContext( Arrays.asList( "name", "age", "name", "city" ) );
+
+	@Test
+	public void testSlotsAreResolvedOnceForTheFirstMappingOfAColumn() {
+		assertThat( context.getSlots( new String[] { "name", "age", "city", "id" } ) ).isEqualTo( new int[] { 0, 1, 3, -1 } );
+		assertThat( context.getColumn( 2 ) ).as( "A column mapped twice only uses its first slot" ).isNull();
+		assertThat( context.isSlotOf( 1, "age" ) ).isTrue();
+		assertThat( context.isSlotOf( 2, "name" ) ).isFalse();
+		assertThat( context.isSlotOf( 4, "city" ) ).isFalse();
+	}
+
+	@Test
+	public void testColumnsAreWrittenAndReadBySlot() {
+		Tuple tuple = new Tuple( snapshot( "name", "Emmanuel", "city", "Paris" ), context );
+		tuple.put( 1, "age", 36 );
+		tuple.put( 3, "city", null );
+
+		assertThat( tuple.get( 1, "age" ) ).isEqualTo( 36 );
+		assertThat( tuple.get( "age" ) ).as( "A slot write is visible by name" ).isEqualTo( 36 );
+		assertThat( tuple.get( 3, "city" ) ).isNull();
+		assertThat( tuple.get( 0, "name" ) ).as( "Slots without changes read the snapshot" ).isEqualTo( "Emmanuel" );
+		assertThat( operations( tuple ) ).containsOnly( "PUT age=36", "PUT_NULL city=null" );
+	}
+
+	@Test
+	public void testNamesAreUsedWhenTheSlotDoesNotApply() {
+		Tuple tuple = new Tuple( snapshot( "name", "Sanne" ), context );
+		tuple.put( "age", 33 );
+		//unknown slot, slot of another column and mapping of a column already in a previous slot
+		tuple.put( -1, "city", "Newcastle" );
+		tuple.put( 1, "name", "Sanne Grinovero" );
+		tuple.put( 2, "name", "S. Grinovero" );
+		//column not part of the context
+		tuple.put( 5, "id", "sanne" );
+
+		assertThat( tuple.get( 1, "age" ) ).isEqualTo( 33 );
+		assertThat( tuple.get( 3, "city" ) ).isEqualTo( "Newcastle" );
+		assertThat( tuple.get( 0, "name" ) ).isEqualTo( "S. Grinovero" );
+		assertThat( tuple.get( "id" ) ).isEqualTo( "sanne" );
+		assertThat( tuple.get( -1, "id" ) ).isEqualTo( "sanne" );
+		assertThat( operations( tuple ) ).containsOnly( "PUT name=S. Grinovero", "PUT age=33", "PUT city=Newcastle", "PUT id=sanne" );
+	}
+
+	@Test
+	public void testTupleWithoutContextAddressesColumnsByName() {
+		Tuple tuple = new Tuple( snapshot( "name", "Gunnar" ) );
+		tuple.put( 1, "age", 35 );
+		tuple.remove( "name" );
+
+		assertThat( tuple.get( "age" ) ).isEqualTo( 35 );
+		assertThat( tuple.get( 0, "name" ) ).isNull();
+		assertThat( tuple.getColumnNames() ).containsOnly( "age" );
+		assertThat( operations( tuple ) ).containsOnly( "PUT age=35", "REMOVE name=null" );
+	}
+
+	@Test
+	public void testColumnNamesApplyTheChangesToTheSnapshot() {
+		Tuple tuple = new Tuple( snapshot( "name", "Davide", "city", "Rome" ), context );
+		assertThat( tuple.getColumnNames() ).containsOnly( "name", "city" );
+
+		tuple.put( 1, "age", 30 );
+		tuple.remove( "city" );
+		tuple.put( "id", "davide" );
+		assertThat( tuple.getColumnNames() ).containsOnly( "name", "age", "id" );
+	}
+
+	@Test
+	public void testOperationsAreOnlyRebuiltAfterAChange() {
+		Tuple tuple = new Tuple( snapshot(), context );
+		assertThat( tuple.getOperations() ).isEmpty();
+
+		tuple.put( 0, "name", "Emmanuel" );
+		Set<TupleOperation> operations = tuple.getOperations();
+		assertThat( tuple.getOperations() ).isSameAs( operations );
+
+		tuple.put( "id", "emmanuel" );
+		assertThat( tuple.getOperations() ).isNotSameAs( operations );
+		assertThat( operations( tuple ) ).containsOnly( "PUT name=Emmanuel", "PUT id=emmanuel" );
+	}
+
+	private static MapTupleSnapshot snapshot(Object... columnsAndValues) {
+		Map<String, Object> map = new HashMap<String, Object>();
+		for ( int i = 0; i < columnsAndValues.length; i += 2 ) {
+			map.put( (String) columnsAndValues[i], columnsAndValues[i + 1] );
+		}
+		return new MapTupleSnapshot( map );
+	}
+
+	private static String[] operations(Tuple tuple) {
+		String[] operations = new String[tuple.getOperations().size()];
+		int i = 0;
+		for ( TupleOperation operation : tuple.getOperations() ) {
+			TupleOperationType type = operation.getType();
+			operations[i++] = type + " " + operation.getColumn() + "=" + operation.getValue();
+		}
+		return operations;
+	}
+}
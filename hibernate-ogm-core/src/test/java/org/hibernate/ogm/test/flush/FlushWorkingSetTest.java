@@ -0,0 +1,258 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.flush;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.hibernate.ogm.test.utils.TestHelper.assertNumberOfEntities;
+import static org.hibernate.ogm.test.utils.TestHelper.extractEntityTuple;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.ogm.datastore.impl.DatastoreServices;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialectFactory;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.persister.EntityKeyBuilder;
+import org.hibernate.ogm.persister.OgmEntityPersister;
+import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+import org.hibernate.ogm.test.utils.CountingGridDialect;
+import org.hibernate.ogm.util.impl.FlushWorkingSet;
+
+/**
+ * Checks the changes collected by {@link FlushWorkingSet} during a flush, in particular the foreign keys
+ * written in the element tuples of a unidirectional {@code @OneToMany @JoinColumn} association.
+ */
+public class FlushWorkingSetTest extends OgmTestCase {
+
+	public void testNestedFlushesShareTheWorkingSet() throws Exception {
+		persistProducts( "p1" );
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		SessionImplementor sessionImplementor = (SessionImplementor) session;
+		OgmEntityPersister persister = (OgmEntityPersister) sfi().getEntityPersister( Product.class.getName() );
+		EntityKey key = EntityKeyBuilder.fromPersister( persister, "p1", sessionImplementor );
+
+		FlushWorkingSet outer = FlushWorkingSet.begin( sessionImplementor, getGridDialect() );
+		FlushWorkingSet inner = FlushWorkingSet.begin( sessionImplementor, getGridDialect() );
+		assertThat( inner ).isSameAs( outer );
+
+		Session otherSession = openSession();
+		SessionImplementor otherSessionImplementor = (SessionImplementor) otherSession;
+		FlushWorkingSet other = FlushWorkingSet.begin( otherSessionImplementor, getGridDialect() );
+		assertThat( other ).isNotSameAs( outer );
+		assertThat( FlushWorkingSet.get( sessionImplementor ) ).isNull();
+		other.end();
+		otherSession.close();
+		assertThat( FlushWorkingSet.get( otherSessionImplementor ) ).isNull();
+		assertThat( FlushWorkingSet.get( sessionImplementor ) ).isSameAs( outer );
+
+		Tuple tuple = inner.getTuple( key, persister.getTupleContext() );
+		tuple.put( "name", "renamed" );
+		inner.tupleChanged( key, tuple );
+
+		CountingGridDialect.reset();
+		inner.end();
+		assertThat( CountingGridDialect.getUpdateTupleCount() ).as( "The inner flush should not write" ).isEqualTo( 0 );
+		assertThat( FlushWorkingSet.get( sessionImplementor ) ).isSameAs( outer );
+		outer.end();
+		assertThat( CountingGridDialect.getUpdateTupleCount() ).isEqualTo( 1 );
+		assertThat( FlushWorkingSet.get( sessionImplementor ) ).isNull();
+		transaction.commit();
+		session.close();
+
+		session = openSession();
+		transaction = session.beginTransaction();
+		Product product = (Product) session.get( Product.class, "p1" );
+		assertThat( product.getName() ).isEqualTo( "renamed" );
+		session.delete( product );
+		transaction.commit();
+		session.close();
+		checkCleanCache();
+	}
+
+	public void testElementTuplesAreWrittenOncePerFlush() throws Exception {
+		persistShop( "shop" );
+		persistProducts( "p1", "p2" );
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Shop shop = (Shop) session.get( Shop.class, "shop" );
+		shop.getProducts().add( (Product) session.get( Product.class, "p1" ) );
+		shop.getProducts().add( (Product) session.get( Product.class, "p2" ) );
+		CountingGridDialect.reset();
+		transaction.commit();
+		session.close();
+		assertThat( CountingGridDialect.getUpdateTupleCount() ).isEqualTo( 2 );
+
+		assertThat( foreignKeyOf( "p1" ) ).isEqualTo( "shop" );
+		assertThat( foreignKeyOf( "p2" ) ).isEqualTo( "shop" );
+		deleteShopAndProducts( "shop", "p1", "p2" );
+	}
+
+	public void testUpdateOfAnElementAddedToTheAssociationInTheSameFlush() throws Exception {
+		persistShop( "shop", "p1" );
+		persistProducts( "p2" );
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Shop shop = (Shop) session.get( Shop.class, "shop" );
+		Product product = (Product) session.get( Product.class, "p2" );
+		product.setName( "renamed" );
+		shop.getProducts().add( product );
+		transaction.commit();
+		session.close();
+
+		assertThat( foreignKeyOf( "p1" ) ).isEqualTo( "shop" );
+		assertThat( foreignKeyOf( "p2" ) ).isEqualTo( "shop" );
+		session = openSession();
+		transaction = session.beginTransaction();
+		shop = (Shop) session.get( Shop.class, "shop" );
+		assertThat( shop.getProducts() ).hasSize( 2 );
+		assertThat( ( (Product) session.get( Product.class, "p2" ) ).getName() ).isEqualTo( "renamed" );
+		transaction.commit();
+		session.close();
+
+		deleteShopAndProducts( "shop", "p1", "p2" );
+	}
+
+	public void testDeleteOfAnElementRemovedFromTheAssociationInTheSameFlush() throws Exception {
+		persistShop( "shop", "p1", "p2" );
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Shop shop = (Shop) session.get( Shop.class, "shop" );
+		Product product = (Product) session.get( Product.class, "p1" );
+		shop.getProducts().remove( product );
+		session.delete( product );
+		transaction.commit();
+		session.close();
+
+		//the foreign key written at the end of the flush must not bring the deleted tuple back
+		assertThat( assertNumberOfEntities( 2, sessions ) ).isTrue();
+		session = openSession();
+		transaction = session.beginTransaction();
+		assertThat( session.get( Product.class, "p1" ) ).isNull();
+		shop = (Shop) session.get( Shop.class, "shop" );
+		assertThat( shop.getProducts() ).hasSize( 1 );
+		transaction.commit();
+		session.close();
+
+		deleteShopAndProducts( "shop", "p2" );
+	}
+
+	public void testDeleteOfAnOwnerWhoseAssociationChangedInTheSameFlush() throws Exception {
+		persistShop( "shop", "p1", "p2" );
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Shop shop = (Shop) session.get( Shop.class, "shop" );
+		shop.getProducts().remove( session.get( Product.class, "p1" ) );
+		session.delete( shop );
+		transaction.commit();
+		session.close();
+
+		assertThat( assertNumberOfEntities( 2, sessions ) ).isTrue();
+		assertThat( foreignKeyOf( "p1" ) ).isNull();
+		assertThat( foreignKeyOf( "p2" ) ).isNull();
+
+		session = openSession();
+		transaction = session.beginTransaction();
+		assertThat( session.get( Shop.class, "shop" ) ).isNull();
+		session.delete( session.get( Product.class, "p1" ) );
+		session.delete( session.get( Product.class, "p2" ) );
+		transaction.commit();
+		session.close();
+		checkCleanCache();
+	}
+
+	private void persistShop(String shopId, String... productIds) {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Shop shop = new Shop();
+		shop.setId( shopId );
+		for ( String productId : productIds ) {
+			Product product = newProduct( productId );
+			session.persist( product );
+			shop.getProducts().add( product );
+		}
+		session.persist( shop );
+		transaction.commit();
+		session.close();
+	}
+
+	private void persistProducts(String... ids) {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( String id : ids ) {
+			session.persist( newProduct( id ) );
+		}
+		transaction.commit();
+		session.close();
+	}
+
+	private Product newProduct(String id) {
+		Product product = new Product();
+		product.setId( id );
+		product.setName( "Product " + id );
+		return product;
+	}
+
+	private void deleteShopAndProducts(String shopId, String... productIds) {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Shop shop = (Shop) session.get( Shop.class, shopId );
+		shop.getProducts().clear();
+		session.delete( shop );
+		for ( String productId : productIds ) {
+			session.delete( session.get( Product.class, productId ) );
+		}
+		transaction.commit();
+		session.close();
+		checkCleanCache();
+	}
+
+	private Object foreignKeyOf(String productId) {
+		Session session = openSession();
+		OgmEntityPersister persister = (OgmEntityPersister) sfi().getEntityPersister( Product.class.getName() );
+		EntityKey key = EntityKeyBuilder.fromPersister( persister, productId, (SessionImplementor) session );
+		session.close();
+		return extractEntityTuple( sessions, key ).get( "shop_id" );
+	}
+
+	private GridDialect getGridDialect() {
+		return sfi().getServiceRegistry().getService( DatastoreServices.class ).getGridDialect();
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( GridDialectFactory.GRID_DIALECT, CountingGridDialect.class.getName() );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Shop.class, Product.class };
+	}
+}
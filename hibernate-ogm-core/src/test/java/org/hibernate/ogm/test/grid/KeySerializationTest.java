@@ -0,0 +1,87 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.grid;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.RowKey;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * Checks the compact serialized form of the key classes.
+ */
+public class KeySerializationTest {
+
+	@Test
+	public void testEntityKeyRoundTrip() throws Exception {
+		EntityKey key = new EntityKey( "Product", new String[] { "id" }, new Object[] { 42L } );
+		EntityKey copy = (EntityKey) roundTrip( key );
+
+		assertThat( copy ).isEqualTo( key );
+		assertThat( copy.hashCode() ).isEqualTo( key.hashCode() );
+	}
+
+	@Test
+	public void testRowKeyRoundTripWithAllValueTypes() throws Exception {
+		Object[] values = new Object[] { "ref", 3, 42L, UUID.randomUUID(), null, new BigDecimal( "12.5" ) };
+		RowKey key = new RowKey( "Order_Line", new String[] { "a", "b", "c", "d", "e", "f" }, values );
+
+		assertThat( roundTrip( key ) ).isEqualTo( key );
+	}
+
+	@Test
+	public void testAssociationKeyRoundTrip() throws Exception {
+		AssociationKey key = new AssociationKey( "Order_Line", new String[] { "order_id" }, new Object[] { "o-1" } );
+
+		assertThat( roundTrip( key ) ).isEqualTo( key );
+	}
+
+	@Test
+	public void testDeserializedKeysShareColumnNames() throws Exception {
+		EntityKey first = (EntityKey) roundTrip( new EntityKey( "Product", new String[] { "id" }, new Object[] { 1L } ) );
+		EntityKey second = (EntityKey) roundTrip( new EntityKey( "Product", new String[] { "id" }, new Object[] { 2L } ) );
+
+		assertThat( first.getColumnNames() ).isSameAs( second.getColumnNames() );
+	}
+
+	private Object roundTrip(Object key) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream output = new ObjectOutputStream( bytes );
+		output.writeObject( key );
+		output.close();
+		ObjectInputStream input = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+		try {
+			return input.readObject();
+		}
+		finally {
+			input.close();
+		}
+	}
+}
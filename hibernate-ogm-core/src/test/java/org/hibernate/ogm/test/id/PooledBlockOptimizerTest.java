@@ -0,0 +1,115 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.id;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.ogm.id.impl.PooledBlockOptimizer;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * Checks the blocks handed out by {@link PooledBlockOptimizer}, using a source behaving like
+ * {@link org.hibernate.ogm.dialect.GridDialect#nextValue}.
+ */
+public class PooledBlockOptimizerTest {
+
+	@Test
+	public void testPooledLoUsesSourceValueAsLowerBound() throws Exception {
+		IncrementingSource source = new IncrementingSource( 1, 10 );
+		PooledBlockOptimizer optimizer = new PooledBlockOptimizer( Long.class, 10, 1, true );
+		for ( long expected = 1; expected <= 25; expected++ ) {
+			assertThat( optimizer.generate( source ) ).isEqualTo( expected );
+		}
+		assertThat( source.accessCount.get() ).isEqualTo( 3 );
+	}
+
+	@Test
+	public void testPooledStartsAtInitialValue() throws Exception {
+		IncrementingSource source = new IncrementingSource( 2, 10 );
+		PooledBlockOptimizer optimizer = new PooledBlockOptimizer( Long.class, 10, 2, false );
+		for ( long expected = 2; expected <= 21; expected++ ) {
+			assertThat( optimizer.generate( source ) ).isEqualTo( expected );
+		}
+		//the first block requires two accesses
+		assertThat( source.accessCount.get() ).isEqualTo( 3 );
+	}
+
+	@Test
+	public void testConcurrentGenerationDoesNotReturnDuplicates() throws Exception {
+		final IncrementingSource source = new IncrementingSource( 1, 50 );
+		final PooledBlockOptimizer optimizer = new PooledBlockOptimizer( Long.class, 50, 1, false );
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		try {
+			List<Future<List<Serializable>>> futures = new ArrayList<Future<List<Serializable>>>();
+			for ( int thread = 0; thread < 4; thread++ ) {
+				futures.add( executor.submit( new Callable<List<Serializable>>() {
+					@Override
+					public List<Serializable> call() throws Exception {
+						List<Serializable> ids = new ArrayList<Serializable>();
+						for ( int i = 0; i < 1000; i++ ) {
+							ids.add( optimizer.generate( source ) );
+						}
+						return ids;
+					}
+				} ) );
+			}
+			Set<Serializable> allIds = new HashSet<Serializable>();
+			for ( Future<List<Serializable>> future : futures ) {
+				allIds.addAll( future.get() );
+			}
+			assertThat( allIds ).hasSize( 4000 );
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	private static class IncrementingSource implements AccessCallback {
+		private final AtomicLong value;
+		private final int increment;
+		private final AtomicLong accessCount = new AtomicLong();
+
+		IncrementingSource(long initialValue, int increment) {
+			this.value = new AtomicLong( initialValue - increment );
+			this.increment = increment;
+		}
+
+		@Override
+		public IntegralDataTypeHolder getNextValue() {
+			accessCount.incrementAndGet();
+			return IdentifierGeneratorHelper.getIntegralDataTypeHolder( Long.class ).initialize( value.addAndGet( increment ) );
+		}
+	}
+}
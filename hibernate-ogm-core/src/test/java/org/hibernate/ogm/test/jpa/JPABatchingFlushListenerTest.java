@@ -0,0 +1,86 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.jpa;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.ejb.HibernateEntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.ogm.dialect.impl.BatchingAutoFlushEventListener;
+import org.hibernate.ogm.dialect.impl.BatchingFlushEventListener;
+import org.hibernate.ogm.test.utils.jpa.JpaTestCase;
+import org.junit.Test;
+
+/**
+ * Checks that the flush listeners registered by the JPA integrator are wrapped by the batching ones.
+ */
+public class JPABatchingFlushListenerTest extends JpaTestCase {
+
+	@Test
+	public void testFlushListenersAreWrappedWithJPA() throws Exception {
+		SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) ( (HibernateEntityManagerFactory) getFactory() )
+				.getSessionFactory();
+		EventListenerRegistry eventListenerRegistry = sessionFactory.getServiceRegistry().getService( EventListenerRegistry.class );
+
+		List<Object> flushListeners = listeners( eventListenerRegistry, EventType.FLUSH );
+		assertThat( flushListeners ).hasSize( 1 );
+		assertThat( flushListeners.get( 0 ) ).isInstanceOf( BatchingFlushEventListener.class );
+		List<Object> autoFlushListeners = listeners( eventListenerRegistry, EventType.AUTO_FLUSH );
+		assertThat( autoFlushListeners ).hasSize( 1 );
+		assertThat( autoFlushListeners.get( 0 ) ).isInstanceOf( BatchingAutoFlushEventListener.class );
+
+		getTransactionManager().begin();
+		EntityManager em = getFactory().createEntityManager();
+		Poem poem = new Poem();
+		poem.setName( "Le bateau ivre" );
+		em.persist( poem );
+		em.flush();
+		getTransactionManager().commit();
+		em.clear();
+
+		getTransactionManager().begin();
+		poem = em.find( Poem.class, poem.getId() );
+		assertThat( poem.getName() ).isEqualTo( "Le bateau ivre" );
+		em.remove( poem );
+		getTransactionManager().commit();
+		em.close();
+	}
+
+	private static List<Object> listeners(EventListenerRegistry eventListenerRegistry, EventType<?> eventType) {
+		List<Object> listeners = new ArrayList<Object>();
+		for ( Object listener : eventListenerRegistry.getEventListenerGroup( eventType ).listeners() ) {
+			listeners.add( listener );
+		}
+		return listeners;
+	}
+
+	@Override
+	public Class<?>[] getEntities() {
+		return new Class<?>[] { Poem.class };
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.loading;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.ogm.datastore.impl.DatastoreServices;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.impl.GridDialectFactory;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.persister.EntityKeyBuilder;
+import org.hibernate.ogm.persister.OgmEntityPersister;
+import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+import org.hibernate.ogm.test.utils.CountingGridDialect;
+
+/**
+ * Checks that the entities waiting in the batch fetch queue are read with a single {@link GridDialect#getTuples} call.
+ */
+public class BatchLoadingTest extends OgmTestCase {
+
+	public void testGetTuplesKeepsTheOrderOfTheKeys() throws Exception {
+		persistTowers( "eiffel", "pisa", "babel" );
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		OgmEntityPersister persister = (OgmEntityPersister) sfi().getEntityPersister( Tower.class.getName() );
+		List<EntityKey> keys = Arrays.asList(
+				EntityKeyBuilder.fromPersister( persister, "pisa", (SessionImplementor) session ),
+				EntityKeyBuilder.fromPersister( persister, "missing", (SessionImplementor) session ),
+				EntityKeyBuilder.fromPersister( persister, "eiffel", (SessionImplementor) session )
+		);
+		List<Tuple> tuples = getGridDialect().getTuples( keys, persister.getTupleContext() );
+		assertThat( tuples ).hasSize( 3 );
+		assertThat( tuples.get( 0 ).get( "name" ) ).isEqualTo( "Tower pisa" );
+		assertThat( tuples.get( 1 ) ).as( "A missing key should come back as null" ).isNull();
+		assertThat( tuples.get( 2 ).get( "name" ) ).isEqualTo( "Tower eiffel" );
+		transaction.commit();
+		session.close();
+
+		deleteTowers( "eiffel", "pisa", "babel" );
+	}
+
+	public void testProxiesAreInitializedInOneBatch() throws Exception {
+		persistTowers( "eiffel", "pisa", "babel" );
+
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Tower eiffel = (Tower) session.load( Tower.class, "eiffel" );
+		Tower pisa = (Tower) session.load( Tower.class, "pisa" );
+		Tower babel = (Tower) session.load( Tower.class, "babel" );
+		CountingGridDialect.reset();
+		assertThat( pisa.getName() ).isEqualTo( "Tower pisa" );
+		assertThat( Hibernate.isInitialized( eiffel ) ).isTrue();
+		assertThat( Hibernate.isInitialized( babel ) ).isTrue();
+		assertThat( eiffel.getName() ).isEqualTo( "Tower eiffel" );
+		assertThat( babel.getName() ).isEqualTo( "Tower babel" );
+		assertThat( CountingGridDialect.getTuplesCount() ).isEqualTo( 1 );
+		assertThat( CountingGridDialect.getTupleCount() ).isEqualTo( 0 );
+		transaction.commit();
+		session.close();
+
+		deleteTowers( "eiffel", "pisa", "babel" );
+	}
+
+	private void persistTowers(String... ids) {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( String id : ids ) {
+			Tower tower = new Tower();
+			tower.setId( id );
+			tower.setName( "Tower " + id );
+			session.persist( tower );
+		}
+		transaction.commit();
+		session.close();
+	}
+
+	private void deleteTowers(String... ids) {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( String id : ids ) {
+			session.delete( session.load( Tower.class, id ) );
+		}
+		transaction.commit();
+		session.close();
+		checkCleanCache();
+	}
+
+	private GridDialect getGridDialect() {
+		return sfi().getServiceRegistry().getService( DatastoreServices.class ).getGridDialect();
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( GridDialectFactory.GRID_DIALECT, CountingGridDialect.class.getName() );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Tower.class };
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.loading;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.cfg.OgmConfiguration;
+import org.hibernate.ogm.dialect.impl.GridDialectFactory;
+import org.hibernate.ogm.test.associations.collection.unidirectional.Cloud;
+import org.hibernate.ogm.test.associations.collection.unidirectional.SnowFlake;
+import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+import org.hibernate.ogm.test.utils.CountingGridDialect;
+
+/**
+ * Checks that the element entities of a collection are read in bulk when it is initialized, in chunks of
+ * {@link OgmConfiguration#ELEMENT_BATCH_FETCH_SIZE} entities.
+ */
+public class ElementBatchFetchTest extends OgmTestCase {
+
+	private static final int NUMBER_OF_ELEMENTS = 5;
+
+	public void testElementsAreReadWhenTheCollectionIsInitialized() throws Exception {
+		Session session = openSession();
+		Cloud cloud = persistCloud( session );
+
+		Transaction transaction = session.beginTransaction();
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		CountingGridDialect.reset();
+		Hibernate.initialize( cloud.getProducedSnowFlakes() );
+		assertThat( CountingGridDialect.getTuplesCount() ).isEqualTo( getExpectedGetTuplesCalls() );
+		assertThat( CountingGridDialect.getTupleCount() ).isEqualTo( getExpectedGetTupleCalls() );
+		assertThat( cloud.getProducedSnowFlakes() ).hasSize( NUMBER_OF_ELEMENTS );
+		for ( SnowFlake snowFlake : cloud.getProducedSnowFlakes() ) {
+			assertThat( snowFlake.getDescription() ).startsWith( "Snowflake " );
+		}
+		transaction.commit();
+		session.clear();
+
+		deleteCloud( session, cloud.getId() );
+		session.close();
+		checkCleanCache();
+	}
+
+	public void testElementsInThePersistenceContextAreNotReadAgain() throws Exception {
+		Session session = openSession();
+		Cloud cloud = persistCloud( session );
+		List<String> snowFlakeIds = new ArrayList<String>();
+		for ( SnowFlake snowFlake : cloud.getProducedSnowFlakes() ) {
+			snowFlakeIds.add( snowFlake.getId() );
+		}
+
+		Transaction transaction = session.beginTransaction();
+		session.get( SnowFlake.class, snowFlakeIds.get( 0 ) );
+		session.get( SnowFlake.class, snowFlakeIds.get( 1 ) );
+		cloud = (Cloud) session.get( Cloud.class, cloud.getId() );
+		CountingGridDialect.reset();
+		Hibernate.initialize( cloud.getProducedSnowFlakes() );
+		assertThat( CountingGridDialect.getTuplesKeyCount() + CountingGridDialect.getTupleCount() )
+				.as( "Each element not yet in the persistence context is read once, whatever the chunk it is in" )
+				.isEqualTo( NUMBER_OF_ELEMENTS - 2 );
+		assertThat( cloud.getProducedSnowFlakes() ).hasSize( NUMBER_OF_ELEMENTS );
+		transaction.commit();
+		session.clear();
+
+		deleteCloud( session, cloud.getId() );
+		session.close();
+		checkCleanCache();
+	}
+
+	private Cloud persistCloud(Session session) {
+		Transaction transaction = session.beginTransaction();
+		Cloud cloud = new Cloud();
+		cloud.setType( "cumulus" );
+		for ( int i = 0; i < NUMBER_OF_ELEMENTS; i++ ) {
+			SnowFlake snowFlake = new SnowFlake();
+			snowFlake.setDescription( "Snowflake " + i );
+			session.persist( snowFlake );
+			cloud.getProducedSnowFlakes().add( snowFlake );
+		}
+		session.persist( cloud );
+		transaction.commit();
+		session.clear();
+		return cloud;
+	}
+
+	private void deleteCloud(Session session, String cloudId) {
+		Transaction transaction = session.beginTransaction();
+		Cloud cloud = (Cloud) session.get( Cloud.class, cloudId );
+		for ( SnowFlake snowFlake : cloud.getProducedSnowFlakes() ) {
+			session.delete( snowFlake );
+		}
+		cloud.getProducedSnowFlakes().clear();
+		session.delete( cloud );
+		transaction.commit();
+	}
+
+	/**
+	 * @return the value of {@link OgmConfiguration#ELEMENT_BATCH_FETCH_SIZE}, {@code null} for the default one
+	 */
+	protected Integer getElementBatchFetchSize() {
+		return null;
+	}
+
+	private int getExpectedGetTuplesCalls() {
+		Integer batchSize = getElementBatchFetchSize();
+		if ( batchSize == null ) {
+			return 1;
+		}
+		else if ( batchSize == 1 ) {
+			return 0;
+		}
+		else {
+			return ( NUMBER_OF_ELEMENTS + batchSize - 1 ) / batchSize;
+		}
+	}
+
+	private int getExpectedGetTupleCalls() {
+		Integer batchSize = getElementBatchFetchSize();
+		return batchSize != null && batchSize == 1 ? NUMBER_OF_ELEMENTS : 0;
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( GridDialectFactory.GRID_DIALECT, CountingGridDialect.class.getName() );
+		if ( getElementBatchFetchSize() != null ) {
+			cfg.setProperty( OgmConfiguration.ELEMENT_BATCH_FETCH_SIZE, getElementBatchFetchSize().toString() );
+		}
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Cloud.class, SnowFlake.class };
+	}
+}
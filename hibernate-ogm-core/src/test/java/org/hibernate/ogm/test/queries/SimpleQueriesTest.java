@@ -22,12 +22,20 @@
 
 import static org.fest.assertions.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.service.impl.LuceneBasedQueryParserService;
+import org.hibernate.ogm.service.impl.QueryParserService;
 import org.hibernate.ogm.test.utils.SessionFactoryRule;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
@@ -97,6 +105,71 @@ public void testParametricQueries() throws Exception {
 		session.close();
 	}
 
+	@Test
+	public void testQueryPlanIsReusedWithDifferentParameters() throws Exception {
+		final Session session = sessions.openSession();
+		LuceneBasedQueryParserService queryParserService = (LuceneBasedQueryParserService) ( (SessionFactoryImplementor) sessions.getSessionFactory() )
+				.getServiceRegistry()
+				.getService( QueryParserService.class );
+		final String queryString = "from Hypothesis h where h.description = :description";
+
+		assertQuery( session, 1, session.createQuery( queryString ).setString( "description", "stuff works" ) );
+		long hitCount = queryParserService.getQueryPlanCacheHitCount();
+		assertQuery( session, 0, session.createQuery( queryString ).setString( "description", "nothing works" ) );
+		assertThat( queryParserService.getQueryPlanCacheHitCount() ).isEqualTo( hitCount + 1 );
+		session.close();
+	}
+
+	@Test
+	public void testCachedQueryPlansAreExecutedConcurrently() throws Exception {
+		final String parametricQuery = "from Hypothesis h where h.description = :description";
+		final String constantQuery = "from Hypothesis h where h.description = 'stuff works'";
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		try {
+			List<Future<Integer>> parametricResults = new ArrayList<Future<Integer>>();
+			List<Future<Integer>> constantResults = new ArrayList<Future<Integer>>();
+			for ( int i = 0; i < 50; i++ ) {
+				final String description = i % 2 == 0 ? "stuff works" : "nothing works";
+				parametricResults.add( executor.submit( new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						return countResults( parametricQuery, description );
+					}
+				} ) );
+				constantResults.add( executor.submit( new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						return countResults( constantQuery, null );
+					}
+				} ) );
+			}
+			for ( int i = 0; i < parametricResults.size(); i++ ) {
+				assertThat( parametricResults.get( i ).get() ).as( "Execution " + i ).isEqualTo( i % 2 == 0 ? 1 : 0 );
+				assertThat( constantResults.get( i ).get() ).as( "Execution " + i ).isEqualTo( 1 );
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static int countResults(String queryString, String description) {
+		Session session = sessions.getSessionFactory().openSession();
+		try {
+			Transaction transaction = session.beginTransaction();
+			Query query = session.createQuery( queryString );
+			if ( description != null ) {
+				query.setString( "description", description );
+			}
+			int size = query.list().size();
+			transaction.commit();
+			return size;
+		}
+		finally {
+			session.close();
+		}
+	}
+
 	private void assertQuery(final Session session, final int expectedSize, final Query testedQuery) {
 		Transaction transaction = session.beginTransaction();
 		List list = testedQuery.list();
@@ -20,8 +20,12 @@
  */
 package org.hibernate.ogm.test.simpleentity;
 
+import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.ogm.datastore.impl.DatastoreServices;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.grid.EntityKey;
 
 /**
  * @author Emmanuel Bernard
@@ -73,6 +77,68 @@ public void testSimpleCRUD() throws Exception {
 		session.close();
 	}
 
+	public void testInsertOfAnAlreadyExistingEntityFails() throws Exception {
+		Session session = openSession();
+
+		Transaction transaction = session.beginTransaction();
+		Hypothesis hyp = new Hypothesis();
+		hyp.setId( "1234567890" );
+		hyp.setDescription( "NP != P" );
+		session.persist( hyp );
+		transaction.commit();
+		session.close();
+
+		session = openSession();
+		transaction = session.beginTransaction();
+		Hypothesis duplicate = new Hypothesis();
+		duplicate.setId( hyp.getId() );
+		duplicate.setDescription( "P = NP" );
+		session.persist( duplicate );
+		try {
+			session.flush();
+			fail( "Inserting an entity whose tuple already exists should fail" );
+		}
+		catch ( HibernateException e ) {
+			//expected
+		}
+		finally {
+			transaction.rollback();
+			session.close();
+		}
+
+		session = openSession();
+		transaction = session.beginTransaction();
+		Hypothesis loadedHyp = (Hypothesis) session.get( Hypothesis.class, hyp.getId() );
+		assertEquals( "The existing tuple should not be overwritten", hyp.getDescription(), loadedHyp.getDescription() );
+		session.delete( loadedHyp );
+		transaction.commit();
+		session.close();
+	}
+
+	public void testInsertOfAnEntitySpanningSeveralTables() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Sonnet sonnet = new Sonnet();
+		sonnet.setId( "18" );
+		sonnet.setTitle( "Shall I compare thee to a summer's day?" );
+		sonnet.setAuthor( "William Shakespeare" );
+		session.persist( sonnet );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		Sonnet loadedSonnet = (Sonnet) session.get( Sonnet.class, sonnet.getId() );
+		assertNotNull( loadedSonnet );
+		assertEquals( sonnet.getTitle(), loadedSonnet.getTitle() );
+		assertEquals( sonnet.getAuthor(), loadedSonnet.getAuthor() );
+		transaction.commit();
+		session.close();
+
+		//the persister does not delete entities spanning several tables yet
+		GridDialect gridDialect = sfi().getServiceRegistry().getService( DatastoreServices.class ).getGridDialect();
+		gridDialect.removeTuple( new EntityKey( "Sonnet", new String[] { "id" }, new Object[] { sonnet.getId() } ) );
+	}
+
 	private void performanceLoop() throws Exception {
 		long start = 0;
 		for ( int i = 0; i < Integer.MAX_VALUE; i++ ) {
@@ -119,7 +185,8 @@ public void testGeneratedValue() throws Exception {
 	protected Class<?>[] getAnnotatedClasses() {
 		return new Class<?>[] {
 				Hypothesis.class,
-				Helicopter.class
+				Helicopter.class,
+				Sonnet.class
 		};
 	}
 }
@@ -0,0 +1,151 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.utils;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.AssociationContext;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.dialect.GridDialectLogger;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.EntityKey;
+
+/**
+ * Wraps the default dialect of the datastore and counts the reads and the writes sent to it.
+ *
+ * Enable it by setting {@link org.hibernate.ogm.dialect.impl.GridDialectFactory#GRID_DIALECT} to this class
+ * and call {@link #reset()} before the operations to count. The counters are static as the dialect is instantiated
+ * by the session factory.
+ */
+public class CountingGridDialect extends GridDialectLogger {
+
+	private static final AtomicInteger getTupleCount = new AtomicInteger();
+	private static final AtomicInteger getTuplesCount = new AtomicInteger();
+	private static final AtomicInteger getTuplesKeyCount = new AtomicInteger();
+	private static final AtomicInteger getAssociationCount = new AtomicInteger();
+	private static final AtomicInteger updateTupleCount = new AtomicInteger();
+	private static final AtomicInteger updateAssociationCount = new AtomicInteger();
+
+	public CountingGridDialect(DatastoreProvider provider) {
+		super( instantiateDefaultDialect( provider ) );
+	}
+
+	public static void reset() {
+		getTupleCount.set( 0 );
+		getTuplesCount.set( 0 );
+		getTuplesKeyCount.set( 0 );
+		getAssociationCount.set( 0 );
+		updateTupleCount.set( 0 );
+		updateAssociationCount.set( 0 );
+	}
+
+	public static int getTupleCount() {
+		return getTupleCount.get();
+	}
+
+	public static int getTuplesCount() {
+		return getTuplesCount.get();
+	}
+
+	/**
+	 * @return the number of keys passed to {@link #getTuples(List, TupleContext)} over all its calls
+	 */
+	public static int getTuplesKeyCount() {
+		return getTuplesKeyCount.get();
+	}
+
+	public static int getAssociationCount() {
+		return getAssociationCount.get();
+	}
+
+	public static int getUpdateTupleCount() {
+		return updateTupleCount.get();
+	}
+
+	public static int getUpdateAssociationCount() {
+		return updateAssociationCount.get();
+	}
+
+	@Override
+	public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
+		getTupleCount.incrementAndGet();
+		return super.getTuple( key, tupleContext );
+	}
+
+	@Override
+	public List<Tuple> getTuples(List<EntityKey> keys, TupleContext tupleContext) {
+		getTuplesCount.incrementAndGet();
+		getTuplesKeyCount.addAndGet( keys.size() );
+		return super.getTuples( keys, tupleContext );
+	}
+
+	@Override
+	public Association getAssociation(AssociationKey key, AssociationContext associationContext) {
+		getAssociationCount.incrementAndGet();
+		return super.getAssociation( key, associationContext );
+	}
+
+	@Override
+	public void updateTuple(Tuple tuple, EntityKey key) {
+		updateTupleCount.incrementAndGet();
+		super.updateTuple( tuple, key );
+	}
+
+	@Override
+	public void updateAssociation(Association association, AssociationKey key) {
+		updateAssociationCount.incrementAndGet();
+		super.updateAssociation( association, key );
+	}
+
+	@Override
+	public Future<Void> updateTupleAsync(Tuple tuple, EntityKey key) {
+		updateTupleCount.incrementAndGet();
+		return super.updateTupleAsync( tuple, key );
+	}
+
+	@Override
+	public Future<Void> updateAssociationAsync(Association association, AssociationKey key) {
+		updateAssociationCount.incrementAndGet();
+		return super.updateAssociationAsync( association, key );
+	}
+
+	private static GridDialect instantiateDefaultDialect(DatastoreProvider provider) {
+		try {
+			for ( Constructor<?> constructor : provider.getDefaultDialect().getConstructors() ) {
+				Class<?>[] parameterTypes = constructor.getParameterTypes();
+				if ( parameterTypes.length == 1 && parameterTypes[0].isInstance( provider ) ) {
+					return (GridDialect) constructor.newInstance( provider );
+				}
+			}
+		}
+		catch ( Exception e ) {
+			throw new RuntimeException( "Unable to instantiate the default dialect of " + provider, e );
+		}
+		throw new IllegalStateException( "No dialect constructor accepting " + provider );
+	}
+}
@@ -27,6 +27,7 @@
 
 import javax.transaction.TransactionManager;
 
+import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.config.Configuration;
 import net.sf.ehcache.config.ConfigurationFactory;
@@ -34,7 +35,8 @@
 import net.sf.ehcache.transaction.manager.TransactionManagerLookup;
 import net.sf.ehcache.transaction.xa.EhcacheXAResource;
 
-import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.datastore.spi.CacheBackedDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DefaultDatastoreNames;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.dialect.ehcache.EhcacheDialect;
 import org.hibernate.service.jta.platform.spi.JtaPlatform;
@@ -47,7 +49,7 @@
 /**
  * @author Alex Snaps
  */
-public class EhcacheDatastoreProvider implements DatastoreProvider, Startable, Stoppable,
+public class EhcacheDatastoreProvider implements CacheBackedDatastoreProvider, Startable, Stoppable,
 		ServiceRegistryAwareService, Configurable {
 
 	public static final String EHCACHE_CONFIG = "hibernate.ogm.ehcache.configuration_resourcename";
@@ -66,6 +68,20 @@ public Class<? extends GridDialect> getDefaultDialect() {
 		return EhcacheDialect.class;
 	}
 
+	/**
+	 * The data is only held by the local node as long as the caches are not clustered with Terracotta
+	 */
+	@Override
+	public boolean isDataHeldLocally() {
+		return !isTerracottaClustered( DefaultDatastoreNames.ENTITY_STORE )
+				&& !isTerracottaClustered( DefaultDatastoreNames.ASSOCIATION_STORE );
+	}
+
+	private boolean isTerracottaClustered(String cacheName) {
+		Cache cache = cacheManager.getCache( cacheName );
+		return cache != null && cache.getCacheConfiguration().isTerracottaClustered();
+	}
+
 	@Override
 	public void injectServices(ServiceRegistryImplementor serviceRegistryImplementor) {
 		this.jtaPlatform = serviceRegistryImplementor.getService( JtaPlatform.class );
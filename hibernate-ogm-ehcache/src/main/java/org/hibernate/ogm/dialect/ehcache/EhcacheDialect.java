@@ -20,7 +20,9 @@
  */
 package org.hibernate.ogm.dialect.ehcache;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import net.sf.ehcache.Cache;
@@ -47,6 +49,8 @@
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.type.GridType;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.persister.entity.Lockable;
 import org.hibernate.type.Type;
 
@@ -55,6 +59,8 @@
  */
 public class EhcacheDialect implements GridDialect {
 
+	private static final Log log = LoggerFactory.make();
+
 	EhcacheDatastoreProvider datastoreProvider;
 
 	public EhcacheDialect(EhcacheDatastoreProvider datastoreProvider) {
@@ -87,7 +93,7 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
 		final Cache entityCache = getEntityCache();
 		final Element element = entityCache.get( key );
 		if ( element != null ) {
-			return new Tuple( new MapTupleSnapshot( (Map<String, Object>) element.getValue() ) );
+			return new Tuple( new MapTupleSnapshot( (Map<String, Object>) element.getValue() ), tupleContext );
 		}
 		else {
 			return null;
@@ -95,11 +101,27 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
 	}
 
 	@Override
-	public Tuple createTuple(EntityKey key) {
+	public List<Tuple> getTuples(List<EntityKey> keys, TupleContext tupleContext) {
+		final Map<Object, Element> elements = getEntityCache().getAll( keys );
+		final List<Tuple> tuples = new ArrayList<Tuple>( keys.size() );
+		for ( EntityKey key : keys ) {
+			final Element element = elements.get( key );
+			if ( element != null ) {
+				tuples.add( new Tuple( new MapTupleSnapshot( (Map<String, Object>) element.getValue() ), tupleContext ) );
+			}
+			else {
+				tuples.add( null );
+			}
+		}
+		return tuples;
+	}
+
+	@Override
+	public Tuple createTuple(EntityKey key, TupleContext tupleContext) {
 		final Cache entityCache = getEntityCache();
 		final HashMap<String, Object> tuple = new HashMap<String, Object>();
 		entityCache.put( new Element( key, tuple ) );
-		return new Tuple( new MapTupleSnapshot( tuple ) );
+		return new Tuple( new MapTupleSnapshot( tuple ), tupleContext );
 	}
 
 	@Override
@@ -108,6 +130,15 @@ public void updateTuple(Tuple tuple, EntityKey key) {
 		MapHelpers.applyTupleOpsOnMap( tuple, entityRecord );
 	}
 
+	@Override
+	public void insertTuple(Tuple tuple, EntityKey key) {
+		final HashMap<String, Object> entityRecord = new HashMap<String, Object>();
+		MapHelpers.applyTupleOpsOnMap( tuple, entityRecord );
+		if ( getEntityCache().putIfAbsent( new Element( key, entityRecord ) ) != null ) {
+			throw log.tupleAlreadyExists( key );
+		}
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		getEntityCache().remove( key );
@@ -125,6 +156,28 @@ public Association getAssociation(AssociationKey key, AssociationContext associa
 		}
 	}
 
+	@Override
+	public int getAssociationSize(AssociationKey key) {
+		final Element element = getAssociationCache().get( key );
+		return element == null ? 0 : ( (Map) element.getValue() ).size();
+	}
+
+	@Override
+	public boolean containsRow(AssociationKey key, RowKey rowKey) {
+		final Element element = getAssociationCache().get( key );
+		return element != null && ( (Map) element.getValue() ).containsKey( rowKey );
+	}
+
+	@Override
+	public Tuple getRow(AssociationKey key, RowKey rowKey) {
+		final Element element = getAssociationCache().get( key );
+		if ( element == null ) {
+			return null;
+		}
+		Map<String, Object> row = (Map<String, Object>) ( (Map) element.getValue() ).get( rowKey );
+		return row == null ? null : new Tuple( new MapTupleSnapshot( row ) );
+	}
+
 	@Override
 	public Association createAssociation(AssociationKey key) {
 		final Cache associationCache = getAssociationCache();
@@ -26,7 +26,11 @@
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.hibernate.HibernateException;
-import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.datastore.infinispan.impl.externalizer.AssociationKeyExternalizer;
+import org.hibernate.ogm.datastore.infinispan.impl.externalizer.AssociationRowExternalizer;
+import org.hibernate.ogm.datastore.infinispan.impl.externalizer.EntityKeyExternalizer;
+import org.hibernate.ogm.datastore.infinispan.impl.externalizer.RowKeyExternalizer;
+import org.hibernate.ogm.datastore.spi.CacheBackedDatastoreProvider;
 import org.hibernate.ogm.datastore.spi.DefaultDatastoreNames;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.dialect.infinispan.InfinispanDialect;
@@ -41,8 +45,12 @@
 import org.hibernate.service.spi.Startable;
 import org.hibernate.service.spi.Stoppable;
 import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.configuration.parsing.ConfigurationBuilderHolder;
+import org.infinispan.configuration.parsing.ParserRegistry;
 import org.infinispan.manager.DefaultCacheManager;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.util.FileLookupFactory;
@@ -55,7 +63,7 @@
  * @author Sanne Grinovero
  * @author Emmanuel Bernard <emmanuel@hibernate.org>
  */
-public class InfinispanDatastoreProvider implements DatastoreProvider, Startable, Stoppable,
+public class InfinispanDatastoreProvider implements CacheBackedDatastoreProvider, Startable, Stoppable,
 													ServiceRegistryAwareService, Configurable {
 
 	private JtaPlatform jtaPlatform;
@@ -70,6 +78,20 @@ public Class<? extends GridDialect> getDefaultDialect() {
 		return InfinispanDialect.class;
 	}
 
+	/**
+	 * A local or replicated cache holds all the entries on every node, a distributed cache may have to fetch them
+	 * from a remote owner and an invalidation cache only holds what the node loaded itself
+	 */
+	@Override
+	public boolean isDataHeldLocally() {
+		return isHeldLocally( DefaultDatastoreNames.ENTITY_STORE ) && isHeldLocally( DefaultDatastoreNames.ASSOCIATION_STORE );
+	}
+
+	private boolean isHeldLocally(String cacheName) {
+		CacheMode cacheMode = getCache( cacheName ).getCacheConfiguration().clustering().cacheMode();
+		return cacheMode == CacheMode.LOCAL || cacheMode.isReplicated();
+	}
+
 	/**
 	 * The configuration property to use as key to define a custom configuration for Infinispan.
 	 */
@@ -148,7 +170,9 @@ private EmbeddedCacheManager createCustomCacheManager(String cfgName, JtaPlatfor
 		try {
 			InputStream configurationFile = FileLookupFactory.newInstance().lookupFileStrict( cfgName, contextClassLoader );
 			try {
-				cacheManager = new DefaultCacheManager( configurationFile, false );
+				ConfigurationBuilderHolder configurationBuilderHolder = new ParserRegistry( contextClassLoader ).parse( configurationFile );
+				addExternalizers( configurationBuilderHolder.getGlobalConfigurationBuilder() );
+				cacheManager = new DefaultCacheManager( configurationBuilderHolder, false );
 				// override the named cache configuration defined in the configuration file to
 				// inject the platform TransactionManager
 				for (String cacheName : cacheManager.getCacheNames() ) {
@@ -176,6 +200,18 @@ private EmbeddedCacheManager createCustomCacheManager(String cfgName, JtaPlatfor
 		}
 	}
 
+	/**
+	 * Register the externalizers of the OGM types stored in the caches. A CacheManager looked up
+	 * via JNDI must declare them in its own configuration.
+	 */
+	public static void addExternalizers(GlobalConfigurationBuilder globalConfigurationBuilder) {
+		globalConfigurationBuilder.serialization()
+				.addAdvancedExternalizer( new EntityKeyExternalizer() )
+				.addAdvancedExternalizer( new RowKeyExternalizer() )
+				.addAdvancedExternalizer( new AssociationKeyExternalizer() )
+				.addAdvancedExternalizer( new AssociationRowExternalizer() );
+	}
+
 	public EmbeddedCacheManager getEmbeddedCacheManager() {
 		return cacheManager;
 	}
@@ -0,0 +1,60 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.infinispan.impl.externalizer;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Set;
+
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.impl.KeyMarshallingHelper;
+import org.infinispan.marshall.AdvancedExternalizer;
+
+/**
+ * Marshals {@link AssociationKey}s in the compact form of {@link KeyMarshallingHelper}.
+ */
+public class AssociationKeyExternalizer implements AdvancedExternalizer<AssociationKey> {
+
+	private static final Set<Class<? extends AssociationKey>> TYPE_CLASSES =
+			Collections.<Class<? extends AssociationKey>>singleton( AssociationKey.class );
+
+	@Override
+	public void writeObject(ObjectOutput output, AssociationKey key) throws IOException {
+		KeyMarshallingHelper.writeAssociationKey( output, key );
+	}
+
+	@Override
+	public AssociationKey readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+		return KeyMarshallingHelper.readAssociationKey( input );
+	}
+
+	@Override
+	public Set<Class<? extends AssociationKey>> getTypeClasses() {
+		return TYPE_CLASSES;
+	}
+
+	@Override
+	public Integer getId() {
+		return ExternalizerIds.ASSOCIATION_KEY;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.infinispan.impl.externalizer;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Set;
+
+import org.hibernate.ogm.datastore.impl.AssociationRow;
+import org.infinispan.marshall.AdvancedExternalizer;
+
+/**
+ * Marshals {@link AssociationRow}s without going through Java serialization.
+ *
+ * The column names array is written as an object so that the rows of an association
+ * sharing the same array are sent once per stream and shared again once read.
+ */
+public class AssociationRowExternalizer implements AdvancedExternalizer<AssociationRow> {
+
+	private static final Set<Class<? extends AssociationRow>> TYPE_CLASSES =
+			Collections.<Class<? extends AssociationRow>>singleton( AssociationRow.class );
+
+	@Override
+	public void writeObject(ObjectOutput output, AssociationRow row) throws IOException {
+		output.writeObject( row.getColumns() );
+		for ( Object value : row.getValues() ) {
+			output.writeObject( value );
+		}
+	}
+
+	@Override
+	public AssociationRow readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+		String[] columns = (String[]) input.readObject();
+		Object[] values = new Object[columns.length];
+		for ( int index = 0; index < values.length; index++ ) {
+			values[index] = input.readObject();
+		}
+		return new AssociationRow( columns, values );
+	}
+
+	@Override
+	public Set<Class<? extends AssociationRow>> getTypeClasses() {
+		return TYPE_CLASSES;
+	}
+
+	@Override
+	public Integer getId() {
+		return ExternalizerIds.ASSOCIATION_ROW;
+	}
+}
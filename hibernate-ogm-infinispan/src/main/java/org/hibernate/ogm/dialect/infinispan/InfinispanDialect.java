@@ -24,8 +24,15 @@
 import static org.hibernate.ogm.datastore.spi.DefaultDatastoreNames.ENTITY_STORE;
 import static org.hibernate.ogm.datastore.spi.DefaultDatastoreNames.IDENTIFIER_STORE;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+
 import org.hibernate.LockMode;
 import org.hibernate.dialect.lock.LockingStrategy;
 import org.hibernate.dialect.lock.OptimisticForceIncrementLockingStrategy;
@@ -34,30 +41,38 @@
 import org.hibernate.id.IntegralDataTypeHolder;
 import org.hibernate.ogm.datastore.impl.EmptyTupleSnapshot;
 import org.hibernate.ogm.datastore.impl.MapHelpers;
+import org.hibernate.ogm.datastore.impl.MapTupleSnapshot;
 import org.hibernate.ogm.datastore.infinispan.impl.InfinispanDatastoreProvider;
 import org.hibernate.ogm.datastore.map.impl.MapAssociationSnapshot;
 import org.hibernate.ogm.datastore.spi.Association;
 import org.hibernate.ogm.datastore.spi.AssociationContext;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.datastore.spi.TupleOperation;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.RowKey;
 import org.hibernate.ogm.type.GridType;
+import org.hibernate.ogm.util.impl.Log;
+import org.hibernate.ogm.util.impl.LoggerFactory;
 import org.hibernate.persister.entity.Lockable;
 import org.hibernate.type.Type;
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
 import org.infinispan.atomic.AtomicMapLookup;
 import org.infinispan.atomic.FineGrainedAtomicMap;
+import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.context.Flag;
+import org.infinispan.transaction.LockingMode;
 
 /**
  * @author Emmanuel Bernard
  */
 public class InfinispanDialect implements GridDialect {
 
+	private static final Log log = LoggerFactory.make();
+
 	private final InfinispanDatastoreProvider provider;
 
 	public InfinispanDialect(InfinispanDatastoreProvider provider) {
@@ -102,25 +117,98 @@ public Tuple getTuple(EntityKey key, TupleContext tupleContext) {
 			return null;
 		}
 		else {
-			return new Tuple( new InfinispanTupleSnapshot( atomicMap ) );
+			return new Tuple( new InfinispanTupleSnapshot( atomicMap ), tupleContext );
+		}
+	}
+
+	@Override
+	public List<Tuple> getTuples(List<EntityKey> keys, TupleContext tupleContext) {
+		//atomic maps can only be looked up one at a time
+		List<Tuple> tuples = new ArrayList<Tuple>( keys.size() );
+		for ( EntityKey key : keys ) {
+			tuples.add( getTuple( key, tupleContext ) );
 		}
+		return tuples;
 	}
 
 	@Override
-	public Tuple createTuple(EntityKey key) {
+	public Tuple createTuple(EntityKey key, TupleContext tupleContext) {
 		//TODO we don't verify that it does not yet exist assuming that this has been done before by the calling code
 		//should we improve?
 		Cache<EntityKey, Map<String, Object>> cache = provider.getCache(ENTITY_STORE);
 		FineGrainedAtomicMap<String,Object> atomicMap =  AtomicMapLookup.getFineGrainedAtomicMap( cache, key, true );
-		return new Tuple( new InfinispanTupleSnapshot( atomicMap ) );
+		return new Tuple( new InfinispanTupleSnapshot( atomicMap ), tupleContext );
 	}
 
 	@Override
 	public void updateTuple(Tuple tuple, EntityKey key) {
+		//the atomic map replicates a delta of the columns written to it: only write the columns which do change
 		Map<String,Object> atomicMap = ( (InfinispanTupleSnapshot) tuple.getSnapshot() ).getAtomicMap();
+		for ( TupleOperation action : tuple.getOperations() ) {
+			final String column = action.getColumn();
+			switch ( action.getType() ) {
+				case PUT_NULL:
+				case PUT:
+					if ( isChanged( atomicMap, column, action.getValue() ) ) {
+						atomicMap.put( column, action.getValue() );
+					}
+					break;
+				case REMOVE:
+					if ( atomicMap.containsKey( column ) ) {
+						atomicMap.remove( column );
+					}
+					break;
+			}
+		}
+	}
+
+	private static boolean isChanged(Map<String, Object> atomicMap, String column, Object value) {
+		Object currentValue = atomicMap.get( column );
+		if ( currentValue == null ) {
+			return value != null || !atomicMap.containsKey( column );
+		}
+		else if ( currentValue instanceof byte[] && value instanceof byte[] ) {
+			return !Arrays.equals( (byte[]) currentValue, (byte[]) value );
+		}
+		else {
+			return !currentValue.equals( value );
+		}
+	}
+
+	/**
+	 * Atomic maps have no putIfAbsent, so the key is checked then the map created. Under pessimistic locking the key
+	 * is locked first, holding off concurrent inserts until the end of the transaction. Under optimistic locking a
+	 * concurrent insert of the same key is only detected at commit, when the write skew check is enabled on the
+	 * entity cache.
+	 */
+	@Override
+	public void insertTuple(Tuple tuple, EntityKey key) {
+		AdvancedCache<EntityKey, Map<String, Object>> cache = provider.getCache( ENTITY_STORE ).getAdvancedCache();
+		if ( isPessimisticTransaction( cache ) ) {
+			cache.lock( Collections.singleton( key ) );
+		}
+		if ( AtomicMapLookup.getFineGrainedAtomicMap( cache, key, false ) != null ) {
+			throw log.tupleAlreadyExists( key );
+		}
+		FineGrainedAtomicMap<String, Object> atomicMap = AtomicMapLookup.getFineGrainedAtomicMap( cache, key, true );
 		MapHelpers.applyTupleOpsOnMap( tuple, atomicMap );
 	}
 
+	private static boolean isPessimisticTransaction(AdvancedCache<?, ?> cache) {
+		Configuration configuration = cache.getCacheConfiguration();
+		if ( !configuration.transaction().transactionMode().isTransactional()
+				|| configuration.transaction().lockingMode() != LockingMode.PESSIMISTIC ) {
+			return false;
+		}
+		TransactionManager transactionManager = cache.getTransactionManager();
+		try {
+			return transactionManager != null && transactionManager.getTransaction() != null;
+		}
+		catch ( SystemException se ) {
+			throw log.jtaCouldNotDetermineStatus( se );
+		}
+	}
+
 	@Override
 	public void removeTuple(EntityKey key) {
 		Cache<EntityKey, Map<String, Object>> cache = provider.getCache(ENTITY_STORE);
@@ -134,6 +222,28 @@ public Association getAssociation(AssociationKey key, AssociationContext associa
 		return atomicMap == null ? null : new Association( new MapAssociationSnapshot( atomicMap ) );
 	}
 
+	@Override
+	public int getAssociationSize(AssociationKey key) {
+		Cache<AssociationKey, Map<RowKey, Map<String, Object>>> cache = provider.getCache(ASSOCIATION_STORE);
+		Map<RowKey, Map<String, Object>> atomicMap = AtomicMapLookup.getFineGrainedAtomicMap( cache, key, false );
+		return atomicMap == null ? 0 : atomicMap.size();
+	}
+
+	@Override
+	public boolean containsRow(AssociationKey key, RowKey rowKey) {
+		Cache<AssociationKey, Map<RowKey, Map<String, Object>>> cache = provider.getCache(ASSOCIATION_STORE);
+		Map<RowKey, Map<String, Object>> atomicMap = AtomicMapLookup.getFineGrainedAtomicMap( cache, key, false );
+		return atomicMap != null && atomicMap.containsKey( rowKey );
+	}
+
+	@Override
+	public Tuple getRow(AssociationKey key, RowKey rowKey) {
+		Cache<AssociationKey, Map<RowKey, Map<String, Object>>> cache = provider.getCache(ASSOCIATION_STORE);
+		Map<RowKey, Map<String, Object>> atomicMap = AtomicMapLookup.getFineGrainedAtomicMap( cache, key, false );
+		Map<String, Object> row = atomicMap == null ? null : atomicMap.get( rowKey );
+		return row == null ? null : new Tuple( new MapTupleSnapshot( row ) );
+	}
+
 	@Override
 	public Association createAssociation(AssociationKey key) {
 		//TODO we don't verify that it does not yet exist assuming that this ahs been done before by the calling code
@@ -0,0 +1,118 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.dialect;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.infinispan.InfinispanDialect;
+import org.hibernate.ogm.dialect.infinispan.InfinispanTupleSnapshot;
+import org.hibernate.ogm.grid.EntityKey;
+import org.infinispan.atomic.FineGrainedAtomicMap;
+import org.junit.Test;
+
+/**
+ * Checks that {@link InfinispanDialect#updateTuple} only writes the columns whose value changes
+ * to the atomic map, as every write ends up in the replicated delta.
+ */
+public class InfinispanDialectUpdateTupleTest {
+
+	private static final EntityKey KEY = new EntityKey( "Hypothesis", new String[] { "id" }, new Object[] { "13" } );
+
+	private final InfinispanDialect dialect = new InfinispanDialect( null );
+
+	@Test
+	public void testUnchangedColumnsAreNotWritten() {
+		RecordingAtomicMap atomicMap = new RecordingAtomicMap();
+		atomicMap.put( "id", "13" );
+		atomicMap.put( "description", "stuff works" );
+		atomicMap.put( "position", 4 );
+		atomicMap.put( "comment", null );
+		atomicMap.writes.clear();
+
+		Tuple tuple = new Tuple( new InfinispanTupleSnapshot( atomicMap ) );
+		tuple.put( "id", "13" );
+		tuple.put( "description", "stuff works" );
+		tuple.put( "position", 5 );
+		tuple.put( "comment", null );
+		tuple.remove( "missing" );
+		dialect.updateTuple( tuple, KEY );
+
+		assertThat( atomicMap.writes ).containsOnly( "put position" );
+		assertThat( atomicMap.get( "position" ) ).isEqualTo( 5 );
+	}
+
+	@Test
+	public void testNullValuesAreWrittenWhenTheyChange() {
+		RecordingAtomicMap atomicMap = new RecordingAtomicMap();
+		atomicMap.put( "description", "stuff works" );
+		atomicMap.put( "comment", null );
+		atomicMap.writes.clear();
+
+		Tuple tuple = new Tuple( new InfinispanTupleSnapshot( atomicMap ) );
+		tuple.put( "description", null );
+		tuple.put( "position", null );
+		tuple.remove( "comment" );
+		dialect.updateTuple( tuple, KEY );
+
+		assertThat( atomicMap.writes ).containsOnly( "put description", "put position", "remove comment" );
+		assertThat( atomicMap.containsKey( "description" ) ).isTrue();
+		assertThat( atomicMap.get( "description" ) ).isNull();
+		assertThat( atomicMap.containsKey( "comment" ) ).isFalse();
+	}
+
+	@Test
+	public void testByteArraysAreComparedByContent() {
+		RecordingAtomicMap atomicMap = new RecordingAtomicMap();
+		atomicMap.put( "same", new byte[] { 1, 2, 3 } );
+		atomicMap.put( "different", new byte[] { 1, 2, 3 } );
+		atomicMap.writes.clear();
+
+		Tuple tuple = new Tuple( new InfinispanTupleSnapshot( atomicMap ) );
+		tuple.put( "same", new byte[] { 1, 2, 3 } );
+		tuple.put( "different", new byte[] { 1, 2, 4 } );
+		dialect.updateTuple( tuple, KEY );
+
+		assertThat( atomicMap.writes ).containsOnly( "put different" );
+		assertThat( (byte[]) atomicMap.get( "different" ) ).isEqualTo( new byte[] { 1, 2, 4 } );
+	}
+
+	private static class RecordingAtomicMap extends HashMap<String, Object> implements FineGrainedAtomicMap<String, Object> {
+
+		private final List<String> writes = new ArrayList<String>();
+
+		@Override
+		public Object put(String key, Object value) {
+			writes.add( "put " + key );
+			return super.put( key, value );
+		}
+
+		@Override
+		public Object remove(Object key) {
+			writes.add( "remove " + key );
+			return super.remove( key );
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.externalizer;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Date;
+
+import org.hibernate.ogm.datastore.impl.AssociationRow;
+import org.hibernate.ogm.datastore.infinispan.impl.externalizer.AssociationRowExternalizer;
+import org.junit.Test;
+
+/**
+ * Round trip of {@link AssociationRow}s through {@link AssociationRowExternalizer}.
+ */
+public class AssociationRowExternalizerTest {
+
+	private final AssociationRowExternalizer externalizer = new AssociationRowExternalizer();
+
+	@Test
+	public void testRowsAreReadBackWithTheirColumnsShared() throws Exception {
+		String[] columns = { "Blog_id", "entries_id", "published" };
+		AssociationRow first = new AssociationRow( columns, new Object[] { 1L, 10L, new Date( 0 ) } );
+		AssociationRow second = new AssociationRow( columns, new Object[] { 1L, 11L, null } );
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream output = new ObjectOutputStream( bytes );
+		externalizer.writeObject( output, first );
+		externalizer.writeObject( output, second );
+		output.close();
+
+		ObjectInputStream input = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) );
+		AssociationRow firstRead = externalizer.readObject( input );
+		AssociationRow secondRead = externalizer.readObject( input );
+		input.close();
+
+		assertThat( firstRead ).isEqualTo( first );
+		assertThat( secondRead ).isEqualTo( second );
+		assertThat( secondRead.get( "published" ) ).isNull();
+		assertThat( secondRead.containsKey( "published" ) ).isTrue();
+		assertThat( firstRead.getColumns() ).isEqualTo( columns );
+		assertThat( secondRead.getColumns() ).isSameAs( firstRead.getColumns() );
+	}
+
+	@Test
+	public void testExternalizerHandlesAssociationRows() {
+		assertThat( externalizer.getTypeClasses() ).containsOnly( AssociationRow.class );
+		assertThat( externalizer.getId() ).isNotNull();
+	}
+}
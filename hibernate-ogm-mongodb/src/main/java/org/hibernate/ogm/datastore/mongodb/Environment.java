@@ -44,6 +44,8 @@ public interface Environment {
 	
 	/**
 	 * The hostname of the MongoDB instance.
+	 * A comma separated list of {@code host[:port]} seeds connects to a replica set instead; the hosts without a port
+	 * use the value of {@link #MONGODB_PORT}.
 	 */
 	public static final String MONGODB_HOST = "hibernate.ogm.mongodb.host";
 
@@ -91,4 +93,109 @@ public interface Environment {
 	 * This value is set in milliseconds
 	 */
 	public static final int MONGODB_DEFAULT_TIMEOUT = 5000;
+
+	/**
+	 * The maximum number of documents written in one go when the tuple writes of a flush are sent to MongoDB.
+	 * A value of 1 disables the batching: each tuple is then written as soon as Hibernate OGM flushes it.
+	 */
+	public static final String MONGODB_BATCH_SIZE = "hibernate.ogm.mongodb.batch_size";
+
+	/**
+	 * The default value used for {@link #MONGODB_BATCH_SIZE}
+	 */
+	public static final int MONGODB_DEFAULT_BATCH_SIZE = 1000;
+
+	/**
+	 * The number of threads sending the independent writes of a flush to MongoDB concurrently.
+	 * With the default value of 0, the writes are sent one after the other by the flushing thread.
+	 */
+	public static final String MONGODB_ASYNC_POOL_SIZE = "hibernate.ogm.mongodb.async_pool_size";
+
+	/**
+	 * The default value used for {@link #MONGODB_ASYNC_POOL_SIZE}
+	 */
+	public static final int MONGODB_DEFAULT_ASYNC_POOL_SIZE = 0;
+
+	/**
+	 * The collections whose documents are kept in the near-cache of the MongoDB datastore provider, as a comma
+	 * separated list. The name of a collection can be followed by the name of its version field, separated by a
+	 * colon (e.g. {@code Country:version,Currency}): expired documents are then checked by reading this field only.
+	 * The near-cache is disabled if the property is not set.
+	 */
+	public static final String MONGODB_NEAR_CACHE_COLLECTIONS = "hibernate.ogm.mongodb.near_cache.collections";
+
+	/**
+	 * The maximum number of documents kept in the near-cache; the least recently used ones are evicted first.
+	 */
+	public static final String MONGODB_NEAR_CACHE_MAX_ENTRIES = "hibernate.ogm.mongodb.near_cache.max_entries";
+
+	/**
+	 * The default value used for {@link #MONGODB_NEAR_CACHE_MAX_ENTRIES}
+	 */
+	public static final int MONGODB_DEFAULT_NEAR_CACHE_MAX_ENTRIES = 10000;
+
+	/**
+	 * The time in milliseconds a document of the near-cache is used without checking it against MongoDB.
+	 */
+	public static final String MONGODB_NEAR_CACHE_TTL = "hibernate.ogm.mongodb.near_cache.ttl";
+
+	/**
+	 * The default value used for {@link #MONGODB_NEAR_CACHE_TTL}
+	 */
+	public static final long MONGODB_DEFAULT_NEAR_CACHE_TTL = 60000;
+
+	/**
+	 * The maximum number of connections kept open to each MongoDB server.
+	 */
+	public static final String MONGODB_CONNECTIONS_PER_HOST = "hibernate.ogm.mongodb.connections_per_host";
+
+	/**
+	 * The default value used for {@link #MONGODB_CONNECTIONS_PER_HOST}
+	 */
+	public static final int MONGODB_DEFAULT_CONNECTIONS_PER_HOST = 100;
+
+	/**
+	 * The time in milliseconds a thread waits for a connection of the pool to become available.
+	 */
+	public static final String MONGODB_MAX_WAIT_TIME = "hibernate.ogm.mongodb.max_wait_time";
+
+	/**
+	 * The default value used for {@link #MONGODB_MAX_WAIT_TIME}
+	 */
+	public static final int MONGODB_DEFAULT_MAX_WAIT_TIME = 120000;
+
+	/**
+	 * The timeout in milliseconds of the reads on the sockets opened to MongoDB. 0 means no timeout.
+	 */
+	public static final String MONGODB_SOCKET_TIMEOUT = "hibernate.ogm.mongodb.socket_timeout";
+
+	/**
+	 * The default value used for {@link #MONGODB_SOCKET_TIMEOUT}
+	 */
+	public static final int MONGODB_DEFAULT_SOCKET_TIMEOUT = 0;
+
+	/**
+	 * The members of the replica set documents are read from, one of the {@link ReadPreferenceType} names.
+	 * The value for a given collection can be overridden with the property
+	 * {@code hibernate.ogm.mongodb.read_preference.<collection name>}.
+	 */
+	public static final String MONGODB_READ_PREFERENCE = "hibernate.ogm.mongodb.read_preference";
+
+	/**
+	 * The acknowledgement requested for the writes, one of the {@link WriteConcernType} names.
+	 * If set, it takes precedence over {@link #MONGODB_SAFE}. The value for a given collection can be
+	 * overridden with the property {@code hibernate.ogm.mongodb.write_concern.<collection name>}.
+	 */
+	public static final String MONGODB_WRITE_CONCERN = "hibernate.ogm.mongodb.write_concern";
+
+	/**
+	 * What is done at startup with the indexes required by the {@code @Index} and unique constraints of the entities
+	 * and by the global association collection, one of the {@link IndexManagement} names.
+	 */
+	public static final String MONGODB_INDEX_MANAGEMENT = "hibernate.ogm.mongodb.index_management";
+
+	/**
+	 * The default value used for {@link #MONGODB_INDEX_MANAGEMENT}
+	 */
+	public static final IndexManagement MONGODB_DEFAULT_INDEX_MANAGEMENT = IndexManagement.NONE;
 }
@@ -0,0 +1,67 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.mongodb;
+
+import com.mongodb.WriteConcern;
+
+/**
+ * Defines the acknowledgement MongoDB gives to the writes
+ */
+public enum WriteConcernType {
+	/**
+	 * No exception is raised, not even for network errors
+	 */
+	ERRORS_IGNORED( WriteConcern.ERRORS_IGNORED ),
+	/**
+	 * Network errors are raised, the server does not acknowledge the write
+	 */
+	UNACKNOWLEDGED( WriteConcern.UNACKNOWLEDGED ),
+	/**
+	 * The primary acknowledges the write ({@code w:1})
+	 */
+	ACKNOWLEDGED( WriteConcern.ACKNOWLEDGED ),
+	/**
+	 * The primary acknowledges the write once it is flushed to disk
+	 */
+	FSYNCED( WriteConcern.FSYNCED ),
+	/**
+	 * The primary acknowledges the write once it is committed to the journal
+	 */
+	JOURNALED( WriteConcern.JOURNALED ),
+	/**
+	 * The write is acknowledged by at least two members of the replica set ({@code w:2})
+	 */
+	REPLICA_ACKNOWLEDGED( WriteConcern.REPLICA_ACKNOWLEDGED ),
+	/**
+	 * The write is acknowledged by a majority of the members of the replica set ({@code w:majority})
+	 */
+	MAJORITY( WriteConcern.MAJORITY );
+
+	private final WriteConcern writeConcern;
+
+	private WriteConcernType(WriteConcern writeConcern) {
+		this.writeConcern = writeConcern;
+	}
+
+	public WriteConcern getWriteConcern() {
+		return writeConcern;
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.mongodb.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.grid.EntityKey;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+
+/**
+ * A bounded cache of the documents of some collections, kept by the MongoDB datastore provider to avoid
+ * a round trip to MongoDB for each read of rarely changing entities.
+ *
+ * A cached document is returned as is until its time to live expires. After that, if a version field is
+ * configured for the collection, only this field is read from MongoDB: the document is used for another
+ * time to live if the version did not change and loaded again otherwise. Documents written or removed
+ * through the dialect are invalidated. Writes made outside of this dialect are only seen once the
+ * cached document expires.
+ *
+ * Documents are cached per {@link TupleContext} as they only contain the columns selected by it.
+ */
+public final class DocumentNearCache implements DocumentNearCacheMBean {
+
+	private final Map<String, String> versionFieldPerCollection;
+	private final long timeToLive;
+	private final Map<EntityKey, CachedDocument> documents;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong revalidationCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+	private final AtomicLong invalidationCount = new AtomicLong();
+
+	/**
+	 * @param versionFieldPerCollection the cached collections and their version field, {@code null} if they have none
+	 * @param maxEntries the maximum number of documents kept
+	 * @param timeToLive the time in milliseconds a document is used without checking it with MongoDB
+	 */
+	public DocumentNearCache(Map<String, String> versionFieldPerCollection, final int maxEntries, long timeToLive) {
+		this.versionFieldPerCollection = versionFieldPerCollection;
+		this.timeToLive = timeToLive;
+		this.documents = Collections.synchronizedMap( new LinkedHashMap<EntityKey, CachedDocument>( 16, 0.75f, true ) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<EntityKey, CachedDocument> eldest) {
+				if ( size() > maxEntries ) {
+					evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		} );
+	}
+
+	public boolean isCached(String collectionName) {
+		return versionFieldPerCollection.containsKey( collectionName );
+	}
+
+	/**
+	 * Return the document of the given key, from the near-cache if possible.
+	 *
+	 * @return a copy of the document, {@code null} if it does not exist
+	 */
+	public DBObject getDocument(EntityKey key, TupleContext tupleContext, DBCollection collection, DBObject idObject, DBObject projection) {
+		CachedDocument cached = documents.get( key );
+		if ( cached != null && cached.tupleContext == tupleContext ) {
+			long now = System.currentTimeMillis();
+			if ( now < cached.expiration ) {
+				hitCount.incrementAndGet();
+				return copy( cached.document );
+			}
+			String versionField = versionFieldPerCollection.get( key.getTable() );
+			if ( versionField != null && isUpToDate( cached, versionField, collection, idObject ) ) {
+				cached.expiration = now + timeToLive;
+				revalidationCount.incrementAndGet();
+				return copy( cached.document );
+			}
+		}
+		missCount.incrementAndGet();
+		//an invalidation happening while the document is read from MongoDB might concern it
+		long invalidations = invalidationCount.get();
+		DBObject document = collection.findOne( idObject, projection );
+		if ( document != null ) {
+			put( key, tupleContext, document, invalidations );
+		}
+		return document;
+	}
+
+	/**
+	 * Add a document read from MongoDB without consulting the near-cache.
+	 *
+	 * @param invalidations the value of {@link #getInvalidationCount()} before the document was read
+	 */
+	public void put(EntityKey key, TupleContext tupleContext, DBObject document, long invalidations) {
+		CachedDocument cached = new CachedDocument( tupleContext, copy( document ), System.currentTimeMillis() + timeToLive );
+		synchronized ( documents ) {
+			if ( invalidationCount.get() == invalidations ) {
+				documents.put( key, cached );
+			}
+		}
+	}
+
+	/**
+	 * @return a copy of the document of the given key if it is cached and has not expired, {@code null} otherwise
+	 */
+	public DBObject getIfFresh(EntityKey key, TupleContext tupleContext) {
+		CachedDocument cached = documents.get( key );
+		if ( cached != null && cached.tupleContext == tupleContext && System.currentTimeMillis() < cached.expiration ) {
+			hitCount.incrementAndGet();
+			return copy( cached.document );
+		}
+		missCount.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Remove the document of the given key, to be called before and after it is written.
+	 */
+	public void invalidate(EntityKey key) {
+		if ( isCached( key.getTable() ) ) {
+			synchronized ( documents ) {
+				invalidationCount.incrementAndGet();
+				documents.remove( key );
+			}
+		}
+	}
+
+	private boolean isUpToDate(CachedDocument cached, String versionField, DBCollection collection, DBObject idObject) {
+		DBObject current = collection.findOne( idObject, new BasicDBObject( versionField, 1 ) );
+		if ( current == null ) {
+			return false;
+		}
+		Object version = current.get( versionField );
+		return version != null && version.equals( cached.document.get( versionField ) );
+	}
+
+	private static DBObject copy(DBObject document) {
+		return document instanceof BasicDBObject ? (DBObject) ( (BasicDBObject) document ).copy() : document;
+	}
+
+	@Override
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	@Override
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	@Override
+	public long getRevalidationCount() {
+		return revalidationCount.get();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	@Override
+	public long getInvalidationCount() {
+		return invalidationCount.get();
+	}
+
+	@Override
+	public int getSize() {
+		return documents.size();
+	}
+
+	@Override
+	public void clear() {
+		synchronized ( documents ) {
+			invalidationCount.incrementAndGet();
+			documents.clear();
+		}
+	}
+
+	private static final class CachedDocument {
+		private final TupleContext tupleContext;
+		private final DBObject document;
+		private volatile long expiration;
+
+		private CachedDocument(TupleContext tupleContext, DBObject document, long expiration) {
+			this.tupleContext = tupleContext;
+			this.document = document;
+			this.expiration = expiration;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.mongodb.impl;
+
+/**
+ * Statistics of the {@link DocumentNearCache}, exposed through JMX.
+ */
+public interface DocumentNearCacheMBean {
+
+	/**
+	 * @return the number of reads served from the near-cache without contacting MongoDB
+	 */
+	long getHitCount();
+
+	/**
+	 * @return the number of reads which had to load the document from MongoDB
+	 */
+	long getMissCount();
+
+	/**
+	 * @return the number of expired documents found up to date by a check of their version
+	 */
+	long getRevalidationCount();
+
+	/**
+	 * @return the number of documents removed to keep the near-cache under its maximum size
+	 */
+	long getEvictionCount();
+
+	/**
+	 * @return the number of documents removed because they have been written through the dialect
+	 */
+	long getInvalidationCount();
+
+	/**
+	 * @return the number of documents currently held by the near-cache
+	 */
+	int getSize();
+
+	/**
+	 * Remove all the documents from the near-cache
+	 */
+	void clear();
+}
@@ -20,18 +20,40 @@
  */
 package org.hibernate.ogm.datastore.mongodb.impl;
 
+import java.lang.management.ManagementFactory;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
 
 import org.hibernate.HibernateException;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.ogm.datastore.mongodb.AssociationStorage;
 import org.hibernate.ogm.datastore.mongodb.Environment;
+import org.hibernate.ogm.datastore.mongodb.IndexManagement;
+import org.hibernate.ogm.datastore.mongodb.ReadPreferenceType;
+import org.hibernate.ogm.datastore.mongodb.WriteConcernType;
+import org.hibernate.ogm.datastore.StartStoppable;
 import org.hibernate.ogm.datastore.spi.DatastoreProvider;
 import org.hibernate.ogm.dialect.GridDialect;
 import org.hibernate.ogm.dialect.mongodb.MongoDBDialect;
 import org.hibernate.ogm.logging.mongodb.impl.Log;
 import org.hibernate.ogm.logging.mongodb.impl.LoggerFactory;
+import org.hibernate.ogm.util.impl.StringHelper;
 import org.hibernate.service.spi.Configurable;
 import org.hibernate.service.spi.Startable;
 import org.hibernate.service.spi.Stoppable;
@@ -47,15 +69,23 @@
  *
  * @author Guillaume Scheibel<guillaume.scheibel@gmail.com>
  */
-public class MongoDBDatastoreProvider implements DatastoreProvider, Startable, Stoppable, Configurable {
+public class MongoDBDatastoreProvider implements DatastoreProvider, Startable, Stoppable, Configurable, StartStoppable {
 
 	private static final Log log = LoggerFactory.getLogger();
 
 	private Map<?, ?> cfg;
 	private boolean isCacheStarted;
 	private MongoClient mongo;
+	private List<ServerAddress> seeds;
 	private DB mongoDb;
 	private AssociationStorage associationStorage;
+	private int batchSize;
+	private int asyncPoolSize;
+	private ExecutorService asyncExecutor;
+	private DocumentNearCache nearCache;
+	private ObjectName nearCacheObjectName;
+	private IndexManagement indexManagement;
+	private volatile Map<String, Set<String>> sparseFields = Collections.emptyMap();
 
 	@Override
 	public void configure(Map configurationValues) {
@@ -74,12 +104,127 @@ public void configure(Map configurationValues) {
 				log.unknownAssociationStorageStrategy( assocStoreString, AssociationStorage.class );
 			}
 		}
+
+		Object cfgBatchSize = cfg.get( Environment.MONGODB_BATCH_SIZE );
+		batchSize = Environment.MONGODB_DEFAULT_BATCH_SIZE;
+		if ( cfgBatchSize != null ) {
+			try {
+				int temporaryBatchSize = Integer.valueOf( cfgBatchSize.toString() ).intValue();
+				if ( temporaryBatchSize < 1 ) {
+					throw log.mongoDBBatchSizeIllegalValue( cfgBatchSize.toString() );
+				}
+				batchSize = temporaryBatchSize;
+			}
+			catch ( NumberFormatException e ) {
+				throw log.mongoDBBatchSizeIllegalValue( cfgBatchSize.toString() );
+			}
+		}
+
+		Object cfgAsyncPoolSize = cfg.get( Environment.MONGODB_ASYNC_POOL_SIZE );
+		asyncPoolSize = Environment.MONGODB_DEFAULT_ASYNC_POOL_SIZE;
+		if ( cfgAsyncPoolSize != null ) {
+			try {
+				int temporaryAsyncPoolSize = Integer.valueOf( cfgAsyncPoolSize.toString() ).intValue();
+				if ( temporaryAsyncPoolSize < 0 ) {
+					throw log.mongoDBAsyncPoolSizeIllegalValue( cfgAsyncPoolSize.toString() );
+				}
+				asyncPoolSize = temporaryAsyncPoolSize;
+			}
+			catch ( NumberFormatException e ) {
+				throw log.mongoDBAsyncPoolSizeIllegalValue( cfgAsyncPoolSize.toString() );
+			}
+		}
+
+		indexManagement = getEnumProperty( Environment.MONGODB_INDEX_MANAGEMENT, IndexManagement.class );
+		if ( indexManagement == null ) {
+			indexManagement = Environment.MONGODB_DEFAULT_INDEX_MANAGEMENT;
+		}
+
+		Object cfgNearCacheCollections = cfg.get( Environment.MONGODB_NEAR_CACHE_COLLECTIONS );
+		if ( cfgNearCacheCollections != null && !StringHelper.isEmpty( cfgNearCacheCollections.toString().trim() ) ) {
+			nearCache = new DocumentNearCache(
+					parseNearCacheCollections( cfgNearCacheCollections.toString() ),
+					getNearCacheMaxEntries(),
+					getNearCacheTimeToLive()
+			);
+		}
+	}
+
+	/*
+	 * Parse a list like "Country:version, Currency" into the collection names and their version field
+	 */
+	private static Map<String, String> parseNearCacheCollections(String collections) {
+		Map<String, String> versionFieldPerCollection = new HashMap<String, String>();
+		for ( String collection : collections.split( "," ) ) {
+			String[] nameAndVersion = collection.trim().split( ":" );
+			if ( nameAndVersion[0].length() > 0 ) {
+				String versionField = nameAndVersion.length > 1 ? nameAndVersion[1].trim() : null;
+				versionFieldPerCollection.put( nameAndVersion[0], versionField );
+			}
+		}
+		log.nearCacheEnabled( versionFieldPerCollection.keySet() );
+		return versionFieldPerCollection;
+	}
+
+	private int getNearCacheMaxEntries() {
+		Object cfgMaxEntries = cfg.get( Environment.MONGODB_NEAR_CACHE_MAX_ENTRIES );
+		if ( cfgMaxEntries == null ) {
+			return Environment.MONGODB_DEFAULT_NEAR_CACHE_MAX_ENTRIES;
+		}
+		try {
+			int maxEntries = Integer.valueOf( cfgMaxEntries.toString() ).intValue();
+			if ( maxEntries < 1 ) {
+				throw log.mongoDBNearCacheMaxEntriesIllegalValue( cfgMaxEntries.toString() );
+			}
+			return maxEntries;
+		}
+		catch ( NumberFormatException e ) {
+			throw log.mongoDBNearCacheMaxEntriesIllegalValue( cfgMaxEntries.toString() );
+		}
+	}
+
+	private long getNearCacheTimeToLive() {
+		Object cfgTimeToLive = cfg.get( Environment.MONGODB_NEAR_CACHE_TTL );
+		if ( cfgTimeToLive == null ) {
+			return Environment.MONGODB_DEFAULT_NEAR_CACHE_TTL;
+		}
+		try {
+			long timeToLive = Long.valueOf( cfgTimeToLive.toString() ).longValue();
+			if ( timeToLive < 0 ) {
+				throw log.mongoDBNearCacheTimeToLiveIllegalValue( cfgTimeToLive.toString() );
+			}
+			return timeToLive;
+		}
+		catch ( NumberFormatException e ) {
+			throw log.mongoDBNearCacheTimeToLiveIllegalValue( cfgTimeToLive.toString() );
+		}
 	}
 
 	public AssociationStorage getAssociationStorage() {
 		return associationStorage;
 	}
 
+	/**
+	 * @return the maximum number of documents written in one go at the end of a flush
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @return the near-cache of documents or {@code null} if it is disabled
+	 */
+	public DocumentNearCache getNearCache() {
+		return nearCache;
+	}
+
+	/**
+	 * @return the executor running the concurrent writes of a flush or {@code null} if they are disabled
+	 */
+	public ExecutorService getAsyncExecutor() {
+		return asyncExecutor;
+	}
+
 	@Override
 	public Class<? extends GridDialect> getDefaultDialect() {
 		return MongoDBDialect.class;
@@ -94,16 +239,7 @@ public void start() {
 				final int port;
 				Object cfgPort = this.cfg.get( Environment.MONGODB_PORT );
 				if ( cfgPort != null ) {
-					try {
-						int temporaryPort = Integer.valueOf( cfgPort.toString() ).intValue();
-						if ( temporaryPort < 1 || temporaryPort > 65535 ) {
-							throw log.mongoPortIllegalValue( cfgPort.toString() );
-						}
-						port = temporaryPort;
-					}
-					catch ( NumberFormatException e ) {
-						throw log.mongoPortIllegalValue( cfgPort.toString() );
-					}
+					port = parsePort( cfgPort.toString() );
 				}
 				else {
 					port = Environment.MONGODB_DEFAULT_PORT;
@@ -132,18 +268,38 @@ public void start() {
 
 				MongoClientOptions.Builder optionsBuilder = new MongoClientOptions.Builder();
 				optionsBuilder.connectTimeout( timeout );
-				if ( safe ) {
-					optionsBuilder.writeConcern( WriteConcern.ACKNOWLEDGED );
+				optionsBuilder.connectionsPerHost( getIntProperty( Environment.MONGODB_CONNECTIONS_PER_HOST, Environment.MONGODB_DEFAULT_CONNECTIONS_PER_HOST, 1 ) );
+				optionsBuilder.maxWaitTime( getIntProperty( Environment.MONGODB_MAX_WAIT_TIME, Environment.MONGODB_DEFAULT_MAX_WAIT_TIME, 0 ) );
+				optionsBuilder.socketTimeout( getIntProperty( Environment.MONGODB_SOCKET_TIMEOUT, Environment.MONGODB_DEFAULT_SOCKET_TIMEOUT, 0 ) );
+
+				WriteConcernType writeConcern = getEnumProperty( Environment.MONGODB_WRITE_CONCERN, WriteConcernType.class );
+				if ( writeConcern != null ) {
+					optionsBuilder.writeConcern( writeConcern.getWriteConcern() );
 				}
 				else {
-					optionsBuilder.writeConcern( WriteConcern.NONE );
+					if ( safe ) {
+						optionsBuilder.writeConcern( WriteConcern.ACKNOWLEDGED );
+					}
+					else {
+						optionsBuilder.writeConcern( WriteConcern.NONE );
+					}
+					log.useSafe( safe );
 				}
-				log.useSafe( safe );
-				log.connectingToMongo( host, port, timeout );
 
-				ServerAddress serverAddress = new ServerAddress( host, port );
+				ReadPreferenceType readPreference = getEnumProperty( Environment.MONGODB_READ_PREFERENCE, ReadPreferenceType.class );
+				if ( readPreference != null ) {
+					optionsBuilder.readPreference( readPreference.getReadPreference() );
+				}
 
-				this.mongo = new MongoClient( serverAddress, optionsBuilder.build() );
+				seeds = parseSeeds( host, port );
+				if ( seeds.size() == 1 ) {
+					log.connectingToMongo( seeds.get( 0 ).getHost(), seeds.get( 0 ).getPort(), timeout );
+					this.mongo = new MongoClient( seeds.get( 0 ), optionsBuilder.build() );
+				}
+				else {
+					log.connectingToMongoReplicaSet( seeds, timeout );
+					this.mongo = new MongoClient( seeds, optionsBuilder.build() );
+				}
 				this.isCacheStarted = true;
 			}
 			catch ( UnknownHostException e ) {
@@ -153,12 +309,187 @@ public void start() {
 				throw log.unableToInitializeMongoDB( e );
 			}
 			mongoDb = extractDatabase();
+			configureCollections();
+			if ( asyncPoolSize > 0 ) {
+				asyncExecutor = createAsyncExecutor( asyncPoolSize );
+			}
+			if ( nearCache != null ) {
+				registerNearCacheMBean();
+			}
 		}
 	}
 
+	/**
+	 * Creates or validates the indexes required by the mapping once the session factory is built
+	 */
+	@Override
+	public void start(Configuration configuration, SessionFactoryImplementor sessionFactoryImplementor) {
+		sparseFields = new MongoDBIndexManager( mongoDb, associationStorage ).manageIndexes( configuration, indexManagement );
+	}
+
+	/**
+	 * @return whether the given field of the collection is covered by a sparse unique index managed by Hibernate OGM,
+	 * in which case a null value must not be stored in it
+	 */
+	public boolean isSparseField(String collection, String field) {
+		Set<String> fields = sparseFields.get( collection );
+		return fields != null && fields.contains( field );
+	}
+
+	/*
+	 * Parse a list like "mongo1:27017, mongo2" into the addresses of the members of a replica set
+	 */
+	private static List<ServerAddress> parseSeeds(String hosts, int defaultPort) throws UnknownHostException {
+		List<ServerAddress> seeds = new ArrayList<ServerAddress>();
+		for ( String seed : hosts.split( "," ) ) {
+			String[] hostAndPort = seed.trim().split( ":" );
+			if ( hostAndPort[0].length() > 0 ) {
+				int port = hostAndPort.length > 1 ? parsePort( hostAndPort[1].trim() ) : defaultPort;
+				seeds.add( new ServerAddress( hostAndPort[0], port ) );
+			}
+		}
+		if ( seeds.isEmpty() ) {
+			throw log.mongoOnUnknownHost( hosts );
+		}
+		return seeds;
+	}
+
+	private static String describe(List<ServerAddress> addresses) {
+		StringBuilder builder = new StringBuilder();
+		for ( ServerAddress address : addresses ) {
+			if ( builder.length() > 0 ) {
+				builder.append( ", " );
+			}
+			builder.append( address.getHost() ).append( ':' ).append( address.getPort() );
+		}
+		return builder.toString();
+	}
+
+	private static int parsePort(String value) {
+		try {
+			int port = Integer.valueOf( value ).intValue();
+			if ( port < 1 || port > 65535 ) {
+				throw log.mongoPortIllegalValue( value );
+			}
+			return port;
+		}
+		catch ( NumberFormatException e ) {
+			throw log.mongoPortIllegalValue( value );
+		}
+	}
+
+	private int getIntProperty(String property, int defaultValue, int minimum) {
+		Object cfgValue = cfg.get( property );
+		if ( cfgValue == null ) {
+			return defaultValue;
+		}
+		try {
+			int value = Integer.valueOf( cfgValue.toString().trim() ).intValue();
+			if ( value < minimum ) {
+				throw log.mongoDBIntegerPropertyIllegalValue( property, minimum, cfgValue.toString() );
+			}
+			return value;
+		}
+		catch ( NumberFormatException e ) {
+			throw log.mongoDBIntegerPropertyIllegalValue( property, minimum, cfgValue.toString() );
+		}
+	}
+
+	private <E extends Enum<E>> E getEnumProperty(String property, Class<E> enumType) {
+		Object cfgValue = cfg.get( property );
+		if ( cfgValue == null ) {
+			return null;
+		}
+		try {
+			return Enum.valueOf( enumType, cfgValue.toString().trim().toUpperCase( Locale.ENGLISH ) );
+		}
+		catch ( IllegalArgumentException e ) {
+			throw log.unknownConfigurationValue( property, cfgValue.toString(), enumType );
+		}
+	}
+
+	/*
+	 * The driver hands out the same DBCollection instance for a given name, so the read preference and write
+	 * concern overridden for a collection apply to all the operations of the dialect on it.
+	 */
+	private void configureCollections() {
+		String readPreferencePrefix = Environment.MONGODB_READ_PREFERENCE + ".";
+		String writeConcernPrefix = Environment.MONGODB_WRITE_CONCERN + ".";
+		for ( Object key : cfg.keySet() ) {
+			String property = key.toString();
+			if ( property.startsWith( readPreferencePrefix ) ) {
+				String collection = property.substring( readPreferencePrefix.length() );
+				ReadPreferenceType readPreference = getEnumProperty( property, ReadPreferenceType.class );
+				mongoDb.getCollection( collection ).setReadPreference( readPreference.getReadPreference() );
+			}
+			else if ( property.startsWith( writeConcernPrefix ) ) {
+				String collection = property.substring( writeConcernPrefix.length() );
+				WriteConcernType writeConcern = getEnumProperty( property, WriteConcernType.class );
+				mongoDb.getCollection( collection ).setWriteConcern( writeConcern.getWriteConcern() );
+			}
+		}
+	}
+
+	private void registerNearCacheMBean() {
+		try {
+			nearCacheObjectName = new ObjectName(
+					"org.hibernate.ogm:type=MongoDBNearCache,database=" + ObjectName.quote( mongoDb.getName() )
+							+ ",id=" + Integer.toHexString( System.identityHashCode( this ) )
+			);
+			ManagementFactory.getPlatformMBeanServer().registerMBean( nearCache, nearCacheObjectName );
+		}
+		catch ( Exception e ) {
+			nearCacheObjectName = null;
+			log.unableToManageNearCacheMBean( e );
+		}
+	}
+
+	/*
+	 * The queue is bounded: when it is full, the flushing thread sends the write itself.
+	 * The same happens once the executor is stopped.
+	 */
+	private static ExecutorService createAsyncExecutor(int poolSize) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				poolSize,
+				poolSize,
+				60L,
+				TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>( poolSize * 16 ),
+				new ThreadFactory() {
+					private final AtomicInteger threadCount = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread( runnable, "Hibernate OGM MongoDB writer " + threadCount.incrementAndGet() );
+						thread.setDaemon( true );
+						return thread;
+					}
+				},
+				new RejectedExecutionHandler() {
+					@Override
+					public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+						runnable.run();
+					}
+				}
+		);
+		executor.allowCoreThreadTimeOut( true );
+		return executor;
+	}
+
 	@Override
 	public void stop() {
 		log.disconnectingFromMongo();
+		if ( asyncExecutor != null ) {
+			asyncExecutor.shutdown();
+		}
+		if ( nearCacheObjectName != null ) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean( nearCacheObjectName );
+			}
+			catch ( Exception e ) {
+				log.unableToManageNearCacheMBean( e );
+			}
+		}
 		this.mongo.close();
 	}
 
@@ -194,7 +525,8 @@ private DB extractDatabase() {
 			throw e;
 		}
 		catch ( Exception e ) {
-			throw log.unableToConnectToDatastore( this.mongo.getAddress().getHost(), this.mongo.getAddress().getPort(), e );
+			//the address of the client is null until a member of a replica set has been reached
+			throw log.unableToConnectToDatastore( describe( seeds ), e );
 		}
 	}
 
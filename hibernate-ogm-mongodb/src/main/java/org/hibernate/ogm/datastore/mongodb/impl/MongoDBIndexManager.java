@@ -0,0 +1,258 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.datastore.mongodb.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.cfg.Configuration;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.PrimaryKey;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.UniqueKey;
+import org.hibernate.ogm.datastore.mongodb.AssociationStorage;
+import org.hibernate.ogm.datastore.mongodb.Environment;
+import org.hibernate.ogm.datastore.mongodb.IndexManagement;
+import org.hibernate.ogm.dialect.mongodb.MongoDBDialect;
+import org.hibernate.ogm.logging.mongodb.impl.Log;
+import org.hibernate.ogm.logging.mongodb.impl.LoggerFactory;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/**
+ * Creates or validates the indexes the mapping requires on the MongoDB collections.
+ * <p>
+ * The entity collections get an index per {@code @Index} and a unique index per unique constraint or
+ * {@code @Column(unique = true)}. The association documents are looked up by their whole {@code _id}, which the
+ * mandatory {@code _id} index covers, so the only association index is the one on the table field of the global
+ * collection.
+ * <p>
+ * A unique index on a single nullable column is sparse and the dialect does not store the field when the column is
+ * null (see {@link #manageIndexes(Configuration, IndexManagement)}), so that several documents may lack it. A sparse
+ * compound index still indexes the documents holding any of its fields, so a unique constraint spanning a nullable
+ * column cannot be enforced the SQL way: such an index is not managed and a warning is logged.
+ */
+public class MongoDBIndexManager {
+
+	private static final Log log = LoggerFactory.getLogger();
+	private static final Integer ASCENDING = Integer.valueOf( 1 );
+
+	private final DB database;
+	private final AssociationStorage associationStorage;
+
+	public MongoDBIndexManager(DB database, AssociationStorage associationStorage) {
+		this.database = database;
+		this.associationStorage = associationStorage;
+	}
+
+	/**
+	 * @return the fields covered by a managed sparse unique index, per collection: the dialect must not store a
+	 * null value in them
+	 */
+	public Map<String, Set<String>> manageIndexes(Configuration configuration, IndexManagement indexManagement) {
+		if ( indexManagement == IndexManagement.NONE ) {
+			return Collections.emptyMap();
+		}
+		List<IndexDefinition> definitions = getIndexDefinitions( configuration );
+		for ( IndexDefinition index : definitions ) {
+			DBCollection collection = database.getCollection( index.collection );
+			if ( isIndexed( collection, index ) ) {
+				continue;
+			}
+			if ( indexManagement == IndexManagement.VALIDATE ) {
+				throw log.missingIndex( index.collection, index.keys.toString() );
+			}
+			log.creatingIndex( index.collection, index.keys.toString() );
+			try {
+				DBObject options = new BasicDBObject( "name", index.name ).append( "unique", index.unique );
+				if ( index.sparse ) {
+					options.put( "sparse", true );
+				}
+				collection.ensureIndex( index.keys, options );
+			}
+			catch ( MongoException e ) {
+				throw log.unableToCreateIndex( index.collection, index.keys.toString(), e );
+			}
+		}
+		return getSparseFields( definitions );
+	}
+
+	private Map<String, Set<String>> getSparseFields(List<IndexDefinition> definitions) {
+		Map<String, Set<String>> sparseFields = new HashMap<String, Set<String>>();
+		for ( IndexDefinition index : definitions ) {
+			if ( index.sparse ) {
+				Set<String> fields = sparseFields.get( index.collection );
+				if ( fields == null ) {
+					fields = new HashSet<String>();
+					sparseFields.put( index.collection, fields );
+				}
+				fields.addAll( index.keys.keySet() );
+			}
+		}
+		return sparseFields;
+	}
+
+	List<IndexDefinition> getIndexDefinitions(Configuration configuration) {
+		Map<String, IndexDefinition> indexes = new LinkedHashMap<String, IndexDefinition>();
+		Set<String> tables = new HashSet<String>();
+		Iterator<PersistentClass> entities = configuration.getClassMappings();
+		while ( entities.hasNext() ) {
+			Table table = entities.next().getTable();
+			if ( table.isPhysicalTable() && tables.add( table.getName() ) ) {
+				addTableIndexes( indexes, table );
+			}
+		}
+		if ( associationStorage == AssociationStorage.GLOBAL_COLLECTION ) {
+			DBObject keys = new BasicDBObject( MongoDBDialect.ID_FIELDNAME + "." + MongoDBDialect.TABLE_FIELDNAME, ASCENDING );
+			addIndex( indexes, new IndexDefinition( Environment.MONGODB_DEFAULT_ASSOCIATION_STORE, "ogm_association_table", keys, false, false ) );
+		}
+		return new ArrayList<IndexDefinition>( indexes.values() );
+	}
+
+	private void addTableIndexes(Map<String, IndexDefinition> indexes, Table table) {
+		List<String> idColumns = getIdColumns( table );
+		Iterator<UniqueKey> uniqueKeys = table.getUniqueKeyIterator();
+		while ( uniqueKeys.hasNext() ) {
+			UniqueKey uniqueKey = uniqueKeys.next();
+			addIndex( indexes, table, uniqueKey.getName(), uniqueKey.getColumnIterator(), idColumns, true );
+		}
+		Iterator<Column> columns = table.getColumnIterator();
+		while ( columns.hasNext() ) {
+			Column column = columns.next();
+			if ( column.isUnique() ) {
+				List<Column> uniqueColumn = new ArrayList<Column>( 1 );
+				uniqueColumn.add( column );
+				addIndex( indexes, table, "UK_" + column.getName(), uniqueColumn.iterator(), idColumns, true );
+			}
+		}
+		Iterator<Index> tableIndexes = table.getIndexIterator();
+		while ( tableIndexes.hasNext() ) {
+			Index index = tableIndexes.next();
+			addIndex( indexes, table, index.getName(), index.getColumnIterator(), idColumns, false );
+		}
+	}
+
+	private void addIndex(Map<String, IndexDefinition> indexes, Table table, String name, Iterator<Column> columns, List<String> idColumns, boolean unique) {
+		DBObject keys = new BasicDBObject();
+		boolean nullable = false;
+		while ( columns.hasNext() ) {
+			Column column = columns.next();
+			keys.put( getFieldName( column.getName(), idColumns ), ASCENDING );
+			nullable = nullable || ( column.isNullable() && !idColumns.contains( column.getName() ) );
+		}
+		//the _id index is always there
+		if ( keys.keySet().isEmpty() || ( keys.keySet().size() == 1 && keys.containsField( MongoDBDialect.ID_FIELDNAME ) ) ) {
+			return;
+		}
+		if ( unique && nullable && keys.keySet().size() > 1 ) {
+			log.skippingNullableCompoundUniqueIndex( table.getName(), keys.toString() );
+			return;
+		}
+		addIndex( indexes, new IndexDefinition( table.getName(), name, keys, unique, unique && nullable ) );
+	}
+
+	/*
+	 * A unique and a plain index on the same fields are redundant: the unique one wins
+	 */
+	private static void addIndex(Map<String, IndexDefinition> indexes, IndexDefinition index) {
+		String id = index.collection + "#" + index.keys.keySet();
+		IndexDefinition existing = indexes.get( id );
+		if ( existing == null || ( index.unique && !existing.unique ) ) {
+			indexes.put( id, index );
+		}
+	}
+
+	private static List<String> getIdColumns(Table table) {
+		List<String> idColumns = new ArrayList<String>();
+		PrimaryKey primaryKey = table.getPrimaryKey();
+		if ( primaryKey != null ) {
+			Iterator<Column> columns = primaryKey.getColumnIterator();
+			while ( columns.hasNext() ) {
+				idColumns.add( columns.next().getName() );
+			}
+		}
+		return idColumns;
+	}
+
+	/*
+	 * Same layout as the id objects written by MongoDBDialect: a single id column is the _id field itself, the columns
+	 * of a composite id are nested in it under their short name
+	 */
+	private static String getFieldName(String column, List<String> idColumns) {
+		if ( !idColumns.contains( column ) ) {
+			return column;
+		}
+		if ( idColumns.size() == 1 ) {
+			return MongoDBDialect.ID_FIELDNAME;
+		}
+		int dotIndex = column.indexOf( '.' );
+		return MongoDBDialect.ID_FIELDNAME + "." + ( dotIndex < 0 ? column : column.substring( dotIndex + 1 ) );
+	}
+
+	/*
+	 * An existing index on the same fields in the same order fulfills the definition, if it is unique when required
+	 * and sparse exactly when required: a sparse unique index does not constrain the documents lacking the fields
+	 */
+	private static boolean isIndexed(DBCollection collection, IndexDefinition index) {
+		List<String> expectedFields = new ArrayList<String>( index.keys.keySet() );
+		for ( DBObject existing : collection.getIndexInfo() ) {
+			DBObject existingKeys = (DBObject) existing.get( "key" );
+			if ( existingKeys != null && new ArrayList<String>( existingKeys.keySet() ).equals( expectedFields ) ) {
+				if ( !index.unique ) {
+					return true;
+				}
+				if ( Boolean.TRUE.equals( existing.get( "unique" ) ) && index.sparse == Boolean.TRUE.equals( existing.get( "sparse" ) ) ) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	static class IndexDefinition {
+		final String collection;
+		final String name;
+		final DBObject keys;
+		final boolean unique;
+		final boolean sparse;
+
+		IndexDefinition(String collection, String name, DBObject keys, boolean unique, boolean sparse) {
+			this.collection = collection;
+			this.name = name;
+			this.keys = keys;
+			this.unique = unique;
+			this.sparse = sparse;
+		}
+	}
+}
@@ -23,13 +23,17 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.hibernate.ogm.datastore.mongodb.AssociationStorage;
-import org.hibernate.ogm.datastore.spi.AssociationSnapshot;
+import org.hibernate.ogm.datastore.spi.StreamableAssociationSnapshot;
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.RowKey;
@@ -44,12 +48,13 @@
  * @author Alan Fitton <alan at eth0.org.uk>
  * @author Emmanuel Bernard <emmanuel@hibernate.org>
  */
-public class MongoDBAssociationSnapshot implements AssociationSnapshot {
+public class MongoDBAssociationSnapshot implements StreamableAssociationSnapshot {
 
-	private final Map<RowKey, DBObject> map;
 	private final DBObject dbObject;
-	private AssociationKey associationKey;
-	private AssociationStorage storage;
+	private final AssociationKey associationKey;
+	private final AssociationStorage storage;
+	private final List<String> rowKeyColumnNames;
+	private Map<RowKey, DBObject> map;
 
 	/**
 	 * @param document DBObject containing the association information
@@ -58,47 +63,123 @@ public class MongoDBAssociationSnapshot implements AssociationSnapshot {
 	public MongoDBAssociationSnapshot(DBObject document, AssociationKey key, AssociationStorage storage) {
 		this.storage = storage;
 		this.dbObject = document;
-		this.map = new LinkedHashMap<RowKey, DBObject>();
 		this.associationKey = key;
-		//for each element in the association property
-		for ( DBObject row : getRows() ) {
-			DBObject mongodbColumnData = row;
-			Collection<String> columnNames = Arrays.asList( key.getRowKeyColumnNames() );
-
-			//build data to construct the associated RowKey is column names and values
-			List<Object> columnValues = new ArrayList<Object>();
-			for ( String columnKey : columnNames ) {
-				boolean getFromMongoData = true;
-				int length = key.getColumnNames().length;
-				// try and find the value in the key metadata
-				for ( int index = 0 ; index < length; index++ ) {
-					String assocColumn = key.getColumnNames()[index];
-					if ( assocColumn.equals( columnKey ) ) {
-						columnValues.add( associationKey.getColumnValues()[index] );
-						getFromMongoData = false;
-						break;
-					}
+		this.rowKeyColumnNames = Arrays.asList( key.getRowKeyColumnNames() );
+	}
+
+	/*
+	 * Only built when a row is looked up by key; the document may hold several rows with the same key, the map
+	 * keeps one per key (at the position of the first one, with the content of the last one)
+	 */
+	private Map<RowKey, DBObject> getMap() {
+		if ( map == null ) {
+			Collection<DBObject> rows = getRowDocuments();
+			Map<RowKey, DBObject> rowsPerKey = new LinkedHashMap<RowKey, DBObject>( rows == null ? 0 : rows.size() );
+			if ( rows != null ) {
+				for ( DBObject row : rows ) {
+					rowsPerKey.put( getRowKey( row ), row );
 				}
-				//otherwise read it from the database structure
-				if ( getFromMongoData == true ) {
-					columnValues.add( mongodbColumnData.get( columnKey ) );
+			}
+			map = rowsPerKey;
+		}
+		return map;
+	}
+
+	private RowKey getRowKey(DBObject mongodbColumnData) {
+		//build data to construct the associated RowKey is column names and values
+		List<Object> columnValues = new ArrayList<Object>( rowKeyColumnNames.size() );
+		for ( String columnKey : rowKeyColumnNames ) {
+			boolean getFromMongoData = true;
+			int length = associationKey.getColumnNames().length;
+			// try and find the value in the key metadata
+			for ( int index = 0 ; index < length; index++ ) {
+				String assocColumn = associationKey.getColumnNames()[index];
+				if ( assocColumn.equals( columnKey ) ) {
+					columnValues.add( associationKey.getColumnValues()[index] );
+					getFromMongoData = false;
+					break;
 				}
 			}
-			RowKey rowKey = new RowKey(
-					key.getTable(),
-					columnNames.toArray( new String[columnNames.size()] ),
-					columnValues.toArray() );
-			//Stock database structure per RowKey
-			this.map.put( rowKey, row );
+			//otherwise read it from the database structure
+			if ( getFromMongoData == true ) {
+				columnValues.add( mongodbColumnData.get( columnKey ) );
+			}
 		}
+		return new RowKey(
+				associationKey.getTable(),
+				rowKeyColumnNames.toArray( new String[rowKeyColumnNames.size()] ),
+				columnValues.toArray() );
 	}
 
 	@Override
 	public Tuple get(RowKey column) {
-		DBObject row = this.map.get( column );
+		DBObject row = getMap().get( column );
 		return row == null ? null : new Tuple( new MongoDBTupleSnapshot( row, column ) );
 	}
 
+	/**
+	 * The rows are streamed from the document, a row whose {@link RowKey} has already been returned is skipped.
+	 * Only the keys returned so far are retained, not the rows; when the rows have already been looked up by key,
+	 * the map built for it is iterated instead.
+	 * Note that for duplicate keys the first row is returned here, while a lookup by key sees the last one.
+	 */
+	@Override
+	public Iterator<Tuple> getRows() {
+		if ( map != null ) {
+			final Iterator<Map.Entry<RowKey, DBObject>> entries = map.entrySet().iterator();
+			return new Iterator<Tuple>() {
+				@Override
+				public boolean hasNext() {
+					return entries.hasNext();
+				}
+
+				@Override
+				public Tuple next() {
+					Map.Entry<RowKey, DBObject> entry = entries.next();
+					return new Tuple( new MongoDBTupleSnapshot( entry.getValue(), entry.getKey() ) );
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+		Collection<DBObject> rows = getRowDocuments();
+		final Iterator<DBObject> documents = rows == null ? Collections.<DBObject>emptyList().iterator() : rows.iterator();
+		final Set<RowKey> returnedKeys = new HashSet<RowKey>();
+		return new Iterator<Tuple>() {
+			private Tuple next;
+
+			@Override
+			public boolean hasNext() {
+				while ( next == null && documents.hasNext() ) {
+					DBObject row = documents.next();
+					RowKey rowKey = getRowKey( row );
+					if ( returnedKeys.add( rowKey ) ) {
+						next = new Tuple( new MongoDBTupleSnapshot( row, rowKey ) );
+					}
+				}
+				return next != null;
+			}
+
+			@Override
+			public Tuple next() {
+				if ( !hasNext() ) {
+					throw new NoSuchElementException();
+				}
+				Tuple row = next;
+				next = null;
+				return row;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
 	//not for embedded
 	public DBObject getQueryObject() {
 		DBObject query = new BasicDBObject();
@@ -108,16 +189,16 @@ public DBObject getQueryObject() {
 
 	@Override
 	public boolean containsKey(RowKey column) {
-		return map.containsKey( column );
+		return getMap().containsKey( column );
 	}
 
 	@Override
 	public int size() {
-		return map.size();
+		return getMap().size();
 	}
 
 	@SuppressWarnings("unchecked")
-	private Collection<DBObject> getRows() {
+	private Collection<DBObject> getRowDocuments() {
 		if ( isEmbeddedInEntity( associationKey, storage ) ) {
 			return getAssociationFieldOrNull( associationKey, dbObject );
 		}
@@ -127,12 +208,12 @@ private Collection<DBObject> getRows() {
 	}
 
 	public DBObject getRowKeyDBObject(RowKey rowKey) {
-		return map.get( rowKey );
+		return getMap().get( rowKey );
 	}
 
 	@Override
 	public Set<RowKey> getRowKeys() {
-		return map.keySet();
+		return getMap().keySet();
 	}
 
 	public DBObject getDBObject() {
@@ -143,7 +224,8 @@ public DBObject getDBObject() {
 	public String toString() {
 		final StringBuilder sb = new StringBuilder();
 		sb.append( "MongoDBAssociationSnapshot(" );
-		sb.append( map.size() );
+		Collection<DBObject> rows = getRowDocuments();
+		sb.append( rows == null ? 0 : rows.size() );
 		sb.append( ") RowKey entries)." );
 		return sb.toString();
 	}
@@ -20,8 +20,16 @@
  */
 package org.hibernate.ogm.dialect.mongodb;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Pattern;
 
 import org.hibernate.HibernateException;
@@ -31,6 +39,7 @@
 import org.hibernate.id.IntegralDataTypeHolder;
 import org.hibernate.ogm.datastore.impl.EmptyTupleSnapshot;
 import org.hibernate.ogm.datastore.mongodb.Environment;
+import org.hibernate.ogm.datastore.mongodb.impl.DocumentNearCache;
 import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
 import org.hibernate.ogm.datastore.spi.Association;
 import org.hibernate.ogm.datastore.spi.AssociationContext;
@@ -38,7 +47,12 @@
 import org.hibernate.ogm.datastore.spi.Tuple;
 import org.hibernate.ogm.datastore.spi.TupleContext;
 import org.hibernate.ogm.datastore.spi.TupleOperation;
-import org.hibernate.ogm.dialect.GridDialect;
+import org.hibernate.ogm.datastore.spi.TupleOperationType;
+import org.hibernate.ogm.dialect.AsyncGridDialect;
+import org.hibernate.ogm.dialect.BatchableGridDialect;
+import org.hibernate.ogm.dialect.BlindWriteGridDialect;
+import org.hibernate.ogm.dialect.mongodb.MongoDBTupleSnapshot.SnapshotType;
+import org.hibernate.ogm.dialect.mongodb.TupleWriteQueue.PendingTupleWrite;
 import org.hibernate.ogm.grid.AssociationKey;
 import org.hibernate.ogm.grid.EntityKey;
 import org.hibernate.ogm.grid.RowKey;
@@ -50,10 +64,14 @@
 import org.hibernate.ogm.type.ByteStringType;
 import org.hibernate.type.StandardBasicTypes;
 
+import com.mongodb.AggregationOutput;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import com.mongodb.WriteConcern;
 import org.hibernate.type.Type;
 
 import static org.hibernate.ogm.dialect.mongodb.MongoHelpers.addEmptyAssociationField;
@@ -75,11 +93,14 @@
  * Collection of embeddable are stored within the owning entity document under the
  * unqualified collection role
  *
+ * During a flush, tuple writes are queued and sent at the end of the flush: new documents are inserted
+ * and removed documents deleted in bulk per collection (see {@link Environment#MONGODB_BATCH_SIZE}).
+ *
  * @author Guillaume Scheibel <guillaume.scheibel@gmail.com>
  * @author Alan Fitton <alan at eth0.org.uk>
  * @author Emmanuel Bernard <emmanuel@hibernate.org>
  */
-public class MongoDBDialect implements GridDialect {
+public class MongoDBDialect implements BatchableGridDialect, AsyncGridDialect, BlindWriteGridDialect {
 
 	private static final Log log = LoggerFactory.getLogger();
 	private static final Integer ONE = Integer.valueOf( 1 );
@@ -96,10 +117,13 @@ public class MongoDBDialect implements GridDialect {
 
 	private final MongoDBDatastoreProvider provider;
 	private final DB currentDB;
+	private final int batchSize;
+	private final ThreadLocal<TupleWriteQueue> writeQueue = new ThreadLocal<TupleWriteQueue>();
 
 	public MongoDBDialect(MongoDBDatastoreProvider provider) {
 		this.provider = provider;
 		this.currentDB = this.provider.getDatabase();
+		this.batchSize = this.provider.getBatchSize();
 	}
 
 	@Override
@@ -109,14 +133,83 @@ public LockingStrategy getLockingStrategy(Lockable lockable, LockMode lockMode)
 
 	@Override
 	public  Tuple getTuple(EntityKey key, TupleContext tupleContext){
+		this.applyPendingWrites();
 		DBObject found = this.getObject( key, tupleContext );
-		return found != null ? new Tuple( new MongoDBTupleSnapshot( found, key ) ) : null;
+		return found != null ? new Tuple( new MongoDBTupleSnapshot( found, key ), tupleContext ) : null;
 	}
 
+	/**
+	 * Load all the documents of a given collection with a single {@code $in} query on {@code _id}
+	 */
 	@Override
-	public Tuple createTuple(EntityKey key) {
+	public List<Tuple> getTuples(List<EntityKey> keys, TupleContext tupleContext) {
+		this.applyPendingWrites();
+		DocumentNearCache nearCache = provider.getNearCache();
+		long nearCacheInvalidations = nearCache != null ? nearCache.getInvalidationCount() : 0;
+		Map<EntityKey, DBObject> cachedDocuments = new HashMap<EntityKey, DBObject>();
+		Map<String, List<Object>> idValuesPerTable = new HashMap<String, List<Object>>();
+		for ( EntityKey key : keys ) {
+			if ( nearCache != null && nearCache.isCached( key.getTable() ) ) {
+				DBObject cached = nearCache.getIfFresh( key, tupleContext );
+				if ( cached != null ) {
+					cachedDocuments.put( key, cached );
+					continue;
+				}
+			}
+			List<Object> idValues = idValuesPerTable.get( key.getTable() );
+			if ( idValues == null ) {
+				idValues = new ArrayList<Object>();
+				idValuesPerTable.put( key.getTable(), idValues );
+			}
+			idValues.add( this.prepareIdObject( key ).get( ID_FIELDNAME ) );
+		}
+
+		BasicDBObject restrictionObject = this.getSearchObject( tupleContext );
+		Map<String, Map<Object, DBObject>> foundPerTable = new HashMap<String, Map<Object, DBObject>>();
+		for ( Map.Entry<String, List<Object>> entry : idValuesPerTable.entrySet() ) {
+			DBObject searchObject = new BasicDBObject( ID_FIELDNAME, new BasicDBObject( "$in", entry.getValue() ) );
+			Map<Object, DBObject> found = new HashMap<Object, DBObject>();
+			DBCursor cursor = this.getCollection( entry.getKey() ).find( searchObject, restrictionObject );
+			try {
+				while ( cursor.hasNext() ) {
+					DBObject document = cursor.next();
+					found.put( document.get( ID_FIELDNAME ), document );
+				}
+			}
+			finally {
+				cursor.close();
+			}
+			foundPerTable.put( entry.getKey(), found );
+		}
+
+		List<Tuple> tuples = new ArrayList<Tuple>( keys.size() );
+		for ( EntityKey key : keys ) {
+			DBObject found = cachedDocuments.get( key );
+			if ( found == null ) {
+				found = foundPerTable.get( key.getTable() ).get( this.prepareIdObject( key ).get( ID_FIELDNAME ) );
+				if ( found != null && nearCache != null && nearCache.isCached( key.getTable() ) ) {
+					nearCache.put( key, tupleContext, found, nearCacheInvalidations );
+				}
+			}
+			tuples.add( found != null ? new Tuple( new MongoDBTupleSnapshot( found, key ), tupleContext ) : null );
+		}
+		return tuples;
+	}
+
+	@Override
+	public Tuple createTuple(EntityKey key, TupleContext tupleContext) {
 		DBObject toSave = this.prepareIdObject( key );
-		return new Tuple( new MongoDBTupleSnapshot( toSave, key ) );
+		return new Tuple( new MongoDBTupleSnapshot( toSave, key, SnapshotType.INSERT ), tupleContext );
+	}
+
+	/**
+	 * The changes are sent as {@code $set} / {@code $unset} on the {@code _id} of the document: the snapshot only
+	 * contains the identifier, the document is not read
+	 */
+	@Override
+	public Tuple createTupleForUpdate(EntityKey key, TupleContext tupleContext) {
+		DBObject idObject = this.prepareIdObject( key );
+		return new Tuple( new MongoDBTupleSnapshot( idObject, key, SnapshotType.UPDATE ), tupleContext );
 	}
 
 	private DBObject getObjectAsEmbeddedAssociation(AssociationKey key) {
@@ -130,9 +223,23 @@ private DBObject getObject(EntityKey key, TupleContext tupleContext) {
 		DBCollection collection = this.getCollection( key );
 		DBObject searchObject = this.prepareIdObject( key );
 		BasicDBObject restrictionObject = this.getSearchObject( tupleContext );
+		DocumentNearCache nearCache = provider.getNearCache();
+		if ( nearCache != null && nearCache.isCached( key.getTable() ) ) {
+			return nearCache.getDocument( key, tupleContext, collection, searchObject, restrictionObject );
+		}
 		return collection.findOne( searchObject, restrictionObject );
 	}
 
+	/**
+	 * Remove a document from the near-cache; to be called once the document has been written.
+	 */
+	private void invalidate(EntityKey key) {
+		DocumentNearCache nearCache = provider.getNearCache();
+		if ( nearCache != null ) {
+			nearCache.invalidate( key );
+		}
+	}
+
 	private BasicDBObject getSearchObject(TupleContext tupleContext){
 		return this.getSearchObject( tupleContext.getSelectableColumns() );
 	}
@@ -220,7 +327,8 @@ private void addSubQuery(String operator, BasicDBObject query, String column, Ob
 	public void updateTuple(Tuple tuple, EntityKey key) {
 		MongoDBTupleSnapshot snapshot = (MongoDBTupleSnapshot) tuple.getSnapshot();
 
-		BasicDBObject updater = new BasicDBObject();
+		BasicDBObject setFields = new BasicDBObject();
+		BasicDBObject unsetFields = new BasicDBObject();
 		for ( TupleOperation operation : tuple.getOperations() ) {
 			String column = operation.getColumn();
 			if ( !column.equals( ID_FIELDNAME ) && !column.endsWith( PROPERTY_SEPARATOR + ID_FIELDNAME ) && !snapshot.columnInIdField(
@@ -228,35 +336,257 @@ public void updateTuple(Tuple tuple, EntityKey key) {
 			) ) {
 				switch ( operation.getType() ) {
 				case PUT_NULL:
+					//a null column covered by a sparse unique index is not stored, so that the index ignores it
+					if ( provider.isSparseField( key.getTable(), column ) ) {
+						unsetFields.put( column, ONE );
+						setFields.remove( column );
+						break;
+					}
 				case PUT:
-					this.addSubQuery( "$set", updater, column, operation.getValue() );
+					setFields.put( column, operation.getValue() );
+					unsetFields.remove( column );
 					break;
 				case REMOVE:
-					this.addSubQuery( "$unset", updater, column, ONE );
+					unsetFields.put( column, ONE );
+					setFields.remove( column );
 					break;
 				}
 			}
 		}
 		BasicDBObject idObject = this.prepareIdObject( key );
-		/*
-		* Needed because in case of object with only an ID field
-		* the "_id" won't be persisted properly.
-		* With this adjustment, it will work like this:
-		*	if the object (from snapshot) doesn't exist so create the one represented by updater
-		*	so if at this moment the "_id" is not enforce properly an ObjectID will be crated by the server instead
-		*	of the custom id
-		 */
-		if ( updater.size() == 0 ) {
-			updater = idObject;
+		boolean insert = snapshot.getSnapshotType() == SnapshotType.INSERT;
+
+		TupleWriteQueue queue = writeQueue.get();
+		if ( queue == null ) {
+			PendingTupleWrite write = new PendingTupleWrite( idObject, setFields, unsetFields, TupleWriteQueue.WriteType.UPDATE );
+			this.getCollection( key ).update( idObject, write.getUpdater(), true, false );
+			this.invalidate( key );
+		}
+		else {
+			if ( !queue.addWrite( key, idObject, setFields, unsetFields, insert ) ) {
+				//the document is about to be removed: keep the order of the operations
+				this.applyPendingWrites( queue );
+				queue.addWrite( key, idObject, setFields, unsetFields, insert );
+			}
+			if ( queue.size() >= batchSize ) {
+				this.applyPendingWrites( queue );
+			}
+		}
+	}
+
+	/**
+	 * The document is written with an acknowledged {@code insert}: the unique index on {@code _id} rejects an
+	 * existing document, whatever the write concern of the collection. When a batch is active, the duplicate is
+	 * only reported once the pending writes are applied, see {@link #createDocuments(DBCollection, List)}.
+	 */
+	@Override
+	public void insertTuple(Tuple tuple, EntityKey key) {
+		List<String> idColumnNames = Arrays.asList( key.getColumnNames() );
+		BasicDBObject setFields = new BasicDBObject();
+		for ( TupleOperation operation : tuple.getOperations() ) {
+			String column = operation.getColumn();
+			if ( operation.getType() != TupleOperationType.REMOVE && !column.equals( ID_FIELDNAME )
+					&& !column.endsWith( PROPERTY_SEPARATOR + ID_FIELDNAME ) && !idColumnNames.contains( column )
+					&& !( operation.getType() == TupleOperationType.PUT_NULL && provider.isSparseField( key.getTable(), column ) ) ) {
+				setFields.put( column, operation.getValue() );
+			}
+		}
+		BasicDBObject idObject = this.prepareIdObject( key );
+
+		TupleWriteQueue queue = writeQueue.get();
+		if ( queue == null ) {
+			PendingTupleWrite write = new PendingTupleWrite( idObject, setFields, new BasicDBObject(), TupleWriteQueue.WriteType.CREATE );
+			this.createDocuments( this.getCollection( key ), Collections.singletonList( write ) );
+			this.invalidate( key );
+		}
+		else {
+			if ( !queue.addCreation( key, idObject, setFields ) ) {
+				this.applyPendingWrites( queue );
+				queue.addCreation( key, idObject, setFields );
+			}
+			if ( queue.size() >= batchSize ) {
+				this.applyPendingWrites( queue );
+			}
 		}
-		this.getCollection( key ).update( idObject, updater, true, false );
 	}
 
 	@Override
 	public void removeTuple(EntityKey key) {
-		DBCollection collection = this.getCollection( key );
-		DBObject toDelete = this.prepareIdObject( key );
-		collection.remove( toDelete );
+		BasicDBObject toDelete = this.prepareIdObject( key );
+		TupleWriteQueue queue = writeQueue.get();
+		if ( queue == null ) {
+			DBCollection collection = this.getCollection( key );
+			collection.remove( toDelete );
+			this.invalidate( key );
+		}
+		else {
+			queue.addRemoval( key, toDelete );
+			if ( queue.size() >= batchSize ) {
+				this.applyPendingWrites( queue );
+			}
+		}
+	}
+
+	@Override
+	public void prepareBatch() {
+		if ( batchSize <= 1 ) {
+			return;
+		}
+		TupleWriteQueue queue = writeQueue.get();
+		if ( queue == null ) {
+			writeQueue.set( new TupleWriteQueue() );
+		}
+		else {
+			queue.nest();
+		}
+	}
+
+	@Override
+	public void executeBatch() {
+		TupleWriteQueue queue = writeQueue.get();
+		if ( queue == null || !queue.unnest() ) {
+			return;
+		}
+		try {
+			this.applyPendingWrites( queue );
+		}
+		finally {
+			writeQueue.remove();
+		}
+	}
+
+	@Override
+	public void clearBatch() {
+		TupleWriteQueue queue = writeQueue.get();
+		//a nested flush leaves the queue, and the writes it shares with it, to the outer flush
+		if ( queue != null && queue.unnest() ) {
+			writeQueue.remove();
+		}
+	}
+
+	/**
+	 * Send the tuple writes queued by the current thread if any.
+	 * Must be called before any other access to the datastore so that the session reads its own writes.
+	 */
+	private void applyPendingWrites() {
+		TupleWriteQueue queue = writeQueue.get();
+		if ( queue != null ) {
+			this.applyPendingWrites( queue );
+		}
+	}
+
+	private void applyPendingWrites(TupleWriteQueue queue) {
+		if ( queue.isEmpty() ) {
+			return;
+		}
+		Map<String, List<PendingTupleWrite>> insertsPerTable = new HashMap<String, List<PendingTupleWrite>>();
+		Map<String, List<PendingTupleWrite>> creationsPerTable = new HashMap<String, List<PendingTupleWrite>>();
+		Map<String, List<PendingTupleWrite>> removalsPerTable = new HashMap<String, List<PendingTupleWrite>>();
+		List<EntityKey> writtenKeys = new ArrayList<EntityKey>( queue.size() );
+		for ( Map.Entry<EntityKey, PendingTupleWrite> entry : queue.drain() ) {
+			writtenKeys.add( entry.getKey() );
+			PendingTupleWrite write = entry.getValue();
+			String table = entry.getKey().getTable();
+			switch ( write.type ) {
+			case INSERT:
+				addToTable( insertsPerTable, table, write );
+				break;
+			case CREATE:
+				addToTable( creationsPerTable, table, write );
+				break;
+			case UPDATE:
+				this.getCollection( table ).update( write.idObject, write.getUpdater(), true, false );
+				break;
+			case REMOVE:
+				addToTable( removalsPerTable, table, write );
+				break;
+			}
+		}
+		for ( Map.Entry<String, List<PendingTupleWrite>> entry : insertsPerTable.entrySet() ) {
+			DBCollection collection = this.getCollection( entry.getKey() );
+			List<PendingTupleWrite> inserts = entry.getValue();
+			for ( int start = 0; start < inserts.size(); start += batchSize ) {
+				this.insertDocuments( collection, inserts.subList( start, Math.min( start + batchSize, inserts.size() ) ) );
+			}
+		}
+		for ( Map.Entry<String, List<PendingTupleWrite>> entry : creationsPerTable.entrySet() ) {
+			DBCollection collection = this.getCollection( entry.getKey() );
+			List<PendingTupleWrite> creations = entry.getValue();
+			for ( int start = 0; start < creations.size(); start += batchSize ) {
+				this.createDocuments( collection, creations.subList( start, Math.min( start + batchSize, creations.size() ) ) );
+			}
+		}
+		for ( Map.Entry<String, List<PendingTupleWrite>> entry : removalsPerTable.entrySet() ) {
+			DBCollection collection = this.getCollection( entry.getKey() );
+			List<PendingTupleWrite> removals = entry.getValue();
+			for ( int start = 0; start < removals.size(); start += batchSize ) {
+				List<PendingTupleWrite> chunk = removals.subList( start, Math.min( start + batchSize, removals.size() ) );
+				collection.remove( new BasicDBObject( ID_FIELDNAME, new BasicDBObject( "$in", PendingTupleWrite.idValues( chunk ) ) ) );
+			}
+		}
+		for ( EntityKey key : writtenKeys ) {
+			this.invalidate( key );
+		}
+	}
+
+	private static void addToTable(Map<String, List<PendingTupleWrite>> writesPerTable, String table, PendingTupleWrite write) {
+		List<PendingTupleWrite> writes = writesPerTable.get( table );
+		if ( writes == null ) {
+			writes = new ArrayList<PendingTupleWrite>();
+			writesPerTable.put( table, writes );
+		}
+		writes.add( write );
+	}
+
+	/**
+	 * Insert the new documents in one go. A document might already exist, typically when an association
+	 * stored in the entity document has been written first; in that case we fall back to upserts which,
+	 * unlike inserts, merge the columns into the existing document.
+	 */
+	private void insertDocuments(DBCollection collection, List<PendingTupleWrite> inserts) {
+		//without acknowledgement we would not be notified of a duplicate document
+		if ( collection.getWriteConcern().callGetLastError() ) {
+			List<DBObject> documents = new ArrayList<DBObject>( inserts.size() );
+			for ( PendingTupleWrite insert : inserts ) {
+				documents.add( insert.getDocument() );
+			}
+			try {
+				collection.insert( documents );
+				return;
+			}
+			catch ( MongoException.DuplicateKey e ) {
+				//upserts are idempotent, re-apply all the documents of the batch
+			}
+		}
+		for ( PendingTupleWrite insert : inserts ) {
+			collection.update( insert.idObject, insert.getUpdater(), true, false );
+		}
+	}
+
+	/**
+	 * Insert new documents which must not exist yet.
+	 * <p>
+	 * An unacknowledged insert of an existing {@code _id} is silently dropped by the server, so the insert is
+	 * acknowledged even if the write concern of the collection is not. MongoDB does not roll back a bulk insert: the
+	 * documents are inserted in order and the insert stops at the first duplicate, the documents preceding it in
+	 * the list being written. Within a batch, that happens when the pending writes are applied, typically in
+	 * {@link #executeBatch()} at flush time, after the other writes of the batch.
+	 */
+	private void createDocuments(DBCollection collection, List<PendingTupleWrite> creations) {
+		List<DBObject> documents = new ArrayList<DBObject>( creations.size() );
+		for ( PendingTupleWrite creation : creations ) {
+			documents.add( creation.getDocument() );
+		}
+		WriteConcern writeConcern = collection.getWriteConcern();
+		if ( !writeConcern.callGetLastError() ) {
+			writeConcern = WriteConcern.ACKNOWLEDGED;
+		}
+		try {
+			collection.insert( documents, writeConcern.continueOnErrorForInsert( false ) );
+		}
+		catch ( MongoException.DuplicateKey e ) {
+			throw log.documentAlreadyExists( collection.getName(), documents.size(), e );
+		}
 	}
 
 	//not for embedded
@@ -276,6 +606,7 @@ private DBObject getSearchObject(AssociationKey key, boolean embedded) {
 
 	@Override
 	public Association getAssociation(AssociationKey key, AssociationContext associationContext) {
+		this.applyPendingWrites();
 		if ( isEmbeddedInEntity( key, provider.getAssociationStorage() ) ) {
 			DBObject entity = getObjectAsEmbeddedAssociation( key );
 			if ( getAssociationFieldOrNull( key, entity ) != null ) {
@@ -293,6 +624,92 @@ public Association getAssociation(AssociationKey key, AssociationContext associa
 		}
 	}
 
+	/**
+	 * Count the rows on the server side so that the rows are never sent over the wire
+	 */
+	@Override
+	public int getAssociationSize(AssociationKey key) {
+		this.applyPendingWrites();
+		DBCollection collection;
+		DBObject query;
+		String associationField;
+		if ( isEmbeddedInEntity( key, provider.getAssociationStorage() ) ) {
+			collection = this.getCollection( key.getEntityKey() );
+			query = this.prepareIdObject( key.getEntityKey() );
+			associationField = key.getCollectionRole();
+		}
+		else {
+			collection = getAssociationCollection( key );
+			query = MongoHelpers.associationKeyToObject( provider.getAssociationStorage(), key );
+			associationField = ROWS_FIELDNAME;
+		}
+		AggregationOutput output = collection.aggregate(
+				new BasicDBObject( "$match", query ),
+				new BasicDBObject( "$project", new BasicDBObject( associationField, ONE ) ),
+				new BasicDBObject( "$unwind", "$" + associationField ),
+				new BasicDBObject( "$group", new BasicDBObject( ID_FIELDNAME, null ).append( "size", new BasicDBObject( "$sum", ONE ) ) )
+		);
+		for ( DBObject result : output.results() ) {
+			return ( (Number) result.get( "size" ) ).intValue();
+		}
+		return 0;
+	}
+
+	@Override
+	public boolean containsRow(AssociationKey key, RowKey rowKey) {
+		this.applyPendingWrites();
+		return findAssociationRow( key, rowKey, false ) != null;
+	}
+
+	@Override
+	public Tuple getRow(AssociationKey key, RowKey rowKey) {
+		this.applyPendingWrites();
+		DBObject document = findAssociationRow( key, rowKey, true );
+		if ( document == null ) {
+			return null;
+		}
+		List<?> rows = isEmbeddedInEntity( key, provider.getAssociationStorage() )
+				? (List<?>) getAssociationFieldOrNull( key, document )
+				: (List<?>) document.get( ROWS_FIELDNAME );
+		if ( rows == null || rows.isEmpty() ) {
+			return null;
+		}
+		return new Tuple( new MongoDBTupleSnapshot( (DBObject) rows.get( 0 ), rowKey ) );
+	}
+
+	/**
+	 * Look the row up with $elemMatch; the positional projection only sends the matching row back
+	 */
+	private DBObject findAssociationRow(AssociationKey key, RowKey rowKey, boolean withRow) {
+		DBCollection collection;
+		DBObject query;
+		String associationField;
+		if ( isEmbeddedInEntity( key, provider.getAssociationStorage() ) ) {
+			collection = this.getCollection( key.getEntityKey() );
+			query = this.prepareIdObject( key.getEntityKey() );
+			associationField = key.getCollectionRole();
+		}
+		else {
+			collection = getAssociationCollection( key );
+			query = MongoHelpers.associationKeyToObject( provider.getAssociationStorage(), key );
+			associationField = ROWS_FIELDNAME;
+		}
+		//the columns of the association key are not stored in the rows
+		DBObject rowCriteria = new BasicDBObject();
+		String[] columnNames = rowKey.getColumnNames();
+		Object[] columnValues = rowKey.getColumnValues();
+		for ( int index = 0; index < columnNames.length; index++ ) {
+			if ( MongoHelpers.getValueFromColumns( columnNames[index], key.getColumnNames(), key.getColumnValues() ) == null ) {
+				rowCriteria.put( columnNames[index], columnValues[index] );
+			}
+		}
+		query.put( associationField, new BasicDBObject( "$elemMatch", rowCriteria ) );
+		DBObject projection = withRow
+				? new BasicDBObject( associationField + ".$", ONE )
+				: new BasicDBObject( ID_FIELDNAME, ONE );
+		return collection.findOne( query, projection );
+	}
+
 	private DBObject getAssociationFieldOrNull(AssociationKey key, DBObject entity) {
 		String[] path = DOT_SEPARATOR_PATTERN.split( key.getCollectionRole() );
 		DBObject field = entity;
@@ -304,6 +721,7 @@ private DBObject getAssociationFieldOrNull(AssociationKey key, DBObject entity)
 
 	@Override
 	public Association createAssociation(AssociationKey key) {
+		this.applyPendingWrites();
 		if ( isEmbeddedInEntity( key, provider.getAssociationStorage() ) ) {
 			DBObject entity = getObjectAsEmbeddedAssociation( key );
 			boolean insert = false;
@@ -320,9 +738,7 @@ public Association createAssociation(AssociationKey key) {
 				else {
 					BasicDBObject updater = new BasicDBObject();
 					this.addSubQuery( "$set", updater, key.getCollectionRole(),  Collections.EMPTY_LIST );
-					//TODO use entity filter with only the ids
-					this.getCollection( key.getEntityKey() ).update( entity, updater, true, false );
-					//adding assoc after update because the query takes the whole object today
+					this.getCollection( key.getEntityKey() ).update( this.prepareIdObject( key.getEntityKey() ), updater, true, false );
 					addEmptyAssociationField( key, entity );
 				}
 			}
@@ -337,12 +753,7 @@ public Association createAssociation(AssociationKey key) {
 		return new Association( new MongoDBAssociationSnapshot( assoc, key, provider.getAssociationStorage() ) );
 	}
 
-	private DBObject removeAssociationRowKey(MongoDBAssociationSnapshot snapshot, RowKey rowKey, String associationField) {
-		DBObject pull = new BasicDBObject( associationField,  snapshot.getRowKeyDBObject( rowKey ) );
-		return new BasicDBObject( "$pull", pull );
-	}
-
-	private DBObject putAssociationRowKey(Tuple value, String associationField, AssociationKey associationKey) {
+	private DBObject getAssociationRow(Tuple value, AssociationKey associationKey) {
 		DBObject rowTupleMap = new BasicDBObject();
 		for ( String valueKeyName : value.getColumnNames() ) {
 			boolean add = true;
@@ -357,12 +768,12 @@ private DBObject putAssociationRowKey(Tuple value, String associationField, Asso
 				rowTupleMap.put( valueKeyName, value.get( valueKeyName ) );
 			}
 		}
-		DBObject row = rowTupleMap;
-		return new BasicDBObject( "$push", new BasicDBObject( associationField, row ) );
+		return rowTupleMap;
 	}
 
 	@Override
 	public void updateAssociation(Association association, AssociationKey key) {
+		this.applyPendingWrites();
 		DBCollection collection;
 		DBObject query;
 		MongoDBAssociationSnapshot assocSnapshot = (MongoDBAssociationSnapshot) association.getSnapshot();
@@ -379,39 +790,58 @@ public void updateAssociation(Association association, AssociationKey key) {
 			associationField = ROWS_FIELDNAME;
 		}
 
+		//all the operations of the association are merged into (at most) two updates
+		//as MongoDB does not allow to push and pull the same field in one update
+		boolean cleared = false;
+		List<DBObject> pushedRows = new ArrayList<DBObject>();
+		List<DBObject> pulledRows = new ArrayList<DBObject>();
 		for ( AssociationOperation action : association.getOperations() ) {
-			RowKey rowKey = action.getKey();
-			Tuple rowValue = action.getValue();
-
-			DBObject update = null;
-
 			switch ( action.getType() ) {
 			case CLEAR:
-				update = new BasicDBObject( "$set", new BasicDBObject (associationField, Collections.EMPTY_LIST ) );
+				cleared = true;
 				break;
 			case PUT_NULL:
 			case PUT:
-				update = putAssociationRowKey( rowValue, associationField, key );
+				pushedRows.add( getAssociationRow( action.getValue(), key ) );
 				break;
 			case REMOVE:
-				update = removeAssociationRowKey( assocSnapshot, rowKey, associationField );
+				//rows added and removed since the association has been read are not in the snapshot
+				DBObject pulledRow = assocSnapshot.getRowKeyDBObject( action.getKey() );
+				if ( pulledRow != null ) {
+					pulledRows.add( pulledRow );
+				}
 				break;
 			}
+		}
 
-			if ( update != null ) {
-				collection.update( query, update, true, false );
+		if ( cleared ) {
+			//operations following a CLEAR only add rows to the empty association
+			collection.update( query, new BasicDBObject( "$set", new BasicDBObject( associationField, pushedRows ) ), true, false );
+		}
+		else {
+			if ( !pulledRows.isEmpty() ) {
+				collection.update( query, new BasicDBObject( "$pullAll", new BasicDBObject( associationField, pulledRows ) ), true, false );
+			}
+			if ( !pushedRows.isEmpty() ) {
+				DBObject each = new BasicDBObject( "$each", pushedRows );
+				collection.update( query, new BasicDBObject( "$push", new BasicDBObject( associationField, each ) ), true, false );
 			}
 		}
+		if ( isEmbeddedInEntity( key, provider.getAssociationStorage() ) ) {
+			this.invalidate( key.getEntityKey() );
+		}
 	}
 
 	@Override
 	public void removeAssociation(AssociationKey key) {
+		this.applyPendingWrites();
 		if ( isEmbeddedInEntity( key, provider.getAssociationStorage() ) ) {
 			DBObject entity = this.prepareIdObject( key.getEntityKey() );
 			if ( entity != null ) {
 				BasicDBObject updater = new BasicDBObject();
 				this.addSubQuery( "$unset", updater, key.getCollectionRole(), ONE );
 				this.getCollection( key.getEntityKey() ).update( entity, updater, true, false );
+				this.invalidate( key.getEntityKey() );
 			}
 		}
 		else {
@@ -423,6 +853,66 @@ public void removeAssociation(AssociationKey key) {
 		}
 	}
 
+	@Override
+	public Future<Tuple> getTupleAsync(final EntityKey key, final TupleContext tupleContext) {
+		//the writes queued by this thread are only visible to this thread
+		this.applyPendingWrites();
+		return this.submit( new Callable<Tuple>() {
+			@Override
+			public Tuple call() {
+				return getTuple( key, tupleContext );
+			}
+		} );
+	}
+
+	@Override
+	public Future<Void> updateTupleAsync(final Tuple tuple, final EntityKey key) {
+		Callable<Void> update = new Callable<Void>() {
+			@Override
+			public Void call() {
+				updateTuple( tuple, key );
+				return null;
+			}
+		};
+		//while batching, the write only goes to the queue of this thread
+		return writeQueue.get() == null ? this.submit( update ) : runNow( update );
+	}
+
+	@Override
+	public Future<Void> updateAssociationAsync(final Association association, final AssociationKey key) {
+		this.applyPendingWrites();
+		return this.submit( new Callable<Void>() {
+			@Override
+			public Void call() {
+				updateAssociation( association, key );
+				return null;
+			}
+		} );
+	}
+
+	@Override
+	public Future<Void> removeAssociationAsync(final AssociationKey key) {
+		this.applyPendingWrites();
+		return this.submit( new Callable<Void>() {
+			@Override
+			public Void call() {
+				removeAssociation( key );
+				return null;
+			}
+		} );
+	}
+
+	private <T> Future<T> submit(Callable<T> operation) {
+		ExecutorService executor = provider.getAsyncExecutor();
+		return executor == null ? runNow( operation ) : executor.submit( operation );
+	}
+
+	private static <T> Future<T> runNow(Callable<T> operation) {
+		FutureTask<T> task = new FutureTask<T>( operation );
+		task.run();
+		return task;
+	}
+
 	@Override
 	public Tuple createTupleAssociation(AssociationKey associationKey, RowKey rowKey) {
 		return new Tuple( EmptyTupleSnapshot.SINGLETON );
@@ -430,6 +920,7 @@ public Tuple createTupleAssociation(AssociationKey associationKey, RowKey rowKey
 
 	@Override
 	public void nextValue(RowKey key, IntegralDataTypeHolder value, int increment, int initialValue) {
+		this.applyPendingWrites();
 		DBCollection currentCollection = this.currentDB.getCollection( key.getTable() );
 		DBObject query = this.prepareIdObject( key );
 		//all columns should match to find the value
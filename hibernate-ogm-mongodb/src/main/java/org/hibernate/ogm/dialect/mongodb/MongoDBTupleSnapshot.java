@@ -46,6 +46,7 @@ public class MongoDBTupleSnapshot implements TupleSnapshot {
 	public static final Pattern EMBEDDED_FIELDNAME_SEPARATOR = Pattern.compile( "\\." );
 	private final RowKey rowKey;
 	private final EntityKey entityKey;
+	private final SnapshotType snapshotType;
 
 	//use it so it avoids multiple calls to Arrays.asList()
 	private final List<String> columnNames;
@@ -57,13 +58,19 @@ public MongoDBTupleSnapshot(DBObject dbObject, RowKey rowKey) {
 		this.rowKey = rowKey;
 		this.entityKey = null;
 		this.columnNames = null;
+		this.snapshotType = SnapshotType.UPDATE;
 	}
 
 	public MongoDBTupleSnapshot(DBObject dbObject, EntityKey entityKey) {
+		this( dbObject, entityKey, SnapshotType.UPDATE );
+	}
+
+	public MongoDBTupleSnapshot(DBObject dbObject, EntityKey entityKey, SnapshotType snapshotType) {
 		this.dbObject = dbObject;
 		this.entityKey = entityKey;
 		this.columnNames  = Arrays.asList( entityKey.getColumnNames());
 		this.rowKey = null;
+		this.snapshotType = snapshotType;
 	}
 
 	@Override
@@ -132,4 +139,16 @@ public boolean isEmpty() {
 	public boolean columnInIdField(String column) {
 		return (this.columnNames == null) ? false : this.columnNames.contains( column );
 	}
+
+	public SnapshotType getSnapshotType() {
+		return snapshotType;
+	}
+
+	/**
+	 * Whether the snapshot represents a document not yet written to MongoDB ({@code INSERT})
+	 * or a document read from it ({@code UPDATE})
+	 */
+	public enum SnapshotType {
+		INSERT, UPDATE
+	}
 }
@@ -0,0 +1,206 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.dialect.mongodb;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.ogm.grid.EntityKey;
+
+import com.mongodb.BasicDBObject;
+
+/**
+ * The tuple writes of the current flush not yet sent to MongoDB.
+ *
+ * Writes are coalesced per {@link EntityKey}: a key has at most one pending write,
+ * updates of an already queued document are merged into the pending write.
+ *
+ * Not thread safe, each thread uses its own queue.
+ */
+class TupleWriteQueue {
+
+	private final Map<EntityKey, PendingTupleWrite> pendingWrites = new LinkedHashMap<EntityKey, PendingTupleWrite>();
+	private int depth = 1;
+
+	/**
+	 * A flush happening while this queue is in use shares it
+	 */
+	void nest() {
+		depth++;
+	}
+
+	/**
+	 * @return {@code true} if the outermost flush is over and the writes have to be applied
+	 */
+	boolean unnest() {
+		return --depth == 0;
+	}
+
+	/**
+	 * Queue a write for the document of the given key
+	 *
+	 * @return {@code false} if the write cannot be merged with the pending one (the document is about to be removed),
+	 * in which case the pending writes must be applied before queueing it again
+	 */
+	boolean addWrite(EntityKey key, BasicDBObject idObject, BasicDBObject setFields, BasicDBObject unsetFields, boolean insert) {
+		PendingTupleWrite pending = pendingWrites.get( key );
+		if ( pending == null ) {
+			pendingWrites.put( key, new PendingTupleWrite( idObject, setFields, unsetFields, insert ? WriteType.INSERT : WriteType.UPDATE ) );
+			return true;
+		}
+		if ( pending.type == WriteType.REMOVE ) {
+			return false;
+		}
+		pending.merge( setFields, unsetFields );
+		return true;
+	}
+
+	/**
+	 * Queue the insertion of a document which must not exist yet
+	 *
+	 * @return {@code false} if a write is already pending for the document, in which case the pending writes must be
+	 * applied before queueing it again
+	 */
+	boolean addCreation(EntityKey key, BasicDBObject idObject, BasicDBObject setFields) {
+		if ( pendingWrites.containsKey( key ) ) {
+			return false;
+		}
+		pendingWrites.put( key, new PendingTupleWrite( idObject, setFields, new BasicDBObject(), WriteType.CREATE ) );
+		return true;
+	}
+
+	void addRemoval(EntityKey key, BasicDBObject idObject) {
+		PendingTupleWrite pending = pendingWrites.get( key );
+		if ( pending == null ) {
+			pendingWrites.put( key, new PendingTupleWrite( idObject, new BasicDBObject(), new BasicDBObject(), WriteType.REMOVE ) );
+		}
+		else {
+			//a document inserted in the same flush might still exist if something else upserted it in the mean time
+			pending.type = WriteType.REMOVE;
+			pending.setFields.clear();
+			pending.unsetFields.clear();
+		}
+	}
+
+	int size() {
+		return pendingWrites.size();
+	}
+
+	boolean isEmpty() {
+		return pendingWrites.isEmpty();
+	}
+
+	/**
+	 * @return the pending writes in the order they have been queued and empty the queue
+	 */
+	List<Map.Entry<EntityKey, PendingTupleWrite>> drain() {
+		List<Map.Entry<EntityKey, PendingTupleWrite>> writes = new ArrayList<Map.Entry<EntityKey, PendingTupleWrite>>( pendingWrites.entrySet() );
+		pendingWrites.clear();
+		return writes;
+	}
+
+	/**
+	 * {@code INSERT} creates the document or merges into it if it already exists,
+	 * {@code CREATE} fails if it already exists
+	 */
+	enum WriteType {
+		INSERT, CREATE, UPDATE, REMOVE
+	}
+
+	static class PendingTupleWrite {
+		final BasicDBObject idObject;
+		final BasicDBObject setFields;
+		final BasicDBObject unsetFields;
+		WriteType type;
+
+		PendingTupleWrite(BasicDBObject idObject, BasicDBObject setFields, BasicDBObject unsetFields, WriteType type) {
+			this.idObject = idObject;
+			this.setFields = setFields;
+			this.unsetFields = unsetFields;
+			this.type = type;
+		}
+
+		void merge(BasicDBObject newSetFields, BasicDBObject newUnsetFields) {
+			for ( String column : newSetFields.keySet() ) {
+				setFields.put( column, newSetFields.get( column ) );
+				unsetFields.remove( column );
+			}
+			for ( String column : newUnsetFields.keySet() ) {
+				unsetFields.put( column, newUnsetFields.get( column ) );
+				setFields.remove( column );
+			}
+		}
+
+		/**
+		 * The update applied to the document: it creates the document if needed
+		 */
+		BasicDBObject getUpdater() {
+			BasicDBObject updater = new BasicDBObject();
+			if ( !setFields.isEmpty() ) {
+				updater.put( "$set", setFields );
+			}
+			if ( !unsetFields.isEmpty() ) {
+				updater.put( "$unset", unsetFields );
+			}
+			/*
+			* Needed because in case of object with only an ID field
+			* the "_id" won't be persisted properly.
+			* See MongoDBDialect#updateTuple
+			*/
+			if ( updater.isEmpty() ) {
+				updater = idObject;
+			}
+			return updater;
+		}
+
+		/**
+		 * The full document to insert: columns of embedded objects are turned into nested documents
+		 */
+		BasicDBObject getDocument() {
+			BasicDBObject document = new BasicDBObject( idObject );
+			for ( String column : setFields.keySet() ) {
+				String[] path = MongoDBTupleSnapshot.EMBEDDED_FIELDNAME_SEPARATOR.split( column, 0 );
+				BasicDBObject parent = document;
+				for ( int i = 0; i < path.length - 1; i++ ) {
+					Object child = parent.get( path[i] );
+					if ( !( child instanceof BasicDBObject ) ) {
+						child = new BasicDBObject();
+						parent.put( path[i], child );
+					}
+					parent = (BasicDBObject) child;
+				}
+				parent.put( path[path.length - 1], setFields.get( column ) );
+			}
+			return document;
+		}
+
+		static Collection<Object> idValues(Collection<PendingTupleWrite> writes) {
+			List<Object> ids = new ArrayList<Object>( writes.size() );
+			for ( PendingTupleWrite write : writes ) {
+				ids.add( write.idObject.get( MongoDBDialect.ID_FIELDNAME ) );
+			}
+			return ids;
+		}
+	}
+}
@@ -24,9 +24,14 @@
 import static org.jboss.logging.Logger.Level.TRACE;
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.util.List;
+import java.util.Set;
+
 import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
 import org.hibernate.HibernateException;
 import org.hibernate.ogm.datastore.mongodb.Environment;
+import org.hibernate.ogm.exception.TupleAlreadyExistsException;
 import org.jboss.logging.Cause;
 import org.jboss.logging.LogMessage;
 import org.jboss.logging.Message;
@@ -83,9 +88,56 @@ public interface Log extends org.hibernate.ogm.util.impl.Log {
 	@Message(id = 1213, value = "MongoDB authentication failed with username [%s]" )
 	HibernateException authenticationFailed(String username);
 
-	@Message(id = 1214, value = "Unable to connect to MongoDB instance %1$s:%2$d" )
-	HibernateException unableToConnectToDatastore(String host, int port, @Cause Exception e);
+	@Message(id = 1214, value = "Unable to connect to MongoDB instance %1$s" )
+	HibernateException unableToConnectToDatastore(String addresses, @Cause Exception e);
 
 	@Message( id = 1215, value = "The value set for the configuration property" + Environment.MONGODB_TIMEOUT +" must be a number greater than 0. Found '[%s]'.")
 	HibernateException mongoDBTimeOutIllegalValue(String value);
+
+	@Message(id = 1216, value = "The value set for the configuration property '" + Environment.MONGODB_BATCH_SIZE + "' must be a number greater than 0. Found '[%s]'.")
+	HibernateException mongoDBBatchSizeIllegalValue(String value);
+
+	@Message(id = 1217, value = "The value set for the configuration property '" + Environment.MONGODB_ASYNC_POOL_SIZE + "' must be a number greater than or equal to 0. Found '[%s]'.")
+	HibernateException mongoDBAsyncPoolSizeIllegalValue(String value);
+
+	@Message(id = 1218, value = "The value set for the configuration property '" + Environment.MONGODB_NEAR_CACHE_MAX_ENTRIES + "' must be a number greater than 0. Found '[%s]'.")
+	HibernateException mongoDBNearCacheMaxEntriesIllegalValue(String value);
+
+	@Message(id = 1219, value = "The value set for the configuration property '" + Environment.MONGODB_NEAR_CACHE_TTL + "' must be a number greater than or equal to 0. Found '[%s]'.")
+	HibernateException mongoDBNearCacheTimeToLiveIllegalValue(String value);
+
+	@LogMessage(level = WARN)
+	@Message(id = 1220, value = "Unable to register or unregister the statistics of the MongoDB near-cache in JMX")
+	void unableToManageNearCacheMBean(@Cause Exception e);
+
+	@LogMessage(level = INFO)
+	@Message(id = 1221, value = "Documents of the collections %s are kept in the near-cache")
+	void nearCacheEnabled(Set<String> collectionNames);
+
+	@Message(id = 1222, value = "The value set for the configuration property '%1$s' must be a number greater than or equal to %2$d. Found '[%3$s]'.")
+	HibernateException mongoDBIntegerPropertyIllegalValue(String property, int minimum, String value);
+
+	@Message(id = 1223, value = "Unknown value [%2$s] for the configuration property '%1$s'. Supported values in enum %3$s")
+	HibernateException unknownConfigurationValue(String property, String value, Class<?> enumType);
+
+	@LogMessage(level = INFO)
+	@Message(id = 1224, value = "Connecting to the MongoDB replica set %1$s with a timeout set at %2$d millisecond(s)")
+	void connectingToMongoReplicaSet(List<ServerAddress> seeds, int timeout);
+
+	@Message(id = 1225, value = "The collection [%1$s] has no index on %2$s. Set the configuration property '" + Environment.MONGODB_INDEX_MANAGEMENT + "' to CREATE to create it.")
+	HibernateException missingIndex(String collection, String keys);
+
+	@LogMessage(level = INFO)
+	@Message(id = 1226, value = "Creating the index %2$s on the collection [%1$s]")
+	void creatingIndex(String collection, String keys);
+
+	@Message(id = 1227, value = "Unable to create the index %2$s on the collection [%1$s]")
+	HibernateException unableToCreateIndex(String collection, String keys, @Cause MongoException e);
+
+	@Message(id = 1228, value = "Trying to insert an already existing document in the collection [%1$s]; the documents preceding it among the %2$d inserted together have been written")
+	TupleAlreadyExistsException documentAlreadyExists(String collection, int documents, @Cause MongoException e);
+
+	@LogMessage(level = WARN)
+	@Message(id = 1229, value = "Not managing the unique index %2$s on the collection [%1$s]: it spans a nullable column and documents sharing the non-null values would collide even when a column is null")
+	void skippingNullableCompoundUniqueIndex(String collection, String keys);
 }
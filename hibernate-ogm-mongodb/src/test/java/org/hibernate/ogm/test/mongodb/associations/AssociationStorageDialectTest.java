@@ -0,0 +1,155 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.associations;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.hibernate.ogm.datastore.mongodb.AssociationStorage;
+import org.hibernate.ogm.datastore.mongodb.Environment;
+import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.mongodb.MongoDBDialect;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.AssociationKind;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.grid.RowKey;
+import org.hibernate.ogm.test.utils.MongoDBTestHelper;
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBObject;
+
+/**
+ * Checks the association size computed by the server and the creation of an association
+ * under each {@link AssociationStorage}.
+ */
+public class AssociationStorageDialectTest {
+
+	private static final String ENTITY_TABLE = "Cloud";
+	private static final String ASSOCIATION_TABLE = "Cloud_SnowFlake";
+	private static final String ROLE = "producedSnowFlakes";
+	private static final String[] ROW_KEY_COLUMNS = { "Cloud_id", "producedSnowFlakes_id" };
+
+	@Test
+	public void testAssociationSizeIsComputedByTheServer() {
+		for ( AssociationStorage storage : AssociationStorage.values() ) {
+			MongoDBDatastoreProvider provider = startProvider( storage );
+			try {
+				MongoDBDialect dialect = new MongoDBDialect( provider );
+				provider.getDatabase().getCollection( ENTITY_TABLE ).insert( new BasicDBObject( MongoDBDialect.ID_FIELDNAME, "cumulus" ) );
+				AssociationKey key = associationKey( "cumulus" );
+				assertThat( dialect.getAssociationSize( key ) ).as( "Missing association with " + storage ).isEqualTo( 0 );
+
+				Association association = dialect.createAssociation( key );
+				assertThat( dialect.getAssociationSize( key ) ).as( "Empty association with " + storage ).isEqualTo( 0 );
+				put( dialect, association, key, "sf1" );
+				put( dialect, association, key, "sf2" );
+				put( dialect, association, key, "sf3" );
+				dialect.updateAssociation( association, key );
+				assertThat( dialect.getAssociationSize( key ) ).as( "Association with " + storage ).isEqualTo( 3 );
+
+				association = dialect.getAssociation( key, null );
+				association.remove( rowKey( "cumulus", "sf2" ) );
+				dialect.updateAssociation( association, key );
+				assertThat( dialect.getAssociationSize( key ) ).as( "Association with a removed row with " + storage ).isEqualTo( 2 );
+			}
+			finally {
+				stopProvider( provider );
+			}
+		}
+	}
+
+	@Test
+	public void testCreatingAnAssociationKeepsTheOwnerDocument() {
+		for ( AssociationStorage storage : AssociationStorage.values() ) {
+			MongoDBDatastoreProvider provider = startProvider( storage );
+			try {
+				MongoDBDialect dialect = new MongoDBDialect( provider );
+				provider.getDatabase().getCollection( ENTITY_TABLE ).insert(
+						new BasicDBObject( MongoDBDialect.ID_FIELDNAME, "stratus" ).append( "length", 23 ).append( "type", "low" ) );
+				AssociationKey key = associationKey( "stratus" );
+
+				//the owner exists without the association field: only the field is added, by _id
+				Association association = dialect.createAssociation( key );
+				put( dialect, association, key, "sf1" );
+				dialect.updateAssociation( association, key );
+
+				DBObject owner = provider.getDatabase().getCollection( ENTITY_TABLE ).findOne( new BasicDBObject( MongoDBDialect.ID_FIELDNAME, "stratus" ) );
+				assertThat( owner.get( "length" ) ).as( "Owner columns with " + storage ).isEqualTo( 23 );
+				assertThat( owner.get( "type" ) ).as( "Owner columns with " + storage ).isEqualTo( "low" );
+				if ( storage == AssociationStorage.IN_ENTITY ) {
+					assertThat( (Collection<?>) owner.get( ROLE ) ).hasSize( 1 );
+				}
+				else {
+					assertThat( owner.containsField( ROLE ) ).as( "Association stored in the owner with " + storage ).isFalse();
+				}
+				assertThat( dialect.getAssociationSize( key ) ).isEqualTo( 1 );
+			}
+			finally {
+				stopProvider( provider );
+			}
+		}
+	}
+
+	private static MongoDBDatastoreProvider startProvider(AssociationStorage storage) {
+		MongoDBDatastoreProvider provider = MongoDBTestHelper.startProvider(
+				Collections.singletonMap( Environment.MONGODB_ASSOCIATIONS_STORE, storage.toString().toLowerCase() ) );
+		dropCollections( provider.getDatabase() );
+		return provider;
+	}
+
+	private static void stopProvider(MongoDBDatastoreProvider provider) {
+		dropCollections( provider.getDatabase() );
+		provider.stop();
+	}
+
+	private static void dropCollections(DB database) {
+		database.getCollection( ENTITY_TABLE ).drop();
+		database.getCollection( Environment.MONGODB_DEFAULT_ASSOCIATION_STORE ).drop();
+		database.getCollection( MongoDBDialect.ASSOCIATIONS_COLLECTION_PREFIX + ASSOCIATION_TABLE ).drop();
+	}
+
+	private static void put(MongoDBDialect dialect, Association association, AssociationKey key, String snowFlakeId) {
+		RowKey rowKey = rowKey( (String) key.getColumnValues()[0], snowFlakeId );
+		Tuple row = dialect.createTupleAssociation( key, rowKey );
+		row.put( ROW_KEY_COLUMNS[0], key.getColumnValues()[0] );
+		row.put( ROW_KEY_COLUMNS[1], snowFlakeId );
+		association.put( rowKey, row );
+	}
+
+	private static AssociationKey associationKey(String cloudId) {
+		AssociationKey key = new AssociationKey( ASSOCIATION_TABLE, new String[] { ROW_KEY_COLUMNS[0] }, new Object[] { cloudId } );
+		key.setCollectionRole( ROLE );
+		key.setOwnerEntityKey( new EntityKey( ENTITY_TABLE, new String[] { "id" }, new Object[] { cloudId } ) );
+		key.setAssociationKind( AssociationKind.ASSOCIATION );
+		key.setRowKeyColumnNames( ROW_KEY_COLUMNS );
+		return key;
+	}
+
+	private static RowKey rowKey(String cloudId, String snowFlakeId) {
+		return new RowKey( ASSOCIATION_TABLE, ROW_KEY_COLUMNS, new Object[] { cloudId, snowFlakeId } );
+	}
+}
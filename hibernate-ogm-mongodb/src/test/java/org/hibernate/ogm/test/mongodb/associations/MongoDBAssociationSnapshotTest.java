@@ -0,0 +1,138 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.associations;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hibernate.ogm.datastore.mongodb.AssociationStorage;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.mongodb.MongoDBAssociationSnapshot;
+import org.hibernate.ogm.dialect.mongodb.MongoDBDialect;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.AssociationKind;
+import org.hibernate.ogm.grid.RowKey;
+import org.junit.Test;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Checks the rows handed out by {@link MongoDBAssociationSnapshot}, whatever the way they are read.
+ */
+public class MongoDBAssociationSnapshotTest {
+
+	private static final String[] ROW_KEY_COLUMNS = { "Cloud_id", "producedSnowFlakes_id" };
+
+	@Test
+	public void testRowsAreStreamedInTheOrderOfTheDocument() {
+		MongoDBAssociationSnapshot snapshot = snapshot( row( "a", 1 ), row( "b", 2 ), row( "c", 3 ) );
+
+		assertThat( snowFlakesOf( snapshot.getRows() ) ).containsExactly( "a", "b", "c" );
+		assertThat( snapshot.size() ).isEqualTo( 3 );
+		Tuple row = snapshot.getRows().next();
+		assertThat( row.get( "Cloud_id" ) ).isEqualTo( "cloud" );
+		assertThat( row.get( "order" ) ).isEqualTo( 1 );
+	}
+
+	@Test
+	public void testRowsWithTheSameKeyAreReturnedOnce() {
+		MongoDBAssociationSnapshot snapshot = snapshot( row( "a", 1 ), row( "b", 2 ), row( "a", 3 ) );
+
+		List<Tuple> rows = toList( snapshot.getRows() );
+		assertThat( snowFlakesOf( rows.iterator() ) ).containsExactly( "a", "b" );
+		assertThat( rows.get( 0 ).get( "order" ) ).as( "The first row of a key is streamed" ).isEqualTo( 1 );
+		assertThat( snapshot.size() ).isEqualTo( rows.size() );
+		assertThat( snapshot.get( rowKey( "a" ) ).get( "order" ) ).as( "The last row of a key is looked up" ).isEqualTo( 3 );
+	}
+
+	@Test
+	public void testRowsAreReadFromTheLookupMapOnceBuilt() {
+		MongoDBAssociationSnapshot snapshot = snapshot( row( "a", 1 ), row( "b", 2 ), row( "a", 3 ) );
+		assertThat( snapshot.containsKey( rowKey( "b" ) ) ).isTrue();
+
+		List<Tuple> rows = toList( snapshot.getRows() );
+		assertThat( snowFlakesOf( rows.iterator() ) ).containsExactly( "a", "b" );
+		assertThat( rows.get( 0 ).get( "order" ) ).isEqualTo( 3 );
+	}
+
+	@Test
+	public void testAssociationStreamsTheRowsUntilItIsChanged() {
+		Association association = new Association( snapshot( row( "a", 1 ), row( "b", 2 ) ) );
+		assertThat( snowFlakesOf( association.getRows() ) ).containsExactly( "a", "b" );
+
+		association.remove( rowKey( "a" ) );
+		assertThat( snowFlakesOf( association.getRows() ) ).containsOnly( "b" );
+	}
+
+	@Test
+	public void testEmptyDocument() {
+		MongoDBAssociationSnapshot snapshot = new MongoDBAssociationSnapshot( new BasicDBObject(), key(), AssociationStorage.COLLECTION );
+		assertThat( snapshot.getRows().hasNext() ).isFalse();
+		assertThat( snapshot.size() ).isEqualTo( 0 );
+	}
+
+	private static MongoDBAssociationSnapshot snapshot(DBObject... rows) {
+		BasicDBList rowList = new BasicDBList();
+		for ( DBObject row : rows ) {
+			rowList.add( row );
+		}
+		DBObject document = new BasicDBObject( MongoDBDialect.ID_FIELDNAME, new BasicDBObject( "Cloud_id", "cloud" ) )
+				.append( MongoDBDialect.ROWS_FIELDNAME, rowList );
+		return new MongoDBAssociationSnapshot( document, key(), AssociationStorage.COLLECTION );
+	}
+
+	private static AssociationKey key() {
+		AssociationKey key = new AssociationKey( "Cloud_SnowFlake", new String[] { "Cloud_id" }, new Object[] { "cloud" } );
+		key.setAssociationKind( AssociationKind.ASSOCIATION );
+		key.setRowKeyColumnNames( ROW_KEY_COLUMNS );
+		return key;
+	}
+
+	private static RowKey rowKey(String snowFlake) {
+		return new RowKey( "Cloud_SnowFlake", ROW_KEY_COLUMNS, new Object[] { "cloud", snowFlake } );
+	}
+
+	private static DBObject row(String snowFlake, int order) {
+		return new BasicDBObject( "producedSnowFlakes_id", snowFlake ).append( "order", order );
+	}
+
+	private static List<Tuple> toList(Iterator<Tuple> rows) {
+		List<Tuple> list = new ArrayList<Tuple>();
+		while ( rows.hasNext() ) {
+			list.add( rows.next() );
+		}
+		return list;
+	}
+
+	private static List<Object> snowFlakesOf(Iterator<Tuple> rows) {
+		List<Object> snowFlakes = new ArrayList<Object>();
+		while ( rows.hasNext() ) {
+			snowFlakes.add( rows.next().get( "producedSnowFlakes_id" ) );
+		}
+		return snowFlakes;
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.batch;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.hibernate.ogm.test.utils.TestHelper.assertNumberOfAssociations;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.datastore.mongodb.AssociationStorage;
+import org.hibernate.ogm.datastore.mongodb.Environment;
+import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.dialect.impl.GridDialectFactory;
+import org.hibernate.ogm.dialect.mongodb.MongoDBDialect;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.test.associations.collection.unidirectional.Cloud;
+import org.hibernate.ogm.test.associations.collection.unidirectional.SnowFlake;
+import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+
+/**
+ * Checks that the association writes of a flush are sent concurrently when
+ * {@link Environment#MONGODB_ASYNC_POOL_SIZE} is set and that the failure of one of them fails the flush.
+ */
+public class ConcurrentAssociationWritesTest extends OgmTestCase {
+
+	public void testAssociationWritesOfAFlushRunConcurrently() throws Exception {
+		//each write waits for the other ones: the flush only goes through if they run at the same time
+		BlockingAssociationDialect.barrier = new CyclicBarrier( 3 );
+		try {
+			Session session = openSession();
+			Transaction transaction = session.beginTransaction();
+			Cloud[] clouds = persistClouds( session, 3 );
+			transaction.commit();
+			session.close();
+
+			assertThat( assertNumberOfAssociations( 3, sessions ) ).isTrue();
+			deleteClouds( clouds );
+		}
+		finally {
+			BlockingAssociationDialect.barrier = null;
+		}
+	}
+
+	public void testFailureOfAnAssociationWriteFailsTheFlush() throws Exception {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Cloud[] clouds = persistClouds( session, 3 );
+		BlockingAssociationDialect.failingOwner = clouds[1].getId();
+		try {
+			session.flush();
+			fail( "The failure of the association write should have been propagated" );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).contains( clouds[1].getId() );
+		}
+		finally {
+			BlockingAssociationDialect.failingOwner = null;
+			transaction.rollback();
+			session.close();
+		}
+
+		//the other writes of the flush have been waited for
+		assertThat( assertNumberOfAssociations( 2, sessions ) ).isTrue();
+		deleteClouds( clouds );
+	}
+
+	private Cloud[] persistClouds(Session session, int number) {
+		Cloud[] clouds = new Cloud[number];
+		for ( int i = 0; i < number; i++ ) {
+			SnowFlake snowFlake = new SnowFlake();
+			snowFlake.setDescription( "Snowflake " + i );
+			session.persist( snowFlake );
+			clouds[i] = new Cloud();
+			clouds[i].setType( "Cloud " + i );
+			clouds[i].getProducedSnowFlakes().add( snowFlake );
+			session.persist( clouds[i] );
+		}
+		return clouds;
+	}
+
+	private void deleteClouds(Cloud... clouds) {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		for ( Cloud cloud : clouds ) {
+			Cloud loaded = (Cloud) session.get( Cloud.class, cloud.getId() );
+			loaded.getProducedSnowFlakes().clear();
+			session.delete( loaded );
+			//the association of a failed write might be missing: look the snowflakes up by id
+			for ( SnowFlake snowFlake : cloud.getProducedSnowFlakes() ) {
+				session.delete( session.get( SnowFlake.class, snowFlake.getId() ) );
+			}
+		}
+		transaction.commit();
+		session.close();
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.MONGODB_ASYNC_POOL_SIZE, "4" );
+		cfg.setProperty( Environment.MONGODB_ASSOCIATIONS_STORE, AssociationStorage.COLLECTION.name() );
+		cfg.setProperty( GridDialectFactory.GRID_DIALECT, BlockingAssociationDialect.class.getName() );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Cloud.class, SnowFlake.class };
+	}
+
+	public static class BlockingAssociationDialect extends MongoDBDialect {
+
+		static volatile CyclicBarrier barrier;
+		static volatile String failingOwner;
+
+		public BlockingAssociationDialect(MongoDBDatastoreProvider provider) {
+			super( provider );
+		}
+
+		@Override
+		public void updateAssociation(Association association, AssociationKey key) {
+			CyclicBarrier currentBarrier = barrier;
+			if ( currentBarrier != null ) {
+				try {
+					currentBarrier.await( 10, TimeUnit.SECONDS );
+				}
+				catch (Exception e) {
+					throw new HibernateException( "The association writes did not run concurrently", e );
+				}
+			}
+			if ( key.getColumnValues()[0].equals( failingOwner ) ) {
+				throw new HibernateException( "Simulated failure writing the association of " + failingOwner );
+			}
+			super.updateAssociation( association, key );
+		}
+	}
+}
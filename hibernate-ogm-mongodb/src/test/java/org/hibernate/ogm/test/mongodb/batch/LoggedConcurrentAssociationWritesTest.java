@@ -0,0 +1,46 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.batch;
+
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.dialect.GridDialectLogger;
+import org.hibernate.ogm.dialect.impl.GridDialectFactory;
+
+/**
+ * Runs {@link ConcurrentAssociationWritesTest} with the dialect wrapped in the {@link GridDialectLogger}
+ * installed when the trace logs are enabled, which must not turn the concurrent writes off.
+ */
+public class LoggedConcurrentAssociationWritesTest extends ConcurrentAssociationWritesTest {
+
+	@Override
+	protected void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( GridDialectFactory.GRID_DIALECT, LoggedBlockingAssociationDialect.class.getName() );
+	}
+
+	public static class LoggedBlockingAssociationDialect extends GridDialectLogger {
+
+		public LoggedBlockingAssociationDialect(MongoDBDatastoreProvider provider) {
+			super( new BlockingAssociationDialect( provider ) );
+		}
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.batch;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+
+import org.hibernate.ogm.datastore.mongodb.Environment;
+import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.dialect.mongodb.MongoDBDialect;
+import org.hibernate.ogm.exception.TupleAlreadyExistsException;
+import org.hibernate.ogm.grid.EntityKey;
+import org.hibernate.ogm.test.utils.MongoDBTestHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.WriteConcern;
+
+/**
+ * Checks how {@link MongoDBDialect} queues, coalesces and applies the tuple writes of a flush.
+ */
+public class TupleWriteBatchingTest {
+
+	private static final String COLLECTION = "BatchedTuple";
+
+	private MongoDBDatastoreProvider provider;
+	private MongoDBDialect dialect;
+	private DBCollection collection;
+
+	@Before
+	public void startProvider() {
+		provider = MongoDBTestHelper.startProvider( Collections.singletonMap( Environment.MONGODB_BATCH_SIZE, "3" ) );
+		dialect = new MongoDBDialect( provider );
+		collection = provider.getDatabase().getCollection( COLLECTION );
+		collection.drop();
+	}
+
+	@After
+	public void stopProvider() {
+		collection.drop();
+		provider.stop();
+	}
+
+	@Test
+	public void testWritesOfAKeyAreCoalescedUntilTheBatchIsExecuted() {
+		dialect.prepareBatch();
+		insert( "beethoven", "name", "Ludwig" );
+		Tuple tuple = dialect.createTuple( key( "beethoven" ), null );
+		tuple.put( "symphonies", 9 );
+		dialect.updateTuple( tuple, key( "beethoven" ) );
+		assertThat( collection.count() ).as( "Nothing should be written before the batch is executed" ).isEqualTo( 0 );
+		dialect.executeBatch();
+
+		DBObject document = collection.findOne( id( "beethoven" ) );
+		assertThat( document.get( "name" ) ).isEqualTo( "Ludwig" );
+		assertThat( document.get( "symphonies" ) ).isEqualTo( 9 );
+		assertThat( collection.count() ).isEqualTo( 1 );
+	}
+
+	@Test
+	public void testWritesAreAppliedInOrder() {
+		collection.insert( new BasicDBObject( "_id", "mozart" ).append( "name", "Wolfgang" ) );
+
+		dialect.prepareBatch();
+		insert( "bach", "name", "Johann" );
+		dialect.removeTuple( key( "bach" ) );
+		insert( "bach", "name", "Johann Sebastian" );
+		update( "mozart", "name", "Wolfgang Amadeus" );
+		dialect.removeTuple( key( "mozart" ) );
+		dialect.executeBatch();
+
+		assertThat( collection.findOne( id( "bach" ) ).get( "name" ) ).isEqualTo( "Johann Sebastian" );
+		assertThat( collection.findOne( id( "mozart" ) ) ).as( "The removal comes after the update" ).isNull();
+	}
+
+	@Test
+	public void testWritesAreSentWhenTheBatchSizeIsReached() {
+		dialect.prepareBatch();
+		insert( "haydn", "name", "Joseph" );
+		insert( "handel", "name", "George" );
+		assertThat( collection.count() ).isEqualTo( 0 );
+		insert( "vivaldi", "name", "Antonio" );
+		assertThat( collection.count() ).as( "A full batch should be applied right away" ).isEqualTo( 3 );
+		insert( "chopin", "name", "Frederic" );
+		dialect.executeBatch();
+		assertThat( collection.count() ).isEqualTo( 4 );
+	}
+
+	@Test
+	public void testInsertOfAnExistingDocumentFallsBackToAnUpsert() {
+		collection.insert( new BasicDBObject( "_id", "liszt" ).append( "instrument", "piano" ) );
+
+		dialect.prepareBatch();
+		insert( "liszt", "name", "Franz" );
+		insert( "brahms", "name", "Johannes" );
+		dialect.executeBatch();
+
+		DBObject document = collection.findOne( id( "liszt" ) );
+		assertThat( document.get( "name" ) ).isEqualTo( "Franz" );
+		assertThat( document.get( "instrument" ) ).isEqualTo( "piano" );
+		assertThat( collection.findOne( id( "brahms" ) ).get( "name" ) ).isEqualTo( "Johannes" );
+	}
+
+	@Test
+	public void testCreationOfAnExistingDocumentFailsWithoutAcknowledgedWrites() {
+		collection.setWriteConcern( WriteConcern.UNACKNOWLEDGED );
+		collection.insert( new BasicDBObject( "_id", "bruckner" ).append( "name", "Anton" ) );
+
+		try {
+			create( "bruckner", "name", "Joseph Anton" );
+			fail( "The existing document should have been detected" );
+		}
+		catch (TupleAlreadyExistsException e) {
+			//expected
+		}
+		assertThat( collection.findOne( id( "bruckner" ) ).get( "name" ) ).isEqualTo( "Anton" );
+	}
+
+	@Test
+	public void testBatchedCreationStopsAtTheExistingDocument() {
+		collection.insert( new BasicDBObject( "_id", "mahler" ).append( "name", "Gustav" ) );
+
+		dialect.prepareBatch();
+		create( "strauss", "name", "Richard" );
+		create( "mahler", "name", "Alma" );
+		assertThat( collection.count() ).as( "The duplicate is only detected when the batch is applied" ).isEqualTo( 1 );
+		try {
+			dialect.executeBatch();
+			fail( "The existing document should have been detected" );
+		}
+		catch (TupleAlreadyExistsException e) {
+			//expected
+		}
+		assertThat( collection.findOne( id( "strauss" ) ) ).as( "The documents preceding the duplicate are written" ).isNotNull();
+		assertThat( collection.findOne( id( "mahler" ) ).get( "name" ) ).isEqualTo( "Gustav" );
+	}
+
+	@Test
+	public void testNestedFlushKeepsTheOuterQueue() {
+		dialect.prepareBatch();
+		insert( "schubert", "name", "Franz" );
+
+		dialect.prepareBatch();
+		insert( "schumann", "name", "Robert" );
+		dialect.executeBatch();
+		assertThat( collection.count() ).as( "The nested flush leaves the writes to the outer one" ).isEqualTo( 0 );
+
+		dialect.prepareBatch();
+		dialect.clearBatch();
+		insert( "dvorak", "name", "Antonin" );
+		dialect.executeBatch();
+
+		assertThat( collection.findOne( id( "schubert" ) ) ).isNotNull();
+		assertThat( collection.findOne( id( "schumann" ) ) ).isNotNull();
+		assertThat( collection.findOne( id( "dvorak" ) ) ).isNotNull();
+	}
+
+	private void insert(String id, String column, Object value) {
+		Tuple tuple = dialect.createTuple( key( id ), null );
+		tuple.put( column, value );
+		dialect.updateTuple( tuple, key( id ) );
+	}
+
+	private void create(String id, String column, Object value) {
+		Tuple tuple = dialect.createTuple( key( id ), null );
+		tuple.put( column, value );
+		dialect.insertTuple( tuple, key( id ) );
+	}
+
+	private void update(String id, String column, Object value) {
+		Tuple tuple = dialect.createTupleForUpdate( key( id ), null );
+		tuple.put( column, value );
+		dialect.updateTuple( tuple, key( id ) );
+	}
+
+	private static EntityKey key(String id) {
+		return new EntityKey( COLLECTION, new String[] { "id" }, new Object[] { id } );
+	}
+
+	private static DBObject id(String id) {
+		return new BasicDBObject( "_id", id );
+	}
+}
@@ -23,6 +23,7 @@
 import org.hibernate.HibernateException;
 import org.hibernate.ogm.datastore.mongodb.Environment;
 import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.test.utils.MongoDBTestHelper;
 import org.hibernate.ogm.test.utils.TestHelper;
 import org.junit.Rule;
 import org.junit.Test;
@@ -32,6 +33,10 @@
 import java.util.Map;
 import java.util.Properties;
 
+import com.mongodb.DB;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+
 import static org.fest.assertions.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
@@ -74,6 +79,114 @@ public void testConnectionErrorWrappedInHibernateException() throws Exception {
 		provider.start();
 	}
 
+	@Test
+	public void testIllegalBatchSize() throws Exception {
+		Map<String, String> cfg = TestHelper.getEnvironmentProperties();
+		cfg.put( Environment.MONGODB_BATCH_SIZE, "0" );
+		MongoDBDatastoreProvider provider = new MongoDBDatastoreProvider();
+		error.expect( HibernateException.class );
+		error.expectMessage( "OGM001216" );
+		provider.configure( cfg );
+	}
+
+	@Test
+	public void testIllegalAsyncPoolSize() throws Exception {
+		Map<String, String> cfg = TestHelper.getEnvironmentProperties();
+		cfg.put( Environment.MONGODB_ASYNC_POOL_SIZE, "-1" );
+		MongoDBDatastoreProvider provider = new MongoDBDatastoreProvider();
+		error.expect( HibernateException.class );
+		error.expectMessage( "OGM001217" );
+		provider.configure( cfg );
+	}
+
+	@Test
+	public void testIllegalNearCacheMaxEntries() throws Exception {
+		Map<String, String> cfg = TestHelper.getEnvironmentProperties();
+		cfg.put( Environment.MONGODB_NEAR_CACHE_COLLECTIONS, "Currency" );
+		cfg.put( Environment.MONGODB_NEAR_CACHE_MAX_ENTRIES, "0" );
+		MongoDBDatastoreProvider provider = new MongoDBDatastoreProvider();
+		error.expect( HibernateException.class );
+		error.expectMessage( "OGM001218" );
+		provider.configure( cfg );
+	}
+
+	@Test
+	public void testUnknownReadPreference() throws Exception {
+		Map<String, String> cfg = TestHelper.getEnvironmentProperties();
+		cfg.put( Environment.MONGODB_READ_PREFERENCE, "secondary_only" );
+		assertStartFailsWith( cfg, "OGM001223" );
+	}
+
+	@Test
+	public void testIllegalConnectionsPerHost() throws Exception {
+		Map<String, String> cfg = TestHelper.getEnvironmentProperties();
+		cfg.put( Environment.MONGODB_CONNECTIONS_PER_HOST, "0" );
+		assertStartFailsWith( cfg, "OGM001222" );
+	}
+
+	@Test
+	public void testIllegalPort() throws Exception {
+		Map<String, String> cfg = TestHelper.getEnvironmentProperties();
+		cfg.put( Environment.MONGODB_PORT, "70000" );
+		assertStartFailsWith( cfg, "OGM001204" );
+	}
+
+	@Test
+	public void testIllegalPortInReplicaSetSeeds() throws Exception {
+		Map<String, String> cfg = TestHelper.getEnvironmentProperties();
+		cfg.put( Environment.MONGODB_HOST, "localhost:27017, localhost:port" );
+		assertStartFailsWith( cfg, "OGM001204" );
+	}
+
+	@Test
+	public void testConnectionErrorToReplicaSetReportsTheSeeds() throws Exception {
+		Map<String, String> cfg = TestHelper.getEnvironmentProperties();
+		cfg.put( Environment.MONGODB_DATABASE, "ogm_test_database" );
+		cfg.put( Environment.MONGODB_TIMEOUT, "30" );
+		//IPs from TEST-NET-3, never assigned
+		cfg.put( Environment.MONGODB_HOST, "203.0.113.1:27017, 203.0.113.2:27018" );
+		MongoDBDatastoreProvider provider = new MongoDBDatastoreProvider();
+		provider.configure( cfg );
+		error.expect( HibernateException.class );
+		error.expectMessage( "OGM001214" );
+		error.expectMessage( "203.0.113.1:27017, 203.0.113.2:27018" );
+		provider.start();
+	}
+
+	@Test
+	public void testReadPreferenceAndWriteConcernOfACollection() throws Exception {
+		Map<String, String> cfg = new HashMap<String, String>();
+		cfg.put( Environment.MONGODB_READ_PREFERENCE + ".Poem", "secondary_preferred" );
+		cfg.put( Environment.MONGODB_WRITE_CONCERN + ".Poem", "journaled" );
+		MongoDBDatastoreProvider provider = MongoDBTestHelper.startProvider( cfg );
+		try {
+			DB database = provider.getDatabase();
+			assertThat( database.getCollection( "Poem" ).getReadPreference() ).isEqualTo( ReadPreference.secondaryPreferred() );
+			assertThat( database.getCollection( "Poem" ).getWriteConcern() ).isEqualTo( WriteConcern.JOURNALED );
+			assertThat( database.getCollection( "Novel" ).getReadPreference() ).isEqualTo( database.getReadPreference() );
+			assertThat( database.getCollection( "Novel" ).getWriteConcern() ).isEqualTo( database.getWriteConcern() );
+		}
+		finally {
+			provider.stop();
+		}
+	}
+
+	/*
+	 * Invalid settings read when the provider starts are reported wrapped in OGM001203
+	 */
+	private void assertStartFailsWith(Map<String, String> cfg, String code) {
+		MongoDBDatastoreProvider provider = new MongoDBDatastoreProvider();
+		provider.configure( cfg );
+		try {
+			provider.start();
+			fail( "The provider should not start" );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).contains( "OGM001203" );
+			assertThat( e.getCause().getMessage() ).contains( code );
+		}
+	}
+
 	@Test
 	public void testConnectionTimeout() {
 		/**
@@ -0,0 +1,135 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.index;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.datastore.mongodb.Environment;
+import org.hibernate.ogm.datastore.mongodb.IndexManagement;
+import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Checks that the indexes required by the mapping are created when the session factory starts.
+ */
+public class IndexCreationTest extends OgmTestCase {
+
+	@Test
+	public void testIndexesAreCreated() {
+		MongoDBDatastoreProvider provider = (MongoDBDatastoreProvider) sfi().getServiceRegistry().getService( DatastoreProvider.class );
+		List<DBObject> indexes = provider.getDatabase().getCollection( "Poem" ).getIndexInfo();
+
+		DBObject nameIndex = findIndex( indexes, "name" );
+		assertThat( nameIndex ).isNotNull();
+		assertThat( nameIndex.get( "unique" ) ).isEqualTo( Boolean.TRUE );
+		assertThat( nameIndex.get( "sparse" ) ).as( "The name column is nullable" ).isEqualTo( Boolean.TRUE );
+
+		DBObject authorIndex = findIndex( indexes, "author" );
+		assertThat( authorIndex ).isNotNull();
+		assertThat( authorIndex.get( "name" ) ).isEqualTo( "author_idx" );
+
+		for ( DBObject index : indexes ) {
+			DBObject keys = (DBObject) index.get( "key" );
+			assertThat( keys.containsField( "collection" ) )
+					.as( "A compound unique index on nullable columns cannot be enforced" )
+					.isFalse();
+		}
+	}
+
+	@Test
+	public void testNullColumnsOutsideSparseIndexesAreStored() {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Poem poem = poem( "untitled-3", "Untitled" );
+		poem.setAuthor( null );
+		session.persist( poem );
+		transaction.commit();
+
+		MongoDBDatastoreProvider provider = (MongoDBDatastoreProvider) sfi().getServiceRegistry().getService( DatastoreProvider.class );
+		DBObject document = provider.getDatabase().getCollection( "Poem" ).findOne( new BasicDBObject( "_id", "untitled-3" ) );
+		assertThat( document.containsField( "author" ) ).isTrue();
+		assertThat( document.get( "author" ) ).isNull();
+		assertThat( document.containsField( "collection" ) ).isTrue();
+
+		transaction = session.beginTransaction();
+		session.delete( session.get( Poem.class, "untitled-3" ) );
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testEntitiesWithANullUniqueColumn() {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		session.persist( poem( "untitled-1", null ) );
+		session.persist( poem( "untitled-2", null ) );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		Poem poem = (Poem) session.get( Poem.class, "untitled-2" );
+		assertThat( poem ).isNotNull();
+		assertThat( poem.getName() ).isNull();
+		session.delete( poem );
+		session.delete( session.get( Poem.class, "untitled-1" ) );
+		transaction.commit();
+		session.close();
+	}
+
+	private Poem poem(String id, String name) {
+		Poem poem = new Poem();
+		poem.setId( id );
+		poem.setName( name );
+		poem.setAuthor( "Anonymous" );
+		return poem;
+	}
+
+	private DBObject findIndex(List<DBObject> indexes, String field) {
+		for ( DBObject index : indexes ) {
+			DBObject keys = (DBObject) index.get( "key" );
+			if ( keys.keySet().size() == 1 && keys.containsField( field ) ) {
+				return index;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.MONGODB_INDEX_MANAGEMENT, IndexManagement.CREATE.name() );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Poem.class };
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.index;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.Index;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "author", "collection" }))
+public class Poem {
+	@Id
+	private String id;
+	public String getId() { return id; }
+	public void setId(String id) { this.id = id; }
+
+	@Column(unique = true)
+	private String name;
+	public String getName() { return name; }
+	public void setName(String name) { this.name = name; }
+
+	@Index(name = "author_idx")
+	private String author;
+	public String getAuthor() { return author; }
+	public void setAuthor(String author) { this.author = author; }
+
+	private String collection;
+	public String getCollection() { return collection; }
+	public void setCollection(String collection) { this.collection = collection; }
+}
@@ -0,0 +1,98 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.nearcache;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.datastore.mongodb.Environment;
+import org.hibernate.ogm.datastore.mongodb.impl.DocumentNearCache;
+import org.hibernate.ogm.datastore.mongodb.impl.MongoDBDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * Checks that the near-cache of the MongoDB datastore provider serves repeated reads and is invalidated by writes.
+ */
+public class NearCacheTest extends OgmTestCase {
+
+	@Test
+	public void testReadsAreServedFromTheNearCacheUntilTheDocumentIsWritten() {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Currency euro = new Currency();
+		euro.setCode( "EUR" );
+		euro.setName( "Euro" );
+		session.persist( euro );
+		transaction.commit();
+		session.close();
+
+		DocumentNearCache nearCache = getNearCache();
+		assertThat( loadName( "EUR" ) ).isEqualTo( "Euro" );
+		long hits = nearCache.getHitCount();
+		assertThat( loadName( "EUR" ) ).isEqualTo( "Euro" );
+		assertThat( nearCache.getHitCount() ).isEqualTo( hits + 1 );
+
+		long invalidations = nearCache.getInvalidationCount();
+		session = openSession();
+		transaction = session.beginTransaction();
+		euro = (Currency) session.get( Currency.class, "EUR" );
+		euro.setName( "Euro (EUR)" );
+		transaction.commit();
+		session.close();
+		assertThat( nearCache.getInvalidationCount() ).isGreaterThan( invalidations );
+		assertThat( loadName( "EUR" ) ).isEqualTo( "Euro (EUR)" );
+
+		session = openSession();
+		transaction = session.beginTransaction();
+		session.delete( session.get( Currency.class, "EUR" ) );
+		transaction.commit();
+		session.close();
+	}
+
+	private String loadName(String code) {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		String name = ( (Currency) session.get( Currency.class, code ) ).getName();
+		transaction.commit();
+		session.close();
+		return name;
+	}
+
+	private DocumentNearCache getNearCache() {
+		MongoDBDatastoreProvider provider = (MongoDBDatastoreProvider) sfi().getServiceRegistry().getService( DatastoreProvider.class );
+		return provider.getNearCache();
+	}
+
+	@Override
+	protected void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.MONGODB_NEAR_CACHE_COLLECTIONS, "Currency:version" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Currency.class };
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.test.mongodb.update;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.dialect.impl.GridDialectFactory;
+import org.hibernate.ogm.test.simpleentity.OgmTestCase;
+import org.hibernate.ogm.test.utils.CountingGridDialect;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * Checks that an unversioned entity updated without reading its document first keeps its other columns.
+ */
+public class BlindUpdateTest extends OgmTestCase {
+
+	@Test
+	public void testUpdateOnlyWritesTheDirtyColumns() {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Bookmark bookmark = new Bookmark();
+		bookmark.setUrl( "http://www.hibernate.org/subprojects/ogm.html" );
+		bookmark.setTitle( "Hibernate OGM" );
+		bookmark.setDescription( "JPA for NoSQL" );
+		session.persist( bookmark );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		bookmark = (Bookmark) session.get( Bookmark.class, bookmark.getUrl() );
+		bookmark.setDescription( "Java Persistence for NoSQL datastores" );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		bookmark = (Bookmark) session.get( Bookmark.class, bookmark.getUrl() );
+		assertThat( bookmark.getTitle() ).isEqualTo( "Hibernate OGM" );
+		assertThat( bookmark.getDescription() ).isEqualTo( "Java Persistence for NoSQL datastores" );
+		bookmark.setTitle( null );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		bookmark = (Bookmark) session.get( Bookmark.class, bookmark.getUrl() );
+		assertThat( bookmark.getTitle() ).isNull();
+		assertThat( bookmark.getDescription() ).isEqualTo( "Java Persistence for NoSQL datastores" );
+		session.delete( bookmark );
+		transaction.commit();
+		session.close();
+	}
+
+	@Test
+	public void testUpdateDoesNotReadTheDocumentThroughTheLoggingDialect() {
+		Session session = openSession();
+		Transaction transaction = session.beginTransaction();
+		Bookmark bookmark = new Bookmark();
+		bookmark.setUrl( "http://in.relation.to" );
+		bookmark.setTitle( "In Relation To" );
+		session.persist( bookmark );
+		transaction.commit();
+		session.clear();
+
+		transaction = session.beginTransaction();
+		bookmark = (Bookmark) session.get( Bookmark.class, bookmark.getUrl() );
+		bookmark.setDescription( "The Hibernate team blog" );
+		CountingGridDialect.reset();
+		transaction.commit();
+		assertThat( CountingGridDialect.getTupleCount() ).isEqualTo( 0 );
+		assertThat( CountingGridDialect.getUpdateTupleCount() ).isEqualTo( 1 );
+		session.clear();
+
+		transaction = session.beginTransaction();
+		bookmark = (Bookmark) session.get( Bookmark.class, bookmark.getUrl() );
+		assertThat( bookmark.getTitle() ).isEqualTo( "In Relation To" );
+		assertThat( bookmark.getDescription() ).isEqualTo( "The Hibernate team blog" );
+		session.delete( bookmark );
+		transaction.commit();
+		session.close();
+	}
+
+	/**
+	 * {@link CountingGridDialect} is a {@link org.hibernate.ogm.dialect.GridDialectLogger}, like the wrapper
+	 * installed when the trace logs are enabled
+	 */
+	@Override
+	protected void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( GridDialectFactory.GRID_DIALECT, CountingGridDialect.class.getName() );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[] { Bookmark.class };
+	}
+}
@@ -161,6 +161,20 @@ public Map<String, String> getEnvironmentProperties() {
 		return envProps;
 	}
 
+	/**
+	 * Start a provider connected to the test database outside of any session factory,
+	 * the given properties are added to the environment ones
+	 */
+	public static MongoDBDatastoreProvider startProvider(Map<String, String> properties) {
+		Map<String, String> cfg = TestHelper.getEnvironmentProperties();
+		cfg.put( Environment.MONGODB_DATABASE, "ogm_test_database" );
+		cfg.putAll( properties );
+		MongoDBDatastoreProvider provider = new MongoDBDatastoreProvider();
+		provider.configure( cfg );
+		provider.start();
+		return provider;
+	}
+
 	private void copyFromSystemPropertiesToLocalEnvironment(String environmentVariableName, Map<String, String> envProps) {
 		String value = System.getProperties().getProperty( environmentVariableName );
 		if ( value != null && value.length() > 0 ) {
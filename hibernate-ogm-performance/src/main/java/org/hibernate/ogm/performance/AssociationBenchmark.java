@@ -0,0 +1,81 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.performance;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.performance.model.Blog;
+import org.hibernate.ogm.performance.model.BlogEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Growth of a one-to-many association: each invocation adds a new entry to the same blog,
+ * which ends up in the OGM collection persister inserting rows in an ever larger association.
+ * A new blog is used for each iteration so that iterations measure the same association sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AssociationBenchmark {
+
+	private Long blogId;
+
+	@Setup(Level.Iteration)
+	public void createBlog(DatastoreState state) {
+		Session session = state.getSessionFactory().openSession();
+		Transaction transaction = session.beginTransaction();
+		Blog blog = new Blog();
+		blog.setTitle( "My life in a blog" );
+		session.persist( blog );
+		transaction.commit();
+		session.close();
+		blogId = blog.getId();
+	}
+
+	@Benchmark
+	public BlogEntry addEntry(DatastoreState state) {
+		Session session = state.getSessionFactory().openSession();
+		Transaction transaction = session.beginTransaction();
+		Blog blog = (Blog) session.get( Blog.class, blogId );
+		BlogEntry entry = new BlogEntry();
+		entry.setContent( "Lorem ipsum dolor sit amet, consectetur adipiscing elit." );
+		session.persist( entry );
+		blog.getEntries().add( entry );
+		transaction.commit();
+		session.close();
+		return entry;
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.performance;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.ogm.cfg.OgmConfiguration;
+import org.hibernate.ogm.performance.model.Author;
+import org.hibernate.ogm.performance.model.Blog;
+import org.hibernate.ogm.performance.model.BlogEntry;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Starts an OGM session factory on the datastore selected by the {@code datastore} parameter.
+ *
+ * The {@code mongodb} datastore is not part of the default parameters as it requires a running server:
+ * select it with {@code -p datastore=mongodb}. The system properties starting with {@code hibernate.}
+ * are applied to the configuration, so {@code hibernate.ogm.mongodb.host} and {@code hibernate.ogm.mongodb.port}
+ * can point to a MongoDB server or to any local stand-in for it.
+ */
+@State(Scope.Benchmark)
+public class DatastoreState {
+
+	@Param({ "map", "infinispan", "ehcache" })
+	public String datastore;
+
+	private SessionFactory sessionFactory;
+
+	@Setup
+	public void startSessionFactory() {
+		OgmConfiguration cfg = new OgmConfiguration();
+		cfg.setProperty( "hibernate.ogm.datastore.provider", datastore );
+		//the table generators of the model allocate pooled blocks of identifiers
+		cfg.setProperty( Configuration.USE_NEW_ID_GENERATOR_MAPPINGS, "true" );
+		if ( "infinispan".equals( datastore ) ) {
+			cfg.setProperty( "hibernate.ogm.infinispan.configuration_resourcename", "infinispan-local.xml" );
+		}
+		else if ( "mongodb".equals( datastore ) ) {
+			cfg.setProperty( "hibernate.ogm.mongodb.database", "ogm_benchmarks" );
+		}
+		for ( Map.Entry<Object, Object> property : System.getProperties().entrySet() ) {
+			String name = String.valueOf( property.getKey() );
+			if ( name.startsWith( "hibernate." ) ) {
+				cfg.setProperty( name, String.valueOf( property.getValue() ) );
+			}
+		}
+		cfg.addAnnotatedClass( Author.class );
+		cfg.addAnnotatedClass( Blog.class );
+		cfg.addAnnotatedClass( BlogEntry.class );
+		sessionFactory = cfg.buildSessionFactory();
+	}
+
+	@TearDown
+	public void stopSessionFactory() {
+		sessionFactory.close();
+	}
+
+	public SessionFactory getSessionFactory() {
+		return sessionFactory;
+	}
+
+	public Author persistAuthor() {
+		Session session = sessionFactory.openSession();
+		Transaction transaction = session.beginTransaction();
+		Author author = newAuthor();
+		session.persist( author );
+		transaction.commit();
+		session.close();
+		return author;
+	}
+
+	public static Author newAuthor() {
+		Author author = new Author();
+		author.setFirstName( "Emmanuel" );
+		author.setLastName( "Bernard" );
+		author.setDob( new Date() );
+		author.setBio( "This is a decent size bio made of a few words and some stuffs" );
+		return author;
+	}
+}
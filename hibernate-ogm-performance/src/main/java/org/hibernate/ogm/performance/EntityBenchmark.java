@@ -0,0 +1,94 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.performance.model.Author;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Insert, find and update of a simple entity, going through the OGM entity persister.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntityBenchmark {
+
+	private static final int NUMBER_OF_AUTHORS = 1000;
+
+	private final List<Long> authorIds = new ArrayList<Long>( NUMBER_OF_AUTHORS );
+	private final Random random = new Random( 42 );
+
+	@Setup
+	public void populate(DatastoreState state) {
+		for ( int i = 0; i < NUMBER_OF_AUTHORS; i++ ) {
+			authorIds.add( state.persistAuthor().getId() );
+		}
+	}
+
+	@Benchmark
+	public Author insert(DatastoreState state) {
+		return state.persistAuthor();
+	}
+
+	@Benchmark
+	public Author find(DatastoreState state) {
+		Session session = state.getSessionFactory().openSession();
+		Transaction transaction = session.beginTransaction();
+		Author author = (Author) session.get( Author.class, randomId() );
+		transaction.commit();
+		session.close();
+		return author;
+	}
+
+	@Benchmark
+	public Author update(DatastoreState state) {
+		Session session = state.getSessionFactory().openSession();
+		Transaction transaction = session.beginTransaction();
+		Author author = (Author) session.get( Author.class, randomId() );
+		author.setBio( "Updated bio " + random.nextInt() );
+		transaction.commit();
+		session.close();
+		return author;
+	}
+
+	private Long randomId() {
+		return authorIds.get( random.nextInt( authorIds.size() ) );
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.hibernate.ogm.performance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.datastore.impl.EmptyTupleSnapshot;
+import org.hibernate.ogm.datastore.impl.MapHelpers;
+import org.hibernate.ogm.datastore.map.impl.MapAssociationSnapshot;
+import org.hibernate.ogm.datastore.spi.Association;
+import org.hibernate.ogm.datastore.spi.Tuple;
+import org.hibernate.ogm.datastore.spi.TupleContext;
+import org.hibernate.ogm.grid.AssociationKey;
+import org.hibernate.ogm.grid.RowKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link Tuple} and {@link Association} operations in isolation, without any datastore.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TupleBenchmark {
+
+	private static final String TABLE = "Blog_BlogEntry";
+	private static final String[] ROW_KEY_COLUMNS = { "Blog_id", "entries_id" };
+
+	@Param({ "10" })
+	public int numberOfColumns;
+
+	@Param({ "100" })
+	public int associationSize;
+
+	private String[] columns;
+	private int[] slots;
+	private TupleContext tupleContext;
+	private AssociationKey associationKey;
+
+	@Setup
+	public void createColumns() {
+		columns = new String[numberOfColumns];
+		List<String> columnNames = new ArrayList<String>( numberOfColumns );
+		for ( int i = 0; i < numberOfColumns; i++ ) {
+			columns[i] = "column_" + i;
+			columnNames.add( columns[i] );
+		}
+		tupleContext = new TupleContext( columnNames );
+		slots = tupleContext.getSlots( columns );
+		associationKey = new AssociationKey( TABLE, new String[] { "Blog_id" }, new Object[] { 1L } );
+	}
+
+	@Benchmark
+	public void tupleWithoutContext(Blackhole blackhole) {
+		fillAndRead( new Tuple( EmptyTupleSnapshot.SINGLETON ), blackhole );
+	}
+
+	@Benchmark
+	public void tupleWithContext(Blackhole blackhole) {
+		fillAndRead( new Tuple( EmptyTupleSnapshot.SINGLETON, tupleContext ), blackhole );
+	}
+
+	@Benchmark
+	public void tupleWithContextBySlot(Blackhole blackhole) {
+		Tuple tuple = new Tuple( EmptyTupleSnapshot.SINGLETON, tupleContext );
+		for ( int i = 0; i < columns.length; i++ ) {
+			tuple.put( slots[i], columns[i], i );
+		}
+		for ( int i = 0; i < columns.length; i++ ) {
+			blackhole.consume( tuple.get( slots[i], columns[i] ) );
+		}
+		blackhole.consume( tuple.getOperations() );
+	}
+
+	@Benchmark
+	public Association associationPut() {
+		Association association = new Association( new MapAssociationSnapshot( new HashMap<RowKey, Map<String, Object>>() ) );
+		for ( long i = 0; i < associationSize; i++ ) {
+			association.put( rowKey( i ), row( i ) );
+		}
+		return association;
+	}
+
+	@Benchmark
+	public Map<RowKey, Map<String, Object>> associationWrite() {
+		Map<RowKey, Map<String, Object>> store = new HashMap<RowKey, Map<String, Object>>();
+		Association association = new Association( new MapAssociationSnapshot( store ) );
+		for ( long i = 0; i < associationSize; i++ ) {
+			association.put( rowKey( i ), row( i ) );
+		}
+		MapHelpers.updateAssociation( association, associationKey );
+		return store;
+	}
+
+	private void fillAndRead(Tuple tuple, Blackhole blackhole) {
+		for ( int i = 0; i < columns.length; i++ ) {
+			tuple.put( columns[i], i );
+		}
+		for ( int i = 0; i < columns.length; i++ ) {
+			blackhole.consume( tuple.get( columns[i] ) );
+		}
+		blackhole.consume( tuple.getOperations() );
+	}
+
+	private RowKey rowKey(long entryId) {
+		return new RowKey( TABLE, ROW_KEY_COLUMNS, new Object[] { 1L, entryId } );
+	}
+
+	private Tuple row(long entryId) {
+		Tuple row = new Tuple( EmptyTupleSnapshot.SINGLETON );
+		row.put( ROW_KEY_COLUMNS[0], 1L );
+		row.put( ROW_KEY_COLUMNS[1], entryId );
+		return row;
+	}
+}